@@ -0,0 +1,66 @@
+package com.zenjob.challenge.jmh;
+
+import com.zenjob.challenge.controller.JobController;
+import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.exception.GlobalExceptionHandler;
+import com.zenjob.challenge.exception.JobNotFoundException;
+import com.zenjob.challenge.service.JobService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * The 404 and 400 answers to requests for unknown and invalid job IDs, through the dispatcher servlet,
+ * the {@link GlobalExceptionHandler} and the serialization of the error body. The job service throws
+ * without a database, so this measures what the error path adds to every such request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ErrorResponseBenchmark {
+
+    private MockMvc mockMvc;
+    private String unknownId = UUID.randomUUID().toString();
+    private String invalidId = "not-a-uuid";
+
+    @Setup
+    public void setUp() {
+        JobService jobService = new JobService(null, null, null, null, null, null, null) {
+            @Override
+            public Job fetch(UUID jobId) {
+                throw new JobNotFoundException(jobId);
+            }
+        };
+        mockMvc = MockMvcBuilders.standaloneSetup(new JobController(jobService, null, null, null))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse jobNotFound() throws Exception {
+        return mockMvc.perform(get("/v1/job/{jobId}", unknownId)).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse invalidJobId() throws Exception {
+        return mockMvc.perform(get("/v1/job/{jobId}", invalidId)).andReturn().getResponse();
+    }
+}
@@ -0,0 +1,72 @@
+package com.zenjob.challenge.jmh;
+
+import com.zenjob.challenge.Application;
+import com.zenjob.challenge.dto.JobRequestDto;
+import com.zenjob.challenge.dto.ShiftDto;
+import com.zenjob.challenge.service.JobService;
+import com.zenjob.challenge.service.ShiftService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ShiftService#fetchByJobId} against the in-memory database of a started application.
+ * The shifts are read straight into {@link ShiftDto}s by the query, so this measures the query
+ * together with the mapping of its rows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FetchShiftsBenchmark {
+
+    @Param({"30", "365"})
+    private int shifts;
+
+    private ConfigurableApplicationContext context;
+    private ShiftService shiftService;
+    private UUID jobId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN")
+                .run();
+        shiftService = context.getBean(ShiftService.class);
+
+        LocalDate start = LocalDate.now().plusDays(1);
+        jobId = context.getBean(JobService.class)
+                .create(new JobRequestDto(UUID.randomUUID(), start, start.plusDays(shifts - 1)))
+                .getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ShiftDto> fetchByJobId() {
+        return shiftService.fetchByJobId(jobId);
+    }
+}
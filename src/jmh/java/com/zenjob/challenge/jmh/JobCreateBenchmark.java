@@ -0,0 +1,78 @@
+package com.zenjob.challenge.jmh;
+
+import com.zenjob.challenge.dto.JobRequestDto;
+import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.Shift;
+import com.zenjob.challenge.repository.JobRepository;
+import com.zenjob.challenge.repository.OutboxEventRepository;
+import com.zenjob.challenge.service.BusinessMetrics;
+import com.zenjob.challenge.service.JobService;
+import com.zenjob.challenge.service.KnownIdFilter;
+import com.zenjob.challenge.service.OutboxPublisher;
+import com.zenjob.challenge.service.ShiftAvailabilityIndex;
+import com.zenjob.challenge.util.IdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JobService#create} without a database: validation, building the job and one shift per day,
+ * and serializing the created event. The repositories do nothing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JobCreateBenchmark {
+
+    @Param({"7", "30", "365"})
+    private int days;
+
+    private JobService jobService;
+    private JobRequestDto request;
+
+    @Setup
+    public void setUp() {
+        JobRepository jobRepository = Stubs.of(JobRepository.class, (method, args) ->
+                method.getName().equals("insertWithShifts") ? args[0] : null);
+        OutboxPublisher outboxPublisher = new OutboxPublisher(Stubs.of(OutboxEventRepository.class, (method, args) -> null),
+                Jackson2ObjectMapperBuilder.json().build(), Clock.systemUTC());
+        ShiftAvailabilityIndex shiftAvailabilityIndex = new ShiftAvailabilityIndex(null, null, 1, Duration.ZERO) {
+            @Override
+            public void addAfterCommit(Collection<Shift> shifts) {
+                //Created jobs are not kept, the index would grow with every operation
+            }
+        };
+        //Disabled, the filter would grow with every operation
+        KnownIdFilter knownIdFilter = new KnownIdFilter(null, null, null, new SimpleMeterRegistry(), false, 0.01, 1);
+        jobService = new JobService(jobRepository, null, IdGenerator.forStrategy(IdGenerator.TIME_ORDERED),
+                outboxPublisher, shiftAvailabilityIndex, new BusinessMetrics(new SimpleMeterRegistry()), knownIdFilter);
+
+        LocalDate start = LocalDate.now().plusDays(1);
+        request = new JobRequestDto(UUID.randomUUID(), start, start.plusDays(days - 1));
+    }
+
+    @Benchmark
+    public Job create() {
+        return jobService.create(request);
+    }
+}
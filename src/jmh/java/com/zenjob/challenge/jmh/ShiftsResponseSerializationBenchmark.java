@@ -0,0 +1,98 @@
+package com.zenjob.challenge.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zenjob.challenge.dto.ResponseDto;
+import com.zenjob.challenge.dto.ShiftDto;
+import com.zenjob.challenge.dto.ShiftsResponseDto;
+import com.zenjob.challenge.entity.Shift;
+import com.zenjob.challenge.util.ShiftBinaryWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the shift listing of a job, as written by the shift controller: JSON by Jackson,
+ * and the binary format of {@link ShiftBinaryWriter}. The object mapper is configured like the one of
+ * Spring Boot, with dates written as ISO strings. The payload size of both is printed at setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShiftsResponseSerializationBenchmark {
+
+    //Initial size of the output, the writer flushes in blocks of this size
+    private static final int BINARY_BUFFER_BYTES = 8192;
+
+    @Param({"30", "365"})
+    private int shifts;
+
+    private ObjectMapper objectMapper;
+    private ResponseDto<ShiftsResponseDto> response;
+    private UUID jobId;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        jobId = UUID.randomUUID();
+        LocalDate start = LocalDate.now().plusDays(1);
+        List<ShiftDto> shiftDtos = new ArrayList<>();
+        for (int day = 0; day < shifts; day++) {
+            shiftDtos.add(ShiftDto.builder()
+                    .id(UUID.randomUUID())
+                    .talentId(day % 3 == 0 ? UUID.randomUUID() : null)
+                    .jobId(jobId)
+                    .start(start.plusDays(day).atTime(8, 0).toInstant(ZoneOffset.UTC))
+                    .end(start.plusDays(day).atTime(16, 0).toInstant(ZoneOffset.UTC))
+                    .status(day % 3 == 0 ? Shift.Status.BOOKED : Shift.Status.CREATED)
+                    .build());
+        }
+        response = ResponseDto.<ShiftsResponseDto>builder()
+                .data(ShiftsResponseDto.builder().shifts(shiftDtos).build())
+                .build();
+
+        System.out.printf("%nPayload of %d shifts: JSON %d bytes, binary %d bytes%n",
+                shifts, writeValueAsBytes().length, writeBinary().length);
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] writeBinary() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(BINARY_BUFFER_BYTES);
+        try (ShiftBinaryWriter writer = new ShiftBinaryWriter(out, jobId)) {
+            for (ShiftDto shift : response.getData().getShifts()) {
+                writer.write(shift);
+            }
+        }
+        return out.toByteArray();
+    }
+}
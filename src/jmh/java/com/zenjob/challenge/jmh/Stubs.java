@@ -0,0 +1,23 @@
+package com.zenjob.challenge.jmh;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.function.BiFunction;
+
+/**
+ * Stand-ins for repository interfaces, so services can be benchmarked without a database.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * @param type The interface to implement.
+     * @param answer Returns the result of a call from the method and its arguments.
+     */
+    static <T> T of(Class<T> type, BiFunction<Method, Object[], Object> answer) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> answer.apply(method, args)));
+    }
+}
@@ -0,0 +1,46 @@
+package com.zenjob.challenge.jmh;
+
+import com.zenjob.challenge.exception.BadRequestException;
+import com.zenjob.challenge.util.UUIDValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UUIDValidator#validateUUID} on the path variables of every request, valid and invalid.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UUIDValidatorBenchmark {
+
+    //Not constants, so the parsing is not folded away
+    private String valid = UUID.randomUUID().toString();
+    private String invalid = "not-a-uuid";
+
+    @Benchmark
+    public UUID valid() {
+        return UUIDValidator.validateUUID(valid);
+    }
+
+    @Benchmark
+    public Object invalid() {
+        try {
+            return UUIDValidator.validateUUID(invalid);
+        } catch (BadRequestException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.zenjob.challenge.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms, client error and server error counts per operation. Latencies are recorded from the time a request
+ * was due to be sent, so time spent waiting behind slow requests is included.
+ */
+final class LatencyReport {
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MAX_LATENCY = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> clientErrors = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> serverErrors = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+
+    LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(MAX_LATENCY, 3));
+            clientErrors.put(operation, new LongAdder());
+            serverErrors.put(operation, new LongAdder());
+        }
+    }
+
+    void record(LoadClient.Result result, long latencyNanos) {
+        recorders.get(result.operation).recordValue(Math.min(latencyNanos, MAX_LATENCY));
+        if (result.isClientError()) {
+            clientErrors.get(result.operation).increment();
+        } else if (!result.isOk()) {
+            //Server errors and requests without a response
+            serverErrors.get(result.operation).increment();
+        }
+    }
+
+    /**
+     * Drops everything recorded so far, e.g. during the warmup.
+     */
+    void reset() {
+        recorders.values().forEach(Recorder::getIntervalHistogram);
+        clientErrors.values().forEach(LongAdder::reset);
+        serverErrors.values().forEach(LongAdder::reset);
+    }
+
+    /**
+     * Takes the latencies recorded since the last reset, prints a summary and writes the percentile
+     * distribution of every operation to {@code <operation>.hgrm} and the summary to {@code summary.txt}.
+     *
+     * @param elapsed Time the recorded requests were sent in, for the throughput.
+     */
+    void write(File reportDir, Duration elapsed) throws IOException {
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+        if (!reportDir.isDirectory() && !reportDir.mkdirs()) {
+            throw new IOException("Cannot create " + reportDir);
+        }
+
+        try (PrintStream summary = new PrintStream(new FileOutputStream(new File(reportDir, "summary.txt")), true, "UTF-8")) {
+            String header = String.format("%-18s %8s %6s %6s %9s %9s %9s %9s %9s %9s%n",
+                    "operation", "count", "4xx", "5xx", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            System.out.print(header);
+            summary.print(header);
+            long total = 0;
+            for (Operation operation : Operation.values()) {
+                Histogram histogram = histograms.get(operation);
+                total += histogram.getTotalCount();
+                if (histogram.getTotalCount() == 0) {
+                    continue;
+                }
+                String line = String.format("%-18s %8d %6d %6d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                        operation.key(), histogram.getTotalCount(),
+                        clientErrors.get(operation).sum(), serverErrors.get(operation).sum(),
+                        histogram.getTotalCount() / seconds(elapsed),
+                        millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                        histogram.getMaxValue() / NANOS_PER_MILLI);
+                System.out.print(line);
+                summary.print(line);
+
+                try (PrintStream hgrm = new PrintStream(new FileOutputStream(new File(reportDir, operation.key() + ".hgrm")), true, "UTF-8")) {
+                    histogram.outputPercentileDistribution(hgrm, NANOS_PER_MILLI);
+                }
+            }
+            String throughput = String.format("total %d requests in %.1f s, %.1f req/s%n", total, seconds(elapsed), total / seconds(elapsed));
+            System.out.print(throughput);
+            summary.print(throughput);
+        }
+    }
+
+    /**
+     * Stores the p99 of every operation that was sent as the new baseline.
+     */
+    void writeBaseline(File baseline) throws IOException {
+        Properties properties = new Properties();
+        histograms.forEach((operation, histogram) -> {
+            if (histogram.getTotalCount() > 0) {
+                properties.setProperty(operation.key() + ".p99", String.format(Locale.ROOT, "%.2f", millis(histogram, 99)));
+            }
+        });
+        try (OutputStream out = new FileOutputStream(baseline)) {
+            properties.store(out, "p99 latency in milliseconds per operation");
+        }
+    }
+
+    /**
+     * @param tolerance Share the p99 may be higher than the baseline, e.g. 0.2 for 20%.
+     * @return a description of every operation whose p99 is higher than its baseline allows
+     */
+    List<String> findRegressions(File baseline, double tolerance) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(baseline)) {
+            properties.load(in);
+        }
+        List<String> regressions = new ArrayList<>();
+        histograms.forEach((operation, histogram) -> {
+            String stored = properties.getProperty(operation.key() + ".p99");
+            if (stored == null || histogram.getTotalCount() == 0) {
+                return;
+            }
+            double limit = Double.parseDouble(stored) * (1 + tolerance);
+            double p99 = millis(histogram, 99);
+            if (p99 > limit) {
+                regressions.add(String.format("%s p99 %.2f ms is above %.2f ms (baseline %s ms + %.0f%%)",
+                        operation.key(), p99, limit, stored, tolerance * 100));
+            }
+        });
+        return regressions;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toNanos() / 1_000_000_000.0;
+    }
+}
@@ -0,0 +1,271 @@
+package com.zenjob.challenge.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.zenjob.challenge.dto.BookTalentRequestDto;
+import com.zenjob.challenge.dto.JobRequestDto;
+import com.zenjob.challenge.entity.Shift;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Sends the requests of the load mix to the job and shift controllers and keeps track of the jobs,
+ * open shifts and booked talents they create, so later requests act on data that exists.
+ * Operations that need data that is not there yet create a job instead.
+ */
+final class LoadClient {
+    private static final int COMPANIES = 10;
+    private static final int START_DAYS = 300;
+
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+    private final int jobDays;
+    private final List<UUID> companies = new ArrayList<>();
+
+    private final Pool<UUID> jobs = new Pool<>();
+    private final Pool<JobRef> openShifts = new Pool<>();
+    private final Pool<JobRef> bookedTalents = new Pool<>();
+
+    LoadClient(RestTemplate restTemplate, String baseUrl, int jobDays) {
+        this.restTemplate = restTemplate;
+        this.baseUrl = baseUrl;
+        this.jobDays = jobDays;
+        //Error responses are counted, not thrown
+        this.restTemplate.setErrorHandler(new ResponseErrorHandler() {
+            @Override
+            public boolean hasError(ClientHttpResponse response) {
+                return false;
+            }
+
+            @Override
+            public void handleError(ClientHttpResponse response) {
+            }
+        });
+        for (int i = 0; i < COMPANIES; i++) {
+            companies.add(UUID.randomUUID());
+        }
+    }
+
+    /**
+     * Creates a job and reads its shifts.
+     */
+    void seed() {
+        createJob();
+        fetchShifts();
+    }
+
+    /**
+     * Sends one request of the given operation, or of the operation that prepares its data.
+     */
+    Result run(Operation operation) {
+        try {
+            switch (operation) {
+                case CREATE_JOB:
+                    return createJob();
+                case FETCH_SHIFTS:
+                    return fetchShifts();
+                case BOOK:
+                    return book();
+                case CANCEL_SHIFT:
+                    return cancelShift();
+                case CANCEL_JOB:
+                    return cancelJob();
+                case CANCEL_FOR_TALENT:
+                    return cancelForTalent();
+                case FETCH_UNKNOWN_JOB:
+                    return fetchJob(Operation.FETCH_UNKNOWN_JOB, UUID.randomUUID().toString());
+                case FETCH_INVALID_ID:
+                    return fetchJob(Operation.FETCH_INVALID_ID, "not-a-uuid");
+                default:
+                    throw new IllegalArgumentException("Unknown operation: " + operation);
+            }
+        } catch (RestClientException e) {
+            return new Result(operation, Result.FAILED);
+        }
+    }
+
+    private Result createJob() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate start = LocalDate.now().plusDays(1 + random.nextInt(START_DAYS));
+        JobRequestDto request = new JobRequestDto(companies.get(random.nextInt(COMPANIES)), start, start.plusDays(jobDays - 1));
+
+        ResponseEntity<JsonNode> response = restTemplate.postForEntity(baseUrl + "/v1/job", request, JsonNode.class);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            jobs.add(UUID.fromString(response.getBody().path("data").path("jobId").asText()));
+        }
+        return new Result(Operation.CREATE_JOB, response.getStatusCodeValue());
+    }
+
+    private Result fetchShifts() {
+        UUID jobId = jobs.peek();
+        if (jobId == null) {
+            return createJob();
+        }
+
+        ResponseEntity<JsonNode> response = restTemplate.getForEntity(baseUrl + "/v1/shift/{jobId}", JsonNode.class, jobId);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            for (JsonNode shift : response.getBody().path("data").path("shifts")) {
+                if (Shift.Status.CREATED.name().equals(shift.path("status").asText())) {
+                    openShifts.add(new JobRef(jobId, UUID.fromString(shift.path("id").asText())));
+                }
+            }
+        }
+        return new Result(Operation.FETCH_SHIFTS, response.getStatusCodeValue());
+    }
+
+    private Result book() {
+        JobRef shift = openShifts.take();
+        if (shift == null) {
+            return fetchShifts();
+        }
+        //A new talent for every booking, so bookings are not rejected as overlapping
+        UUID talentId = UUID.randomUUID();
+
+        Result result = put(Operation.BOOK, "/v1/shift/book/{shiftId}", new BookTalentRequestDto(talentId), shift.id);
+        if (result.isOk()) {
+            bookedTalents.add(new JobRef(shift.jobId, talentId));
+        }
+        return result;
+    }
+
+    private Result cancelShift() {
+        JobRef shift = openShifts.take();
+        if (shift == null) {
+            return fetchShifts();
+        }
+        return put(Operation.CANCEL_SHIFT, "/v1/shift/cancel/{shiftId}", null, shift.id);
+    }
+
+    private Result cancelJob() {
+        UUID jobId = jobs.take();
+        if (jobId == null) {
+            return createJob();
+        }
+        openShifts.removeIf(shift -> shift.jobId.equals(jobId));
+        bookedTalents.removeIf(talent -> talent.jobId.equals(jobId));
+        return put(Operation.CANCEL_JOB, "/v1/job/cancel/{jobId}", null, jobId);
+    }
+
+    private Result cancelForTalent() {
+        JobRef talent = bookedTalents.take();
+        if (talent == null) {
+            return book();
+        }
+        return put(Operation.CANCEL_FOR_TALENT, "/v1/shift/talent/{talentId}", null, talent.id);
+    }
+
+    private Result fetchJob(Operation operation, String jobId) {
+        return new Result(operation, restTemplate.getForEntity(baseUrl + "/v1/job/{jobId}", String.class, jobId)
+                .getStatusCodeValue());
+    }
+
+    private Result put(Operation operation, String path, Object body, UUID id) {
+        return new Result(operation, restTemplate.exchange(baseUrl + path, HttpMethod.PUT, new HttpEntity<>(body), Void.class, id)
+                .getStatusCodeValue());
+    }
+
+    /**
+     * The operation that was actually sent and its HTTP status.
+     * Client errors are expected now and then, e.g. when a shift is booked while it is being canceled with its job.
+     */
+    static final class Result {
+        /**
+         * Status of requests that got no response.
+         */
+        static final int FAILED = -1;
+
+        final Operation operation;
+        final int status;
+
+        Result(Operation operation, int status) {
+            this.operation = operation;
+            this.status = status;
+        }
+
+        boolean isOk() {
+            return status >= 200 && status < 300;
+        }
+
+        boolean isClientError() {
+            return status >= 400 && status < 500;
+        }
+    }
+
+    /**
+     * A shift or a booked talent, with the job it belongs to so it can be dropped when the job is canceled.
+     */
+    private static final class JobRef {
+        private final UUID jobId;
+        private final UUID id;
+
+        private JobRef(UUID jobId, UUID id) {
+            this.jobId = jobId;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof JobRef && ((JobRef) o).id.equals(id);
+        }
+
+        @Override
+        public int hashCode() {
+            return id.hashCode();
+        }
+    }
+
+    /**
+     * Items picked at random by the request threads. An item is held at most once.
+     */
+    private static final class Pool<T> {
+        private final List<T> items = new ArrayList<>();
+        private final Set<T> members = new HashSet<>();
+
+        synchronized void add(T item) {
+            if (members.add(item)) {
+                items.add(item);
+            }
+        }
+
+        /**
+         * @return a random item, which stays in the pool, or null if the pool is empty
+         */
+        synchronized T peek() {
+            return items.isEmpty() ? null : items.get(ThreadLocalRandom.current().nextInt(items.size()));
+        }
+
+        /**
+         * @return a random item, which is removed from the pool, or null if the pool is empty
+         */
+        synchronized T take() {
+            if (items.isEmpty()) {
+                return null;
+            }
+            int index = ThreadLocalRandom.current().nextInt(items.size());
+            T item = items.get(index);
+            //Moves the last item into the gap instead of shifting the rest
+            items.set(index, items.get(items.size() - 1));
+            items.remove(items.size() - 1);
+            members.remove(item);
+            return item;
+        }
+
+        synchronized void removeIf(Predicate<T> filter) {
+            items.removeIf(filter);
+            members.removeIf(filter);
+        }
+    }
+}
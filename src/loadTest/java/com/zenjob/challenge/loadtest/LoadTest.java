@@ -0,0 +1,114 @@
+package com.zenjob.challenge.loadtest;
+
+import com.zenjob.challenge.Application;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Starts the application on a random port with its embedded H2 database and drives the job and shift
+ * endpoints over HTTP with a mix of requests at a fixed arrival rate. Requests are started on schedule
+ * whether or not earlier ones have completed (open model), so a slow server shows up as higher latency
+ * instead of a lower request rate.
+ * <p>
+ * Runs a warmup, then the measured run, and writes HdrHistogram percentile distributions and a summary
+ * to the report directory. With a baseline file, exits with status 1 when the p99 of an operation
+ * regressed past it. Settings are described in {@link LoadTestConfig}.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = new LoadTestConfig();
+        //Keeps a connection per request in flight alive between requests
+        System.setProperty("http.maxConnections", String.valueOf(config.concurrency));
+
+        List<String> regressions = new ArrayList<>();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run(args)) {
+            Environment environment = context.getEnvironment();
+            String baseUrl = "http://localhost:" + environment.getProperty("local.server.port") +
+                    environment.getProperty("server.servlet.context-path", "");
+            LoadClient client = new LoadClient(context.getBean(RestTemplateBuilder.class).build(), baseUrl, config.jobDays);
+
+            System.out.println("Load test against " + baseUrl + ": " + config);
+            for (int i = 0; i < config.seedJobs; i++) {
+                client.seed();
+            }
+
+            LatencyReport report = new LatencyReport();
+            run(client, report, config, config.warmup);
+            report.reset();
+            Duration elapsed = run(client, report, config, config.duration);
+            report.write(config.reportDir, elapsed);
+            System.out.println("Percentile distributions written to " + config.reportDir.getAbsolutePath());
+
+            if (config.baseline != null && config.writeBaseline) {
+                report.writeBaseline(config.baseline);
+                System.out.println("Baseline written to " + config.baseline.getAbsolutePath());
+            } else if (config.baseline != null) {
+                regressions.addAll(report.findRegressions(config.baseline, config.baselineTolerance));
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            regressions.forEach(System.err::println);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Starts requests at the configured rate for the given time and waits for all of them to complete.
+     *
+     * @return the time the requests were started in
+     */
+    private static Duration run(LoadClient client, LatencyReport report, LoadTestConfig config, Duration duration)
+            throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(config.concurrency);
+        long interval = TimeUnit.SECONDS.toNanos(1) / config.rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long due = start;
+        for (; due < end; due += interval) {
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = pick(config.mix);
+            long scheduled = due;
+            workers.execute(() -> {
+                LoadClient.Result result = client.run(operation);
+                report.record(result, System.nanoTime() - scheduled);
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+        return Duration.ofNanos(due - start);
+    }
+
+    private static Operation pick(Map<Operation, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int pick = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Operation, Integer> weight : mix.entrySet()) {
+            pick -= weight.getValue();
+            if (pick < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty load mix");
+    }
+}
@@ -0,0 +1,64 @@
+package com.zenjob.challenge.loadtest;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, read from {@code load.*} system properties.
+ */
+final class LoadTestConfig {
+    /**
+     * Requests started per second, whether or not earlier requests have completed (open model).
+     */
+    final int rate = Integer.getInteger("load.rate", 50);
+    final Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+    final Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+    /**
+     * Relative weights of the operations, e.g. {@code create-job:1,fetch-shifts:6,book:3}.
+     */
+    final Map<Operation, Integer> mix = parseMix(System.getProperty("load.mix",
+            "create-job:1,fetch-shifts:6,book:3,cancel-shift:1,cancel-job:1,cancel-for-talent:1"));
+    /**
+     * Jobs created before the warmup, so there are shifts to fetch, book and cancel from the start.
+     */
+    final int seedJobs = Integer.getInteger("load.seed-jobs", 50);
+    final int jobDays = Integer.getInteger("load.job-days", 30);
+    /**
+     * Requests in flight at most. Requests that are due while all are busy wait, and the wait counts to their latency.
+     */
+    final int concurrency = Integer.getInteger("load.concurrency", 64);
+    final File reportDir = new File(System.getProperty("load.report-dir", "build/reports/load-test"));
+    /**
+     * Properties file with the p99 in milliseconds of every operation, e.g. {@code book.p99=12.5}.
+     */
+    final File baseline = file(System.getProperty("load.baseline"));
+    /**
+     * The run fails when the p99 of an operation is higher than its baseline by more than this share.
+     */
+    final double baselineTolerance = Double.parseDouble(System.getProperty("load.baseline-tolerance", "0.2"));
+    /**
+     * Writes the p99s of this run to the baseline file instead of comparing them.
+     */
+    final boolean writeBaseline = Boolean.getBoolean("load.write-baseline");
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] keyAndWeight = entry.trim().split(":");
+            weights.put(Operation.of(keyAndWeight[0]), Integer.parseInt(keyAndWeight[1]));
+        }
+        return weights;
+    }
+
+    private static File file(String path) {
+        return path == null || path.isEmpty() ? null : new File(path);
+    }
+
+    @Override
+    public String toString() {
+        return "rate=" + rate + "/s, warmup=" + warmup + ", duration=" + duration + ", mix=" + mix +
+                ", seedJobs=" + seedJobs + ", jobDays=" + jobDays + ", concurrency=" + concurrency;
+    }
+}
@@ -0,0 +1,35 @@
+package com.zenjob.challenge.loadtest;
+
+/**
+ * The requests of the load mix, named like they are given in {@code load.mix}.
+ */
+enum Operation {
+    CREATE_JOB("create-job"),
+    FETCH_SHIFTS("fetch-shifts"),
+    BOOK("book"),
+    CANCEL_SHIFT("cancel-shift"),
+    CANCEL_JOB("cancel-job"),
+    CANCEL_FOR_TALENT("cancel-for-talent"),
+    //Rejected requests, answered with 404 and 400, not in the default mix
+    FETCH_UNKNOWN_JOB("fetch-unknown-job"),
+    FETCH_INVALID_ID("fetch-invalid-id");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    static Operation of(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + key);
+    }
+}
@@ -0,0 +1,15 @@
+package com.zenjob.challenge.config;
+
+import com.zenjob.challenge.util.IdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public IdGenerator idGenerator(@Value("${zenjob.id.generator:" + IdGenerator.TIME_ORDERED + "}") String strategy) {
+        return IdGenerator.forStrategy(strategy);
+    }
+}
@@ -0,0 +1,36 @@
+package com.zenjob.challenge.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Publishes hit, miss, put and eviction counts of the Hibernate second-level cache regions
+ * as {@code cache.*} meters tagged with the region name.
+ */
+@Configuration
+public class SecondLevelCacheMetricsConfig {
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getCache()
+                    .getRegionFactory();
+            //Nothing to publish when the second-level cache is disabled
+            if (regionFactory instanceof JCacheRegionFactory) {
+                CacheManager cacheManager = ((JCacheRegionFactory) regionFactory).getCacheManager();
+                cacheManager.getCacheNames().forEach(name ->
+                        JCacheMetrics.monitor(registry, cacheManager.getCache(name), Tags.of("cacheType", "hibernate")));
+            }
+        };
+    }
+}
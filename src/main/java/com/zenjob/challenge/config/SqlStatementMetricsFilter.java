@@ -0,0 +1,52 @@
+package com.zenjob.challenge.config;
+
+import com.zenjob.challenge.util.SqlStatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTags;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements every request runs and publishes them per endpoint, tagged with the method and URI
+ * template like {@code http.server.requests}, as the {@code zenjob.http.sql.statements} summary and the
+ * {@code zenjob.http.sql.time} timer.
+ */
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatementMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementCounter counter = SqlStatementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            counter.stop();
+            Tags tags = Tags.of(WebMvcTags.method(request), WebMvcTags.uri(request, response));
+            DistributionSummary.builder("zenjob.http.sql.statements")
+                    .description("SQL statements executed by a request")
+                    .baseUnit("statements")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(counter.getStatements());
+            Timer.builder("zenjob.http.sql.time")
+                    .description("Time a request spent executing SQL statements")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(counter.getNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package com.zenjob.challenge.controller;
 
+import com.zenjob.challenge.dto.JobCancellationDto;
+import com.zenjob.challenge.dto.JobImportResponseDto;
 import com.zenjob.challenge.dto.JobRequestDto;
 import com.zenjob.challenge.dto.JobResponseDto;
 import com.zenjob.challenge.dto.ResponseDto;
 import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.JobCancellation;
 import com.zenjob.challenge.exception.JobNotFoundException;
+import com.zenjob.challenge.service.JobCancellationService;
+import com.zenjob.challenge.service.JobCancellationWorker;
+import com.zenjob.challenge.service.JobImportService;
 import com.zenjob.challenge.service.JobService;
 import com.zenjob.challenge.util.UUIDValidator;
 import io.swagger.annotations.Api;
@@ -12,9 +18,12 @@ import io.swagger.annotations.ApiOperation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.UUID;
 
 @Api(tags = "Job management")
@@ -24,6 +33,9 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class JobController {
     private final JobService jobService;
+    private final JobImportService jobImportService;
+    private final JobCancellationService jobCancellationService;
+    private final JobCancellationWorker jobCancellationWorker;
 
     @ApiOperation(value = "Create new Job with shifts", notes = "Creates a new job with the specified start and end dates and generates shifts.")
     @PostMapping
@@ -40,6 +52,21 @@ public class JobController {
                 .build();
     }
 
+    @ApiOperation(value = "Create many Jobs with shifts", notes = "Creates jobs from a JSON array or newline delimited JSON " +
+            "of job requests and returns the ID of every created job or the reason it was not created.")
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, ShiftController.APPLICATION_NDJSON_VALUE})
+    @ResponseBody
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseDto<JobImportResponseDto> createAll(InputStream body) throws IOException {
+        final JobImportResponseDto response = JobImportResponseDto.builder()
+                .results(jobImportService.importJobs(body))
+                .build();
+        log.info("Imported {} jobs", response.getResults().size());
+        return ResponseDto.<JobImportResponseDto>builder()
+                .data(response)
+                .build();
+    }
+
     @ApiOperation(value = "Cancel a Job", notes = "Cancels the job with the specified ID and updates the status of its shifts.")
     @PutMapping(path = "cancel/{jobId}")
     @ResponseStatus(HttpStatus.ACCEPTED)
@@ -54,6 +81,40 @@ public class JobController {
         }
     }
 
+    @ApiOperation(value = "Cancel a Job asynchronously", notes = "Cancels the job with the specified ID right away " +
+            "and its shifts in the background. Returns the cancellation, whose progress can be fetched with its operation ID.")
+    @PutMapping(path = "cancel/{jobId}", params = "async=true")
+    @ResponseBody
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ResponseDto<JobCancellationDto> cancelAsync(@PathVariable("jobId") String jobIdString) {
+        final UUID jobId = UUIDValidator.validateUUID(jobIdString);
+        final JobCancellation cancellation = jobCancellationService.start(jobId);
+        jobCancellationWorker.submit(cancellation.getId());
+        log.info("Job with ID: {} canceled, shifts are canceled by operation {}", jobId, cancellation.getId());
+        return toResponse(cancellation);
+    }
+
+    @ApiOperation(value = "Fetch a Job cancellation", notes = "Fetches the progress of an asynchronous job cancellation.")
+    @GetMapping(path = "/cancellation/{operationId}")
+    @ResponseBody
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseDto<JobCancellationDto> fetchCancellation(@PathVariable("operationId") String operationIdString) {
+        final UUID operationId = UUIDValidator.validateUUID(operationIdString);
+        return toResponse(jobCancellationService.fetch(operationId));
+    }
+
+    private ResponseDto<JobCancellationDto> toResponse(JobCancellation cancellation) {
+        return ResponseDto.<JobCancellationDto>builder()
+                .data(JobCancellationDto.builder()
+                        .operationId(cancellation.getId())
+                        .jobId(cancellation.getJobId())
+                        .status(cancellation.getStatus())
+                        .totalShifts(cancellation.getTotalShifts())
+                        .canceledShifts(cancellation.getCanceledShifts())
+                        .build())
+                .build();
+    }
+
     @ApiOperation(value = "Fetch a Job", notes = "Fetches the job with the specified ID.")
     @GetMapping(path = "/{jobId}")
     @ResponseBody
@@ -1,21 +1,41 @@
 package com.zenjob.challenge.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.zenjob.challenge.dto.BookTalentRequestDto;
+import com.zenjob.challenge.dto.BulkBookingRequestDto;
+import com.zenjob.challenge.dto.BulkBookingResponseDto;
+import com.zenjob.challenge.dto.OpenDaysDto;
+import com.zenjob.challenge.dto.ShiftAvailabilityDto;
 import com.zenjob.challenge.dto.ShiftsResponseDto;
 import com.zenjob.challenge.dto.ResponseDto;
 import com.zenjob.challenge.dto.ShiftDto;
+import com.zenjob.challenge.exception.BadRequestException;
 import com.zenjob.challenge.exception.ShiftNotFoundException;
 import com.zenjob.challenge.exception.ShiftsForTalentNotFoundException;
+import com.zenjob.challenge.service.ShiftAvailabilityIndex;
 import com.zenjob.challenge.service.ShiftService;
+import com.zenjob.challenge.service.ShiftsResponseCache;
+import com.zenjob.challenge.util.ShiftBinaryWriter;
 import com.zenjob.challenge.util.UUIDValidator;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -25,26 +45,165 @@ import java.util.UUID;
 @RequestMapping(path = "/v1/shift")
 @RequiredArgsConstructor
 public class ShiftController {
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final int DEFAULT_PAGE_LIMIT = 100;
+    private static final int MAX_PAGE_LIMIT = 1000;
+
     private final ShiftService shiftService;
+    private final ObjectMapper objectMapper;
+    private final ShiftsResponseCache shiftsResponseCache;
+    private final ShiftAvailabilityIndex shiftAvailabilityIndex;
 
-    @ApiOperation(value = "Fetch Shift by JobId", notes = "Fetches all the shifts with specified JobId")
+    @ApiOperation(value = "Fetch Shift by JobId", notes = "Fetches all the shifts with specified JobId. " +
+            "When limit or after is given, returns one page ordered by start time and the cursor of the next page.",
+            response = ResponseDto.class)
     @GetMapping(path = "/{jobId}")
-    @ResponseBody
-    @ResponseStatus(HttpStatus.OK)
-    public ResponseDto<ShiftsResponseDto> fetchByJobId(@PathVariable("jobId") String jobIdString) {
+    public ResponseEntity<?> fetchByJobId(@PathVariable("jobId") String jobIdString,
+                                          @RequestParam(value = "limit", required = false) Integer limit,
+                                          @RequestParam(value = "after", required = false) String after) {
         UUID jobId = UUIDValidator.validateUUID(jobIdString);
 
         log.info("Request to retrieve shifts for job with ID: {}", jobId);
 
-        List<ShiftDto> shifts = shiftService.fetchByJobId(jobId);
+        if (limit != null || after != null) {
+            return ResponseEntity.ok(ResponseDto.<ShiftsResponseDto>builder()
+                    .data(shiftService.fetchPageByJobId(jobId, after, validateLimit(limit)))
+                    .build());
+        }
 
-        return ResponseDto.<ShiftsResponseDto>builder()
+        //Full listings are cached serialized, so repeated polls skip both the database and serialization
+        byte[] response = shiftsResponseCache.get(jobId, id -> serialize(ResponseDto.<ShiftsResponseDto>builder()
                 .data(ShiftsResponseDto.builder()
-                        .shifts(shifts)
+                        .shifts(shiftService.fetchByJobId(id))
+                        .build())
+                .build()));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response);
+    }
+
+    @ApiOperation(value = "Stream Shift by JobId", notes = "Streams all the shifts with specified JobId as newline delimited JSON, ordered by start time.")
+    @GetMapping(path = "/{jobId}", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamByJobId(@PathVariable("jobId") String jobIdString) {
+        UUID jobId = UUIDValidator.validateUUID(jobIdString);
+
+        log.info("Request to stream shifts for job with ID: {}", jobId);
+
+        //Checked up front, the status cannot change once streaming has started
+        shiftService.checkJobHasShifts(jobId);
+
+        //Lets the generator decide when to flush instead of flushing after every shift
+        ObjectWriter writer = objectMapper.writerFor(ShiftDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(new SerializedString("\n"));
+                shiftService.streamByJobId(jobId, shift -> {
+                    try {
+                        writer.writeValue(generator, shift);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeRaw('\n');
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.valueOf(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+
+    @ApiOperation(value = "Stream Shift by JobId in binary", notes = "Streams all the shifts with specified JobId, ordered by " +
+            "start time, in a compact binary format with raw UUIDs, epoch millisecond times and status ordinals.")
+    @GetMapping(path = "/{jobId}", produces = ShiftBinaryWriter.MEDIA_TYPE_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBinaryByJobId(@PathVariable("jobId") String jobIdString) {
+        UUID jobId = UUIDValidator.validateUUID(jobIdString);
+
+        log.info("Request to stream shifts in binary for job with ID: {}", jobId);
+
+        //Checked up front, the status cannot change once streaming has started
+        shiftService.checkJobHasShifts(jobId);
+
+        StreamingResponseBody body = outputStream -> {
+            try (ShiftBinaryWriter writer = new ShiftBinaryWriter(outputStream, jobId)) {
+                shiftService.streamByJobId(jobId, shift -> {
+                    try {
+                        writer.write(shift);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.valueOf(ShiftBinaryWriter.MEDIA_TYPE_VALUE))
+                .body(body);
+    }
+
+    @ApiOperation(value = "Count Shifts of a Job by status", notes = "Counts the open, booked, canceled and completed " +
+            "shifts of the specified JobId from the in-memory availability index, without reading shifts.")
+    @GetMapping(path = "/{jobId}/availability")
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseDto<ShiftAvailabilityDto> countByStatus(@PathVariable("jobId") String jobIdString) {
+        UUID jobId = UUIDValidator.validateUUID(jobIdString);
+        return ResponseDto.<ShiftAvailabilityDto>builder()
+                .data(shiftAvailabilityIndex.countByStatus(jobId))
+                .build();
+    }
+
+    @ApiOperation(value = "Fetch open days of a Job", notes = "Fetches the days with at least one shift of the specified " +
+            "JobId that can still be booked, in ascending order, from the in-memory availability index.")
+    @GetMapping(path = "/{jobId}/open-days")
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseDto<OpenDaysDto> fetchOpenDays(@PathVariable("jobId") String jobIdString) {
+        UUID jobId = UUIDValidator.validateUUID(jobIdString);
+        return ResponseDto.<OpenDaysDto>builder()
+                .data(OpenDaysDto.builder()
+                        .jobId(jobId)
+                        .days(shiftAvailabilityIndex.findOpenDays(jobId))
                         .build())
                 .build();
     }
 
+    @ApiOperation(value = "Search open Shifts by time window", notes = "Searches the shifts of all jobs, or of the jobs " +
+            "of the specified companyId, that can still be booked and start between from (inclusive) and to (exclusive). " +
+            "Returns one page ordered by start time and the cursor of the next page.",
+            response = ResponseDto.class)
+    @GetMapping(path = "/open")
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseDto<ShiftsResponseDto> searchOpen(@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                     @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                     @RequestParam(value = "companyId", required = false) String companyIdString,
+                                                     @RequestParam(value = "limit", required = false) Integer limit,
+                                                     @RequestParam(value = "after", required = false) String after) {
+        UUID companyId = companyIdString == null ? null : UUIDValidator.validateUUID(companyIdString);
+
+        log.info("Request to search open shifts from {} to {} for company with ID: {}", from, to, companyId);
+
+        return ResponseDto.<ShiftsResponseDto>builder()
+                .data(shiftService.searchOpen(from, to, companyId, after, validateLimit(limit)))
+                .build();
+    }
+
+    private byte[] serialize(ResponseDto<ShiftsResponseDto> response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int validateLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_PAGE_LIMIT);
+        }
+        return limit;
+    }
+
     @ApiOperation(value = "Book a talent for a shift", notes = "Books a talent for the specified shift ID.")
     @PutMapping(path = "/book/{shiftId}")
     @ResponseStatus(code = HttpStatus.ACCEPTED)
@@ -59,6 +218,20 @@ public class ShiftController {
         }
     }
 
+    @ApiOperation(value = "Book talents for many shifts", notes = "Books talents for up to " + BulkBookingRequestDto.MAX_BOOKINGS +
+            " shifts and returns the outcome of every booking. In ALL_OR_NOTHING mode no shift is booked " +
+            "unless all of them can be, and the outcomes are returned with status 409.",
+            response = ResponseDto.class)
+    @PutMapping(path = "/book")
+    public ResponseDto<BulkBookingResponseDto> bookAll(@RequestBody @Valid BulkBookingRequestDto bulkBookingRequestDto) {
+        log.info("Request to book {} shifts in {} mode", bulkBookingRequestDto.getBookings().size(), bulkBookingRequestDto.getMode());
+        return ResponseDto.<BulkBookingResponseDto>builder()
+                .data(BulkBookingResponseDto.builder()
+                        .results(shiftService.bookAll(bulkBookingRequestDto.getBookings(), bulkBookingRequestDto.getMode()))
+                        .build())
+                .build();
+    }
+
 
     @ApiOperation(value = "Cancel shifts for a talent", notes = "Cancels all shifts booked for the specified talent ID.")
     @PutMapping(path = "/talent/{talentId}")
@@ -0,0 +1,34 @@
+package com.zenjob.challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkBookingRequestDto {
+    public static final int MAX_BOOKINGS = 1000;
+
+    @NotNull
+    @Size(min = 1, max = MAX_BOOKINGS)
+    @Valid
+    private List<ShiftBookingDto> bookings;
+    @NotNull
+    @Builder.Default
+    private Mode mode = Mode.BEST_EFFORT;
+
+    public enum Mode {
+        //Books every shift that can be booked and reports the others
+        BEST_EFFORT,
+        //Books all shifts or none of them
+        ALL_OR_NOTHING
+    }
+}
@@ -0,0 +1,17 @@
+package com.zenjob.challenge.dto;
+
+import com.zenjob.challenge.entity.JobCancellation;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Builder
+@Data
+public class JobCancellationDto {
+    UUID operationId;
+    UUID jobId;
+    JobCancellation.Status status;
+    int totalShifts;
+    int canceledShifts;
+}
@@ -0,0 +1,24 @@
+package com.zenjob.challenge.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.zenjob.challenge.entity.Job;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Builder
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JobEventDto {
+    UUID jobId;
+    UUID companyId;
+    Job.Status status;
+    Instant start;
+    Instant end;
+    //Shifts created with the job
+    Integer shifts;
+    //Set for canceled jobs, shifts of asynchronous cancellations are canceled afterwards
+    UUID cancellationId;
+}
@@ -0,0 +1,17 @@
+package com.zenjob.challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobImportResponseDto {
+    //One result per job read from the request, in request order
+    private List<JobImportResultDto> results;
+}
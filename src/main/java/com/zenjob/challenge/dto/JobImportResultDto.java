@@ -0,0 +1,21 @@
+package com.zenjob.challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobImportResultDto {
+    //Position of the job in the request, starting at 0
+    private int index;
+    //Set if the job was created
+    private UUID jobId;
+    //Set if the job was not created
+    private String error;
+}
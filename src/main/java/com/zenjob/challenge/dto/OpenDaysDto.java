@@ -0,0 +1,15 @@
+package com.zenjob.challenge.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Builder
+@Data
+public class OpenDaysDto {
+    UUID jobId;
+    List<LocalDate> days;
+}
@@ -0,0 +1,16 @@
+package com.zenjob.challenge.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Builder
+@Data
+public class ShiftAvailabilityDto {
+    UUID jobId;
+    int open;
+    int booked;
+    int canceled;
+    int completed;
+}
@@ -0,0 +1,20 @@
+package com.zenjob.challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShiftBookingDto {
+    @NotNull
+    private UUID shift;
+    @NotNull
+    private UUID talent;
+}
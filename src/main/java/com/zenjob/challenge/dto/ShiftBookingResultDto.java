@@ -0,0 +1,28 @@
+package com.zenjob.challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShiftBookingResultDto {
+    private UUID shift;
+    private UUID talent;
+    private Outcome outcome;
+
+    public enum Outcome {
+        BOOKED,
+        NOT_FOUND,
+        NOT_BOOKABLE,
+        //The talent is already booked for a shift at the same time
+        OVERLAPPING,
+        //Could have been booked, but the all-or-nothing request was rolled back
+        NOT_APPLIED
+    }
+}
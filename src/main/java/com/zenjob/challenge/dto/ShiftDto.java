@@ -1,6 +1,7 @@
 package com.zenjob.challenge.dto;
 
 import com.zenjob.challenge.entity.Shift;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
@@ -10,6 +11,7 @@ import java.util.UUID;
 
 @Builder
 @Data
+@AllArgsConstructor
 public class ShiftDto {
     @NotNull
     private UUID id;
@@ -0,0 +1,20 @@
+package com.zenjob.challenge.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.zenjob.challenge.entity.Shift;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Builder
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ShiftEventDto {
+    UUID shiftId;
+    UUID jobId;
+    UUID talentId;
+    Shift.Status status;
+    //Set for shifts canceled for a talent, which are replaced by a new shift
+    UUID replacementShiftId;
+}
@@ -1,5 +1,6 @@
 package com.zenjob.challenge.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 
@@ -9,4 +10,7 @@ import java.util.List;
 @Data
 public class ShiftsResponseDto {
    private List<ShiftDto> shifts;
+   // Cursor of the next page, only set for paginated requests that have more shifts
+   @JsonInclude(JsonInclude.Include.NON_NULL)
+   private String next;
 }
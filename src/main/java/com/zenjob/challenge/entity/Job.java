@@ -1,6 +1,9 @@
 package com.zenjob.challenge.entity;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -19,9 +22,13 @@ import java.util.UUID;
 @Setter
 @Builder
 @EntityListeners(AuditingEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "job")
+@Table(indexes = @Index(name = "idx_job_company_id_status_end_time", columnList = "companyId, status, endTime"))
 public class Job {
     @Id
     @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "com.zenjob.challenge.util.HibernateIdGenerator")
     private UUID id;
 
     @Version
@@ -34,6 +41,7 @@ public class Job {
     private Instant endTime;
 
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "job", orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "job.shifts")
     @Builder.Default
     private List<Shift> shifts = new ArrayList<>();
 
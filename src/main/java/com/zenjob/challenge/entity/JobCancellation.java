@@ -0,0 +1,58 @@
+package com.zenjob.challenge.entity;
+
+import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Asynchronous cancellation of the shifts of a job, canceled chunk by chunk in the background.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+@Table(indexes = {
+        @Index(name = "idx_job_cancellation_status", columnList = "status"),
+        @Index(name = "idx_job_cancellation_job_id_status", columnList = "jobId, status")
+})
+public class JobCancellation {
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "com.zenjob.challenge.util.HibernateIdGenerator")
+    private UUID id;
+
+    @Version
+    private long version;
+
+    @NotNull
+    private UUID jobId;
+
+    @NotNull
+    private Status status;
+
+    //Shifts of the job that were not canceled when the cancellation started
+    private int totalShifts;
+
+    private int canceledShifts;
+
+    @CreatedDate
+    private Instant createdAt;
+
+    @LastModifiedDate
+    private Instant updatedAt;
+
+    public enum Status {
+        RUNNING,
+        COMPLETED
+    }
+}
@@ -0,0 +1,46 @@
+package com.zenjob.challenge.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * State change of a job or shift waiting to be relayed to downstream systems.
+ * Events are inserted with JDBC batching, the id is assigned by the database in insert order.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private Type type;
+
+    //ID of the job or shift that changed
+    @NotNull
+    private UUID aggregateId;
+
+    //JSON of the job or shift event
+    @NotNull
+    private String payload;
+
+    @NotNull
+    private Instant createdAt;
+
+    public enum Type {
+        JOB_CREATED,
+        JOB_CANCELED,
+        SHIFT_BOOKED,
+        SHIFT_CANCELED
+    }
+}
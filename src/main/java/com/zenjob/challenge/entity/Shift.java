@@ -2,6 +2,9 @@ package com.zenjob.challenge.entity;
 
 import lombok.*;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -19,9 +22,18 @@ import java.util.UUID;
 @Setter
 @Accessors(chain = true)
 @EntityListeners(AuditingEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "shift")
+@Table(indexes = {
+        @Index(name = "idx_shift_job_id_status", columnList = "job_id, status"),
+        @Index(name = "idx_shift_job_id_start_time_id", columnList = "job_id, startTime, id"),
+        @Index(name = "idx_shift_talent_id_status_start_time", columnList = "talentId, status, startTime"),
+        @Index(name = "idx_shift_status_start_time_id", columnList = "status, startTime, id")
+})
 public class Shift {
     @Id
     @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "com.zenjob.challenge.util.HibernateIdGenerator")
     private UUID id;
 
     @Version
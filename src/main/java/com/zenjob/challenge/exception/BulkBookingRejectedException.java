@@ -0,0 +1,19 @@
+package com.zenjob.challenge.exception;
+
+import com.zenjob.challenge.dto.ShiftBookingResultDto;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Thrown when an all-or-nothing bulk booking cannot book every shift. Rolls back the bookings made so far.
+ */
+@Getter
+public class BulkBookingRejectedException extends DomainException {
+    private final List<ShiftBookingResultDto> results;
+
+    public BulkBookingRejectedException(List<ShiftBookingResultDto> results) {
+        super("Not all shifts can be booked, no shift was booked");
+        this.results = results;
+    }
+}
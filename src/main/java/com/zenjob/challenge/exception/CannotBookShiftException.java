@@ -2,7 +2,7 @@ package com.zenjob.challenge.exception;
 
 import java.util.UUID;
 
-public class CannotBookShiftException extends RuntimeException {
+public class CannotBookShiftException extends DomainException {
     public CannotBookShiftException(UUID shiftId) {
         super("Shift with ID: "+ shiftId+ " cannot be booked");
     }
@@ -0,0 +1,13 @@
+package com.zenjob.challenge.exception;
+
+/**
+ * Base of the exceptions for expected outcomes, such as unknown IDs or requests that cannot be served,
+ * which are answered with an error response by the {@link GlobalExceptionHandler}.
+ * They are thrown for a good share of the requests, so they skip filling in the stack trace,
+ * which is most of the cost of creating an exception, and recording suppressed exceptions.
+ */
+public abstract class DomainException extends RuntimeException {
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
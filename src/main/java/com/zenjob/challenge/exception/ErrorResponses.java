@@ -0,0 +1,52 @@
+package com.zenjob.challenge.exception;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.zenjob.challenge.dto.ErrorResponseDto;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Writes the JSON of {@link ErrorResponseDto} straight to bytes. The part up to the message is precomputed for
+ * every status, so an error response costs the escaped message and one array, instead of a dto and a pass through
+ * the Jackson object mapper for every rejected request.
+ */
+final class ErrorResponses {
+    private static final Map<HttpStatus, byte[]> PREFIXES = new EnumMap<>(HttpStatus.class);
+    private static final byte[] NULL_MESSAGE = "null}".getBytes(StandardCharsets.UTF_8);
+
+    static {
+        for (HttpStatus status : HttpStatus.values()) {
+            PREFIXES.put(status, ("{\"status\":" + status.value() + ",\"message\":").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private ErrorResponses() {
+    }
+
+    /**
+     * @return the same JSON as the object mapper writes for an {@link ErrorResponseDto} of the status and message
+     */
+    static byte[] json(HttpStatus status, String message) {
+        byte[] prefix = PREFIXES.get(status);
+        if (message == null) {
+            byte[] json = new byte[prefix.length + NULL_MESSAGE.length];
+            System.arraycopy(prefix, 0, json, 0, prefix.length);
+            System.arraycopy(NULL_MESSAGE, 0, json, prefix.length, NULL_MESSAGE.length);
+            return json;
+        }
+
+        byte[] escaped = JsonStringEncoder.getInstance().quoteAsUTF8(message);
+        byte[] json = new byte[prefix.length + escaped.length + 3];
+        System.arraycopy(prefix, 0, json, 0, prefix.length);
+        int i = prefix.length;
+        json[i++] = '"';
+        System.arraycopy(escaped, 0, json, i, escaped.length);
+        i += escaped.length;
+        json[i++] = '"';
+        json[i] = '}';
+        return json;
+    }
+}
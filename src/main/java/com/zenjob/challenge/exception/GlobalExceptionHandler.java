@@ -1,7 +1,10 @@
 package com.zenjob.challenge.exception;
 
-import com.zenjob.challenge.dto.ErrorResponseDto;
+import com.zenjob.challenge.dto.BulkBookingResponseDto;
+import com.zenjob.challenge.dto.ResponseDto;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -9,49 +12,80 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
-    private ResponseEntity<ErrorResponseDto> buildErrorResponse(HttpStatus status, String message) {
-        ErrorResponseDto errorResponseDto = new ErrorResponseDto(status.value(), message);
-        return new ResponseEntity<>(errorResponseDto, status);
+    /**
+     * Answers with the JSON of an {@link com.zenjob.challenge.dto.ErrorResponseDto}, written as bytes by {@link ErrorResponses}.
+     */
+    private ResponseEntity<byte[]> buildErrorResponse(HttpStatus status, String message) {
+        //Errors are always JSON, also for requests that accept other formats only
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ErrorResponses.json(status, message));
     }
 
     @ExceptionHandler(JobNotFoundException.class)
-    public ResponseEntity<ErrorResponseDto> handleJobNotFoundException(JobNotFoundException e) {
+    public ResponseEntity<byte[]> handleJobNotFoundException(JobNotFoundException e) {
+        return buildErrorResponse(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    @ExceptionHandler(JobCancellationNotFoundException.class)
+    public ResponseEntity<byte[]> handleJobCancellationNotFoundException(JobCancellationNotFoundException e) {
         return buildErrorResponse(HttpStatus.NOT_FOUND, e.getMessage());
     }
 
     @ExceptionHandler(ShiftNotFoundException.class)
-    public ResponseEntity<ErrorResponseDto> handleShiftNotFoundException(ShiftNotFoundException e) {
+    public ResponseEntity<byte[]> handleShiftNotFoundException(ShiftNotFoundException e) {
         return buildErrorResponse(HttpStatus.NOT_FOUND, e.getMessage());
     }
 
     @ExceptionHandler(CannotBookShiftException.class)
-    public ResponseEntity<ErrorResponseDto> handleShiftAlreadyBookedException(CannotBookShiftException e) {
+    public ResponseEntity<byte[]> handleShiftAlreadyBookedException(CannotBookShiftException e) {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
     }
 
+    @ExceptionHandler(OverlappingShiftException.class)
+    public ResponseEntity<byte[]> handleOverlappingShiftException(OverlappingShiftException e) {
+        return buildErrorResponse(HttpStatus.CONFLICT, e.getMessage());
+    }
+
+    //Rejected bulk bookings answer with the outcome of every booking, like successful ones
+    @ExceptionHandler(BulkBookingRejectedException.class)
+    public ResponseEntity<ResponseDto<BulkBookingResponseDto>> handleBulkBookingRejectedException(BulkBookingRejectedException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ResponseDto.<BulkBookingResponseDto>builder()
+                        .data(BulkBookingResponseDto.builder().results(e.getResults()).build())
+                        .build());
+    }
+
 
     @ExceptionHandler(ShiftsForTalentNotFoundException.class)
-    public ResponseEntity<ErrorResponseDto> handleShiftsForTalentNotFoundException(ShiftsForTalentNotFoundException e) {
+    public ResponseEntity<byte[]> handleShiftsForTalentNotFoundException(ShiftsForTalentNotFoundException e) {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
     }
 
     @ExceptionHandler(BadRequestException.class)
-    public ResponseEntity<ErrorResponseDto> handleBadRequestException(BadRequestException e) {
+    public ResponseEntity<byte[]> handleBadRequestException(BadRequestException e) {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
     }
 
     @ExceptionHandler(LastShiftException.class)
-    public ResponseEntity<ErrorResponseDto> handleLastShiftException(LastShiftException e) {
+    public ResponseEntity<byte[]> handleLastShiftException(LastShiftException e) {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
     }
 
     @ExceptionHandler(NoAvailableShiftException.class)
-    public ResponseEntity<ErrorResponseDto> handleNoAvailableShiftException(NoAvailableShiftException e) {
+    public ResponseEntity<byte[]> handleNoAvailableShiftException(NoAvailableShiftException e) {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
     }
 
+    //Concurrent changes of the same rows, the request can be retried
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<byte[]> handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        return buildErrorResponse(HttpStatus.CONFLICT, e.getMessage());
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<ErrorResponseDto> handleIllegalArgumentException(IllegalArgumentException e) {
+    public ResponseEntity<byte[]> handleIllegalArgumentException(IllegalArgumentException e) {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
     }
 
@@ -0,0 +1,9 @@
+package com.zenjob.challenge.exception;
+
+import java.util.UUID;
+
+public class JobCancellationNotFoundException extends DomainException {
+    public JobCancellationNotFoundException(UUID operationId) {
+        super("Job cancellation with Id " + operationId + " not found");
+    }
+}
@@ -2,7 +2,7 @@ package com.zenjob.challenge.exception;
 
 import java.util.UUID;
 
-public class JobNotFoundException extends RuntimeException {
+public class JobNotFoundException extends DomainException {
     public JobNotFoundException(UUID jobId) {
         super("Job with Id " + jobId + " not found");
     }
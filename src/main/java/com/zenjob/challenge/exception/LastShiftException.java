@@ -2,7 +2,7 @@ package com.zenjob.challenge.exception;
 
 import com.zenjob.challenge.entity.Shift;
 
-public class LastShiftException extends RuntimeException {
+public class LastShiftException extends DomainException {
     public LastShiftException(Shift shift) {
         super("Cannot cancel the last available shift (ID: " + shift.getId() + ") for job with ID: " + shift.getJob().getId());
     }
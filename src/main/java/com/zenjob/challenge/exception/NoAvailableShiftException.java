@@ -2,7 +2,7 @@ package com.zenjob.challenge.exception;
 
 import java.util.UUID;
 
-public class NoAvailableShiftException extends RuntimeException {
+public class NoAvailableShiftException extends DomainException {
     public NoAvailableShiftException(UUID talentId) {
         super("All the shifts for talent " + talentId + "is already canceled");
     }
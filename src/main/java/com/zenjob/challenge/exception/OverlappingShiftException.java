@@ -0,0 +1,9 @@
+package com.zenjob.challenge.exception;
+
+import java.util.UUID;
+
+public class OverlappingShiftException extends DomainException {
+    public OverlappingShiftException(UUID shiftId, UUID talentId) {
+        super("Talent with ID: " + talentId + " is already booked for a shift overlapping shift with ID: " + shiftId);
+    }
+}
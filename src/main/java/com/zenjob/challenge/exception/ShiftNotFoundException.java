@@ -2,7 +2,7 @@ package com.zenjob.challenge.exception;
 
 import java.util.UUID;
 
-public class ShiftNotFoundException extends RuntimeException {
+public class ShiftNotFoundException extends DomainException {
     public ShiftNotFoundException(UUID shiftId) {
         super("Shift with Id: " + shiftId+ " not found");
     }
@@ -0,0 +1,26 @@
+package com.zenjob.challenge.repository;
+
+import com.zenjob.challenge.entity.Job;
+
+import java.util.Collection;
+
+public interface JobBatchRepository {
+
+    /**
+     * Inserts a job and all of its shifts using JDBC batching.
+     * Ids of the job and its shifts must be assigned before calling this method.
+     * The active shift counter of the job starts at the number of its shifts that are not canceled.
+     *
+     * @param job the job with its shifts
+     * @return the inserted job
+     */
+    Job insertWithShifts(Job job);
+
+    /**
+     * Inserts many jobs and all of their shifts using JDBC batching, jobs first, then their shifts.
+     * Ids of the jobs and their shifts must be assigned before calling this method.
+     *
+     * @param jobs the jobs with their shifts
+     */
+    void insertAllWithShifts(Collection<Job> jobs);
+}
@@ -0,0 +1,67 @@
+package com.zenjob.challenge.repository;
+
+import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.Shift;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import static com.zenjob.challenge.repository.ShiftJdbcInsert.toTimestamp;
+
+public class JobBatchRepositoryImpl implements JobBatchRepository {
+
+    private static final String INSERT_JOB = "INSERT INTO job " +
+            "(id, version, company_id, start_time, end_time, created_at, updated_at, status, active_shift_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final int batchSize;
+
+    public JobBatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                  Clock clock,
+                                  @Value("${zenjob.jdbc.batch-size:100}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Transactional
+    public Job insertWithShifts(Job job) {
+        insertAllWithShifts(Collections.singletonList(job));
+        return job;
+    }
+
+    @Override
+    @Transactional
+    public void insertAllWithShifts(Collection<Job> jobs) {
+        Instant now = Instant.now(clock);
+
+        jdbcTemplate.batchUpdate(INSERT_JOB, jobs, batchSize, (ps, job) -> {
+            job.setCreatedAt(now);
+            job.setUpdatedAt(now);
+            ps.setObject(1, job.getId());
+            ps.setLong(2, job.getVersion());
+            ps.setObject(3, job.getCompanyId());
+            ps.setTimestamp(4, toTimestamp(job.getStartTime()));
+            ps.setTimestamp(5, toTimestamp(job.getEndTime()));
+            ps.setTimestamp(6, toTimestamp(now));
+            ps.setTimestamp(7, toTimestamp(now));
+            ps.setInt(8, job.getStatus().ordinal());
+            ps.setLong(9, job.getShifts().stream()
+                    .filter(shift -> shift.getStatus() != Shift.Status.CANCELED)
+                    .count());
+        });
+
+        ShiftJdbcInsert.insertAll(jdbcTemplate, jobs.stream()
+                .flatMap(job -> job.getShifts().stream())
+                .collect(Collectors.toList()), batchSize, now);
+    }
+}
@@ -0,0 +1,20 @@
+package com.zenjob.challenge.repository;
+
+import com.zenjob.challenge.entity.JobCancellation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface JobCancellationRepository extends JpaRepository<JobCancellation, UUID> {
+
+    Optional<JobCancellation> findFirstByJobIdAndStatus(UUID jobId, JobCancellation.Status status);
+
+    @Query("select c.id from JobCancellation c where c.status = :status")
+    List<UUID> findIdsByStatus(@Param("status") JobCancellation.Status status);
+}
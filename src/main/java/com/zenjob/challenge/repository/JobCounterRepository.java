@@ -0,0 +1,40 @@
+package com.zenjob.challenge.repository;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Maintains the active shift counter of jobs, the number of their shifts that are not canceled.
+ * The counter is not mapped on the Job entity and is only changed through these atomic statements,
+ * which run with plain JDBC so they neither overwrite nor invalidate cached Job entities.
+ */
+public interface JobCounterRepository {
+
+    /**
+     * Takes one active shift off the counter of a job, unless it is the last one.
+     * The check and the decrement are one statement, so concurrent cancels of the
+     * last two shifts cannot both pass.
+     *
+     * @param jobId The ID of the job.
+     * @return 1 if the counter was decremented, 0 if the job has one active shift left
+     */
+    int decrementActiveShiftCountUnlessLast(UUID jobId);
+
+    /**
+     * Adds delta to the active shift counter of a job.
+     *
+     * @param jobId The ID of the job.
+     * @param delta The number of shifts that became active, negative if shifts were canceled.
+     * @return number of updated jobs
+     */
+    int addToActiveShiftCount(UUID jobId, int delta);
+
+    /**
+     * Recounts the shifts of the given jobs that are not canceled and overwrites the counters
+     * that differ, in its own transaction.
+     *
+     * @param jobIds The IDs of the jobs.
+     * @return number of jobs whose counter was wrong
+     */
+    int reconcileActiveShiftCount(Collection<UUID> jobIds);
+}
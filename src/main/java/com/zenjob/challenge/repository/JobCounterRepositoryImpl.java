@@ -0,0 +1,51 @@
+package com.zenjob.challenge.repository;
+
+import com.zenjob.challenge.entity.Shift;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+
+public class JobCounterRepositoryImpl implements JobCounterRepository {
+
+    static final String DECREMENT_UNLESS_LAST = "UPDATE job SET active_shift_count = active_shift_count - 1 " +
+            "WHERE id = ? AND active_shift_count > 1";
+
+    static final String ADD = "UPDATE job SET active_shift_count = active_shift_count + ? WHERE id = ?";
+
+    private static final String ACTIVE_SHIFT_COUNT = "(SELECT COUNT(*) FROM shift s " +
+            "WHERE s.job_id = j.id AND s.status <> " + Shift.Status.CANCELED.ordinal() + ")";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JobCounterRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int decrementActiveShiftCountUnlessLast(UUID jobId) {
+        return jdbcTemplate.update(DECREMENT_UNLESS_LAST, jobId);
+    }
+
+    @Override
+    public int addToActiveShiftCount(UUID jobId, int delta) {
+        return jdbcTemplate.update(ADD, delta, jobId);
+    }
+
+    @Override
+    @Transactional
+    public int reconcileActiveShiftCount(Collection<UUID> jobIds) {
+        if (jobIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(reconcileSql(jobIds.size()), jobIds.toArray());
+    }
+
+    static String reconcileSql(int jobCount) {
+        return "UPDATE job j SET active_shift_count = " + ACTIVE_SHIFT_COUNT + " " +
+                "WHERE j.id IN (" + String.join(", ", Collections.nCopies(jobCount, "?")) + ") " +
+                "AND active_shift_count <> " + ACTIVE_SHIFT_COUNT;
+    }
+}
@@ -1,12 +1,37 @@
 package com.zenjob.challenge.repository;
 
 import com.zenjob.challenge.entity.Job;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface JobRepository extends JpaRepository<Job, UUID> {
+public interface JobRepository extends JpaRepository<Job, UUID>, JobBatchRepository, JobCounterRepository {
 
+    @Query("select j.id from Job j order by j.id")
+    List<UUID> findIdPage(Pageable pageable);
+
+    @Query("select j.id from Job j where j.id > :after order by j.id")
+    List<UUID> findIdPageAfter(@Param("after") UUID after, Pageable pageable);
+
+    /**
+     * Number of jobs in every status that has jobs, as pairs of status and count.
+     */
+    @Query("select j.status, count(j) from Job j group by j.status")
+    List<Object[]> countGroupedByStatus();
+
+    /**
+     * Streams the ids of all jobs in no particular order. Must be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select j.id from Job j")
+    Stream<UUID> streamAllIds();
 }
@@ -0,0 +1,16 @@
+package com.zenjob.challenge.repository;
+
+import com.zenjob.challenge.entity.OutboxEvent;
+
+import java.util.Collection;
+
+public interface OutboxEventBatchRepository {
+
+    /**
+     * Inserts events using JDBC batching, in the order of the collection.
+     * Ids are assigned by the database and not set on the given events.
+     *
+     * @param events the events to insert
+     */
+    void appendAll(Collection<OutboxEvent> events);
+}
@@ -0,0 +1,34 @@
+package com.zenjob.challenge.repository;
+
+import com.zenjob.challenge.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+
+import static com.zenjob.challenge.repository.ShiftJdbcInsert.toTimestamp;
+
+public class OutboxEventBatchRepositoryImpl implements OutboxEventBatchRepository {
+
+    private static final String INSERT_EVENT = "INSERT INTO outbox_event (type, aggregate_id, payload, created_at) " +
+            "VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public OutboxEventBatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                          @Value("${zenjob.jdbc.batch-size:100}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void appendAll(Collection<OutboxEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events, batchSize, (ps, event) -> {
+            ps.setString(1, event.getType().name());
+            ps.setObject(2, event.getAggregateId());
+            ps.setString(3, event.getPayload());
+            ps.setTimestamp(4, toTimestamp(event.getCreatedAt()));
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.zenjob.challenge.repository;
+
+import com.zenjob.challenge.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxEventBatchRepository {
+
+    /**
+     * Oldest events first.
+     */
+    @Query("select e from OutboxEvent e order by e.id")
+    List<OutboxEvent> findBatch(Pageable pageable);
+
+    /**
+     * Deletes delivered events by id. Events are not deleted by id range, since an event with a lower id
+     * can commit after one with a higher id and would be deleted before it was read.
+     *
+     * @return number of deleted events
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,38 @@
+package com.zenjob.challenge.repository;
+
+import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.Shift;
+import com.zenjob.challenge.util.AfterCommit;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Evicts second-level cache entries made stale by statements that bypass Hibernate.
+ * Entries are evicted right away and again after commit, in case a concurrent transaction
+ * cached the old state in between.
+ */
+final class SecondLevelCacheEvictor {
+    private static final String JOB_SHIFTS_ROLE = Job.class.getName() + ".shifts";
+
+    private final org.hibernate.Cache cache;
+
+    SecondLevelCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class);
+    }
+
+    void evictShift(UUID shiftId) {
+        evictNowAndAfterCommit(() -> cache.evictEntityData(Shift.class, shiftId));
+    }
+
+    void evictShiftsOfJobs(Collection<UUID> jobIds) {
+        evictNowAndAfterCommit(() -> jobIds.forEach(jobId -> cache.evictCollectionData(JOB_SHIFTS_ROLE, jobId)));
+    }
+
+    private static void evictNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        //Runs twice without a transaction, evicting again is harmless
+        AfterCommit.run(eviction);
+    }
+}
@@ -0,0 +1,16 @@
+package com.zenjob.challenge.repository;
+
+import com.zenjob.challenge.entity.Shift;
+
+import java.util.Collection;
+
+public interface ShiftBatchRepository {
+
+    /**
+     * Inserts new shifts using JDBC batching.
+     * Ids must be assigned and every shift must reference a persisted job.
+     *
+     * @param shifts the shifts to insert
+     */
+    void insertAll(Collection<Shift> shifts);
+}
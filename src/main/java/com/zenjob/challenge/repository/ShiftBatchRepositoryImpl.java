@@ -0,0 +1,41 @@
+package com.zenjob.challenge.repository;
+
+import com.zenjob.challenge.entity.Shift;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+public class ShiftBatchRepositoryImpl implements ShiftBatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SecondLevelCacheEvictor cacheEvictor;
+    private final Clock clock;
+    private final int batchSize;
+
+    public ShiftBatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                    EntityManagerFactory entityManagerFactory,
+                                    Clock clock,
+                                    @Value("${zenjob.jdbc.batch-size:100}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheEvictor = new SecondLevelCacheEvictor(entityManagerFactory);
+        this.clock = clock;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Transactional
+    public void insertAll(Collection<Shift> shifts) {
+        ShiftJdbcInsert.insertAll(jdbcTemplate, shifts, batchSize, Instant.now(clock));
+
+        //The inserts bypass Hibernate, so cached shift collections of the jobs are evicted here
+        cacheEvictor.evictShiftsOfJobs(shifts.stream()
+                .map(shift -> shift.getJob().getId())
+                .collect(Collectors.toSet()));
+    }
+}
@@ -0,0 +1,39 @@
+package com.zenjob.challenge.repository;
+
+import com.zenjob.challenge.dto.ShiftBookingDto;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ShiftBookingRepository {
+
+    /**
+     * Books a talent for a shift with one conditional update, only if the shift is still in the CREATED state.
+     * Concurrent bookings of the same shift are serialized by the row lock: exactly one of them updates the row,
+     * the others update nothing and leave their transactions untouched.
+     *
+     * @param shiftId The ID of the shift.
+     * @param talentId The ID of the talent.
+     * @return true if the talent was booked, false if the shift was no longer in the CREATED state
+     */
+    boolean bookIfCreated(UUID shiftId, UUID talentId);
+
+    /**
+     * Books talents for shifts with the same conditional update as {@link #bookIfCreated}, sent as one JDBC batch.
+     * Bookings are applied in order, so of two bookings for the same shift only the first can succeed.
+     *
+     * @param bookings Pairs of shift and talent IDs.
+     * @return per booking, in order, true if the talent was booked
+     */
+    boolean[] bookAllIfCreated(List<ShiftBookingDto> bookings);
+
+    /**
+     * Locks the talent until the current transaction ends, waiting for other transactions holding the lock.
+     * Bookings of a talent take the lock before checking for overlapping shifts, so two overlapping bookings
+     * of the same talent cannot both pass the check. The lock is a row per talent selected for update,
+     * created in a transaction of its own the first time the talent is locked.
+     *
+     * @param talentId The ID of the talent.
+     */
+    void lockTalent(UUID talentId);
+}
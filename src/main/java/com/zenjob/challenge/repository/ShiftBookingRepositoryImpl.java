@@ -0,0 +1,87 @@
+package com.zenjob.challenge.repository;
+
+import com.zenjob.challenge.dto.ShiftBookingDto;
+import com.zenjob.challenge.entity.Shift;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.zenjob.challenge.repository.ShiftJdbcInsert.toTimestamp;
+
+public class ShiftBookingRepositoryImpl implements ShiftBookingRepository {
+
+    // Versions are bumped so stale copies of the shift fail their optimistic lock check
+    static final String BOOK_IF_CREATED = "UPDATE shift SET status = " + Shift.Status.BOOKED.ordinal() + ", " +
+            "talent_id = ?, version = version + 1, updated_at = ? " +
+            "WHERE id = ? AND status = " + Shift.Status.CREATED.ordinal();
+
+    static final String LOCK_TALENT = "SELECT talent_id FROM talent_lock WHERE talent_id = ? FOR UPDATE";
+    static final String INSERT_TALENT_LOCK = "INSERT INTO talent_lock (talent_id, locked_at) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SecondLevelCacheEvictor cacheEvictor;
+    private final TransactionTemplate lockRowTransaction;
+    private final Clock clock;
+
+    public ShiftBookingRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                      EntityManagerFactory entityManagerFactory,
+                                      PlatformTransactionManager transactionManager,
+                                      Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheEvictor = new SecondLevelCacheEvictor(entityManagerFactory);
+        this.clock = clock;
+        this.lockRowTransaction = new TransactionTemplate(transactionManager);
+        this.lockRowTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public boolean bookIfCreated(UUID shiftId, UUID talentId) {
+        if (jdbcTemplate.update(BOOK_IF_CREATED, talentId, toTimestamp(Instant.now(clock)), shiftId) == 0) {
+            return false;
+        }
+        cacheEvictor.evictShift(shiftId);
+        return true;
+    }
+
+    @Override
+    public boolean[] bookAllIfCreated(List<ShiftBookingDto> bookings) {
+        Timestamp updatedAt = toTimestamp(Instant.now(clock));
+        int[] updateCounts = jdbcTemplate.batchUpdate(BOOK_IF_CREATED, bookings.stream()
+                .map(booking -> new Object[]{booking.getTalent(), updatedAt, booking.getShift()})
+                .collect(Collectors.toList()));
+
+        boolean[] booked = new boolean[updateCounts.length];
+        for (int i = 0; i < updateCounts.length; i++) {
+            booked[i] = updateCounts[i] > 0;
+            if (booked[i]) {
+                cacheEvictor.evictShift(bookings.get(i).getShift());
+            }
+        }
+        return booked;
+    }
+
+    @Override
+    public void lockTalent(UUID talentId) {
+        if (!jdbcTemplate.queryForList(LOCK_TALENT, talentId).isEmpty()) {
+            return;
+        }
+        //Inserted in its own transaction, so a concurrent first lock of the talent failing on the key
+        //does not abort the booking transaction on databases like PostgreSQL
+        try {
+            lockRowTransaction.execute(status -> jdbcTemplate.update(INSERT_TALENT_LOCK, talentId, toTimestamp(Instant.now(clock))));
+        } catch (DuplicateKeyException e) {
+            //Created by the other transaction
+        }
+        jdbcTemplate.queryForList(LOCK_TALENT, talentId);
+    }
+}
@@ -0,0 +1,55 @@
+package com.zenjob.challenge.repository;
+
+import com.zenjob.challenge.entity.Shift;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Batched JDBC insert of shifts shared by the batch repository fragments.
+ */
+final class ShiftJdbcInsert {
+
+    private static final String INSERT_SHIFT = "INSERT INTO shift " +
+            "(id, version, job_id, talent_id, start_time, end_time, created_at, updated_at, status) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private ShiftJdbcInsert() {
+    }
+
+    /**
+     * Inserts the shifts ordered by job and start time, so rows of a job are written next to each other.
+     * Ids must be assigned before calling this method.
+     */
+    static void insertAll(JdbcTemplate jdbcTemplate, Collection<Shift> shifts, int batchSize, Instant now) {
+        List<Shift> orderedShifts = shifts.stream()
+                .sorted(Comparator.comparing((Shift shift) -> shift.getJob().getId())
+                        .thenComparing(Shift::getStartTime))
+                .peek(shift -> {
+                    shift.setCreatedAt(now);
+                    shift.setUpdatedAt(now);
+                })
+                .collect(Collectors.toList());
+
+        jdbcTemplate.batchUpdate(INSERT_SHIFT, orderedShifts, batchSize, (ps, shift) -> {
+            ps.setObject(1, shift.getId());
+            ps.setLong(2, shift.getVersion());
+            ps.setObject(3, shift.getJob().getId());
+            ps.setObject(4, shift.getTalentId());
+            ps.setTimestamp(5, toTimestamp(shift.getStartTime()));
+            ps.setTimestamp(6, toTimestamp(shift.getEndTime()));
+            ps.setTimestamp(7, toTimestamp(now));
+            ps.setTimestamp(8, toTimestamp(now));
+            ps.setInt(9, shift.getStatus().ordinal());
+        });
+    }
+
+    static Timestamp toTimestamp(Instant instant) {
+        return instant == null ? null : Timestamp.from(instant);
+    }
+}
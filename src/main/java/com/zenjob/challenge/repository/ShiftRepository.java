@@ -1,17 +1,230 @@
 package com.zenjob.challenge.repository;
 
+import com.zenjob.challenge.dto.ShiftDto;
+import com.zenjob.challenge.entity.Job;
 import com.zenjob.challenge.entity.Shift;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ShiftRepository extends JpaRepository<Shift, UUID> {
-    List<Shift> findAllByJobId(UUID jobId);
+public interface ShiftRepository extends JpaRepository<Shift, UUID>, ShiftBatchRepository, ShiftBookingRepository {
+    // Job ids are matched on the foreign key column, derived queries would join job and scan shift
+    @Query("select s from Shift s where s.job.id = :jobId")
+    List<Shift> findAllByJobId(@Param("jobId") UUID jobId);
+
+    /**
+     * Loads the shifts of a job as plain dtos. The job id is read from the foreign key column,
+     * so neither shift entities nor their jobs are loaded into the persistence context.
+     */
+    @Query("select new com.zenjob.challenge.dto.ShiftDto(s.id, s.talentId, s.job.id, s.startTime, s.endTime, s.status) " +
+            "from Shift s where s.job.id = :jobId")
+    List<ShiftDto> findAllDtoByJobId(@Param("jobId") UUID jobId);
+
+    /**
+     * First page of the shifts of a job, ordered by start time and id.
+     */
+    @Query("select new com.zenjob.challenge.dto.ShiftDto(s.id, s.talentId, s.job.id, s.startTime, s.endTime, s.status) " +
+            "from Shift s where s.job.id = :jobId order by s.startTime, s.id")
+    List<ShiftDto> findPageDtoByJobId(@Param("jobId") UUID jobId, Pageable pageable);
+
+    /**
+     * Next page of the shifts of a job, starting right after the given (start time, id) position.
+     */
+    @Query("select new com.zenjob.challenge.dto.ShiftDto(s.id, s.talentId, s.job.id, s.startTime, s.endTime, s.status) " +
+            "from Shift s where s.job.id = :jobId " +
+            "and (s.startTime > :startTime or (s.startTime = :startTime and s.id > :id)) " +
+            "order by s.startTime, s.id")
+    List<ShiftDto> findPageDtoByJobIdAfter(@Param("jobId") UUID jobId,
+                                           @Param("startTime") Instant startTime,
+                                           @Param("id") UUID id,
+                                           Pageable pageable);
+
+    /**
+     * Streams the shifts of a job ordered by start time and id. Must be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.zenjob.challenge.dto.ShiftDto(s.id, s.talentId, s.job.id, s.startTime, s.endTime, s.status) " +
+            "from Shift s where s.job.id = :jobId order by s.startTime, s.id")
+    Stream<ShiftDto> streamAllDtoByJobId(@Param("jobId") UUID jobId);
+
+    /**
+     * Loads the shifts of many jobs as plain dtos with one query, ordered by job, start time and id.
+     */
+    @Query("select new com.zenjob.challenge.dto.ShiftDto(s.id, s.talentId, s.job.id, s.startTime, s.endTime, s.status) " +
+            "from Shift s where s.job.id in :jobIds order by s.job.id, s.startTime, s.id")
+    List<ShiftDto> findAllDtoByJobIdIn(@Param("jobIds") Collection<UUID> jobIds);
+
+    /**
+     * First page of the shifts in the given status that start in [from, to), across all jobs,
+     * ordered by start time and id.
+     */
+    @Query("select new com.zenjob.challenge.dto.ShiftDto(s.id, s.talentId, s.job.id, s.startTime, s.endTime, s.status) " +
+            "from Shift s where s.status = :status and s.startTime >= :from and s.startTime < :to " +
+            "order by s.startTime, s.id")
+    List<ShiftDto> findPageDtoByStatusStartingBetween(@Param("status") Shift.Status status,
+                                                      @Param("from") Instant from,
+                                                      @Param("to") Instant to,
+                                                      Pageable pageable);
+
+    /**
+     * Next page of the shifts in the given status that start in [from, to), across all jobs,
+     * starting right after the given (start time, id) position.
+     */
+    @Query("select new com.zenjob.challenge.dto.ShiftDto(s.id, s.talentId, s.job.id, s.startTime, s.endTime, s.status) " +
+            "from Shift s where s.status = :status and s.startTime >= :from and s.startTime < :to " +
+            "and s.startTime >= :startTime and (s.startTime > :startTime or s.id > :id) " +
+            "order by s.startTime, s.id")
+    List<ShiftDto> findPageDtoByStatusStartingBetweenAfter(@Param("status") Shift.Status status,
+                                                           @Param("from") Instant from,
+                                                           @Param("to") Instant to,
+                                                           @Param("startTime") Instant startTime,
+                                                           @Param("id") UUID id,
+                                                           Pageable pageable);
+
+    /**
+     * Like {@link #findPageDtoByStatusStartingBetween}, for the jobs of one company in the given status.
+     * The job conditions let the database start from the company's jobs that overlap the window
+     * and read only their shifts, instead of every shift in the window.
+     */
+    @Query("select new com.zenjob.challenge.dto.ShiftDto(s.id, s.talentId, j.id, s.startTime, s.endTime, s.status) " +
+            "from Shift s join s.job j where j.companyId = :companyId and j.status = :jobStatus " +
+            "and j.endTime > :from and j.startTime < :to " +
+            "and s.status = :status and s.startTime >= :from and s.startTime < :to " +
+            "order by s.startTime, s.id")
+    List<ShiftDto> findPageDtoByCompanyIdAndStatusStartingBetween(@Param("companyId") UUID companyId,
+                                                                  @Param("jobStatus") Job.Status jobStatus,
+                                                                  @Param("status") Shift.Status status,
+                                                                  @Param("from") Instant from,
+                                                                  @Param("to") Instant to,
+                                                                  Pageable pageable);
+
+    /**
+     * Like {@link #findPageDtoByStatusStartingBetweenAfter}, for the jobs of one company in the given status.
+     */
+    @Query("select new com.zenjob.challenge.dto.ShiftDto(s.id, s.talentId, j.id, s.startTime, s.endTime, s.status) " +
+            "from Shift s join s.job j where j.companyId = :companyId and j.status = :jobStatus " +
+            "and j.endTime > :from and j.startTime < :to " +
+            "and s.status = :status and s.startTime >= :from and s.startTime < :to " +
+            "and s.startTime >= :startTime and (s.startTime > :startTime or s.id > :id) " +
+            "order by s.startTime, s.id")
+    List<ShiftDto> findPageDtoByCompanyIdAndStatusStartingBetweenAfter(@Param("companyId") UUID companyId,
+                                                                       @Param("jobStatus") Job.Status jobStatus,
+                                                                       @Param("status") Shift.Status status,
+                                                                       @Param("from") Instant from,
+                                                                       @Param("to") Instant to,
+                                                                       @Param("startTime") Instant startTime,
+                                                                       @Param("id") UUID id,
+                                                                       Pageable pageable);
+
+    /**
+     * Loads the given shifts as plain dtos with one query, without loading the shift entities or their jobs.
+     */
+    @Query("select new com.zenjob.challenge.dto.ShiftDto(s.id, s.talentId, s.job.id, s.startTime, s.endTime, s.status) " +
+            "from Shift s where s.id in :ids")
+    List<ShiftDto> findAllDtoByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Ids of up to one page of the shifts of a job that are not in the given status.
+     */
+    @Query("select s.id from Shift s where s.job.id = :jobId and s.status <> :status")
+    List<UUID> findIdPageByJobIdAndStatusNot(@Param("jobId") UUID jobId,
+                                             @Param("status") Shift.Status status,
+                                             Pageable pageable);
+
+    @Query("select count(s) from Shift s where s.job.id = :jobId and s.status <> :status")
+    long countByJobIdAndStatusNot(@Param("jobId") UUID jobId, @Param("status") Shift.Status status);
+
+    /**
+     * Talents of the shifts of a job in the given status, each once.
+     */
+    @Query("select distinct s.talentId from Shift s where s.job.id = :jobId and s.status = :status and s.talentId is not null")
+    List<UUID> findTalentIdsByJobIdAndStatus(@Param("jobId") UUID jobId, @Param("status") Shift.Status status);
+
+    /**
+     * Talents of the given shifts that are in the given status, each once.
+     */
+    @Query("select distinct s.talentId from Shift s where s.id in :ids and s.status = :status and s.talentId is not null")
+    List<UUID> findTalentIdsByIdInAndStatus(@Param("ids") Collection<UUID> ids, @Param("status") Shift.Status status);
+
     List<Shift> findAllByTalentId(UUID talentId);
 
-    long countAllByJobIdAndStatusNot(UUID jobId, Shift.Status status);
+    boolean existsByTalentId(UUID talentId);
+
+    /**
+     * Loads the shifts of a talent that are not in the given status as plain dtos,
+     * without loading the shift entities or their jobs.
+     */
+    @Query("select new com.zenjob.challenge.dto.ShiftDto(s.id, s.talentId, s.job.id, s.startTime, s.endTime, s.status) " +
+            "from Shift s where s.talentId = :talentId and s.status <> :status")
+    List<ShiftDto> findAllDtoByTalentIdAndStatusNot(@Param("talentId") UUID talentId,
+                                                    @Param("status") Shift.Status status);
+
+    /**
+     * Loads the shifts of a talent in the given status as plain dtos, ordered by start time.
+     */
+    @Query("select new com.zenjob.challenge.dto.ShiftDto(s.id, s.talentId, s.job.id, s.startTime, s.endTime, s.status) " +
+            "from Shift s where s.talentId = :talentId and s.status = :status order by s.startTime")
+    List<ShiftDto> findAllDtoByTalentIdAndStatus(@Param("talentId") UUID talentId,
+                                                 @Param("status") Shift.Status status);
+
+    /**
+     * Checks whether a talent has a shift in the given status that overlaps the given time, with one range scan
+     * of the shifts of the talent in that status starting before its end. Shifts that only touch do not overlap.
+     */
+    @Query("select case when count(s) > 0 then true else false end from Shift s " +
+            "where s.talentId = :talentId and s.status = :status and s.startTime < :end and s.endTime > :start")
+    boolean existsOverlapping(@Param("talentId") UUID talentId,
+                              @Param("status") Shift.Status status,
+                              @Param("start") Instant start,
+                              @Param("end") Instant end);
+
+    /**
+     * Moves every shift of a job that is not already in the given status to that status in a single statement.
+     * Versions are bumped so concurrent optimistic writers still detect the change.
+     *
+     * @return number of updated shifts
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Shift s set s.status = :status, s.version = s.version + 1, s.updatedAt = :updatedAt " +
+            "where s.job.id = :jobId and s.status <> :status")
+    int updateStatusByJobId(@Param("jobId") UUID jobId,
+                            @Param("status") Shift.Status status,
+                            @Param("updatedAt") Instant updatedAt);
+
+    /**
+     * Moves the given shifts that are not already in the given status to that status in a single statement.
+     *
+     * @return number of updated shifts
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Shift s set s.status = :status, s.version = s.version + 1, s.updatedAt = :updatedAt " +
+            "where s.id in :ids and s.status <> :status")
+    int updateStatusByIdIn(@Param("ids") Collection<UUID> ids,
+                           @Param("status") Shift.Status status,
+                           @Param("updatedAt") Instant updatedAt);
+
+    /**
+     * Number of shifts in every status that has shifts, as pairs of status and count.
+     */
+    @Query("select s.status, count(s) from Shift s group by s.status")
+    List<Object[]> countGroupedByStatus();
 
+    /**
+     * Streams the ids of all shifts in no particular order. Must be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select s.id from Shift s")
+    Stream<UUID> streamAllIds();
 }
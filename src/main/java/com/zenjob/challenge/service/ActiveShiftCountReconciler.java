@@ -0,0 +1,62 @@
+package com.zenjob.challenge.service;
+
+import com.zenjob.challenge.repository.JobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Periodically checks the active shift counters of all jobs against the real number of shifts that
+ * are not canceled, and repairs the counters that drifted.
+ * Jobs are walked in pages ordered by id, each page is checked and repaired in its own short transaction.
+ */
+@Slf4j
+@Service
+public class ActiveShiftCountReconciler {
+    private final JobRepository jobRepository;
+    private final int pageSize;
+    private final Counter repairedCounter;
+
+    public ActiveShiftCountReconciler(JobRepository jobRepository,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${zenjob.active-shift-count.reconcile-page-size:500}") int pageSize) {
+        this.jobRepository = jobRepository;
+        this.pageSize = pageSize;
+        this.repairedCounter = Counter.builder("zenjob.active_shift_count.repaired")
+                .description("Jobs whose active shift counter did not match their shifts")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return number of jobs whose counter was repaired
+     */
+    @Scheduled(initialDelayString = "${zenjob.active-shift-count.reconcile-interval:PT1H}",
+            fixedDelayString = "${zenjob.active-shift-count.reconcile-interval:PT1H}")
+    public int reconcile() {
+        Pageable page = PageRequest.of(0, pageSize);
+        int repaired = 0;
+
+        List<UUID> jobIds = jobRepository.findIdPage(page);
+        while (!jobIds.isEmpty()) {
+            repaired += jobRepository.reconcileActiveShiftCount(jobIds);
+            if (jobIds.size() < pageSize) {
+                break;
+            }
+            jobIds = jobRepository.findIdPageAfter(jobIds.get(jobIds.size() - 1), page);
+        }
+
+        if (repaired > 0) {
+            log.warn("Repaired active shift counters of {} jobs", repaired);
+            repairedCounter.increment(repaired);
+        }
+        return repaired;
+    }
+}
@@ -0,0 +1,67 @@
+package com.zenjob.challenge.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts business outcomes of the job and shift operations. Tags only take values from fixed sets,
+ * never IDs, so the number of time series does not grow with the data.
+ */
+@Component
+public class BusinessMetrics {
+    private final Counter alreadyBookedCounter;
+    private final Counter overlappingCounter;
+    private final Counter lastShiftRejectedCounter;
+    private final Counter replacementCounter;
+    private final DistributionSummary shiftsPerJob;
+
+    public BusinessMetrics(MeterRegistry meterRegistry) {
+        this.alreadyBookedCounter = bookingConflictCounter(meterRegistry, "already_booked");
+        this.overlappingCounter = bookingConflictCounter(meterRegistry, "overlapping");
+        this.lastShiftRejectedCounter = Counter.builder("zenjob.shift.last_shift_rejections")
+                .description("Cancellations rejected because the shift was the last active shift of its job")
+                .register(meterRegistry);
+        this.replacementCounter = Counter.builder("zenjob.shift.replacements")
+                .description("Replacement shifts created for shifts canceled for a talent")
+                .register(meterRegistry);
+        this.shiftsPerJob = DistributionSummary.builder("zenjob.job.shifts")
+                .description("Shifts of every created job")
+                .baseUnit("shifts")
+                .register(meterRegistry);
+    }
+
+    private static Counter bookingConflictCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("zenjob.booking.conflicts")
+                .description("Bookings rejected because the shift was taken or the talent was booked at the same time")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param count Number of bookings rejected because their shift was no longer in the CREATED state.
+     */
+    public void alreadyBooked(int count) {
+        alreadyBookedCounter.increment(count);
+    }
+
+    /**
+     * @param count Number of bookings rejected because they overlap a booked shift of their talent.
+     */
+    public void overlapping(int count) {
+        overlappingCounter.increment(count);
+    }
+
+    public void lastShiftRejected() {
+        lastShiftRejectedCounter.increment();
+    }
+
+    public void replacementsCreated(int count) {
+        replacementCounter.increment(count);
+    }
+
+    public void jobCreated(int shifts) {
+        shiftsPerJob.record(shifts);
+    }
+}
@@ -0,0 +1,145 @@
+package com.zenjob.challenge.service;
+
+import com.zenjob.challenge.dto.JobEventDto;
+import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.JobCancellation;
+import com.zenjob.challenge.entity.OutboxEvent;
+import com.zenjob.challenge.entity.Shift;
+import com.zenjob.challenge.exception.JobCancellationNotFoundException;
+import com.zenjob.challenge.exception.JobNotFoundException;
+import com.zenjob.challenge.repository.JobCancellationRepository;
+import com.zenjob.challenge.repository.JobRepository;
+import com.zenjob.challenge.repository.ShiftRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cancels jobs asynchronously. The job is canceled right away, its shifts are canceled afterwards
+ * in chunks by the {@link JobCancellationWorker}, each chunk in its own short transaction.
+ * Progress is stored with every chunk, so a cancellation can be resumed at any point.
+ */
+@Service
+public class JobCancellationService {
+    private final JobRepository jobRepository;
+    private final ShiftRepository shiftRepository;
+    private final JobCancellationRepository jobCancellationRepository;
+    private final ShiftsResponseCache shiftsResponseCache;
+    private final OutboxPublisher outboxPublisher;
+    private final ShiftAvailabilityIndex shiftAvailabilityIndex;
+    private final TalentScheduleIndex talentScheduleIndex;
+    private final KnownIdFilter knownIdFilter;
+    private final Clock clock;
+    private final int chunkSize;
+
+    public JobCancellationService(JobRepository jobRepository,
+                                  ShiftRepository shiftRepository,
+                                  JobCancellationRepository jobCancellationRepository,
+                                  ShiftsResponseCache shiftsResponseCache,
+                                  OutboxPublisher outboxPublisher,
+                                  ShiftAvailabilityIndex shiftAvailabilityIndex,
+                                  TalentScheduleIndex talentScheduleIndex,
+                                  KnownIdFilter knownIdFilter,
+                                  Clock clock,
+                                  @Value("${zenjob.job-cancellation.chunk-size:500}") int chunkSize) {
+        this.jobRepository = jobRepository;
+        this.shiftRepository = shiftRepository;
+        this.jobCancellationRepository = jobCancellationRepository;
+        this.shiftsResponseCache = shiftsResponseCache;
+        this.outboxPublisher = outboxPublisher;
+        this.shiftAvailabilityIndex = shiftAvailabilityIndex;
+        this.talentScheduleIndex = talentScheduleIndex;
+        this.knownIdFilter = knownIdFilter;
+        this.clock = clock;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Cancels a job and records the cancellation of its shifts, which still have to be canceled by the worker.
+     * If the shifts of the job are already being canceled, returns the running cancellation.
+     *
+     * @param jobId The ID of the job to cancel.
+     * @return the cancellation
+     */
+    @Transactional
+    public JobCancellation start(final UUID jobId) {
+        knownIdFilter.checkJob(jobId);
+        Job job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new JobNotFoundException(jobId));
+
+        return jobCancellationRepository.findFirstByJobIdAndStatus(jobId, JobCancellation.Status.RUNNING)
+                .orElseGet(() -> {
+                    JobCancellation cancellation = jobCancellationRepository.save(JobCancellation.builder()
+                            .jobId(jobId)
+                            .status(JobCancellation.Status.RUNNING)
+                            .totalShifts((int) shiftRepository.countByJobIdAndStatusNot(jobId, Shift.Status.CANCELED))
+                            .build());
+                    if (!job.getStatus().equals(Job.Status.CANCELED)) {
+                        job.setStatus(Job.Status.CANCELED);
+                        jobRepository.save(job);
+                        outboxPublisher.publish(OutboxEvent.Type.JOB_CANCELED, jobId, JobEventDto.builder()
+                                .jobId(jobId)
+                                .companyId(job.getCompanyId())
+                                .status(Job.Status.CANCELED)
+                                .cancellationId(cancellation.getId())
+                                .build());
+                    }
+                    return cancellation;
+                });
+    }
+
+    /**
+     * Cancels the next chunk of shifts of a running cancellation and stores the progress,
+     * or completes the cancellation when no shift is left.
+     *
+     * @param operationId The ID of the cancellation.
+     * @return true if shifts were canceled, false if the cancellation is completed
+     */
+    @Transactional
+    public boolean cancelNextChunk(final UUID operationId) {
+        JobCancellation cancellation = fetch(operationId);
+        if (cancellation.getStatus().equals(JobCancellation.Status.COMPLETED)) {
+            return false;
+        }
+
+        UUID jobId = cancellation.getJobId();
+        List<UUID> shiftIds = shiftRepository.findIdPageByJobIdAndStatusNot(jobId, Shift.Status.CANCELED,
+                PageRequest.of(0, chunkSize));
+        if (shiftIds.isEmpty()) {
+            cancellation.setStatus(JobCancellation.Status.COMPLETED);
+            jobCancellationRepository.save(cancellation);
+            return false;
+        }
+
+        //Read before the update, only talents with booked shifts have schedules that change
+        List<UUID> talentIds = shiftRepository.findTalentIdsByIdInAndStatus(shiftIds, Shift.Status.BOOKED);
+        int canceled = shiftRepository.updateStatusByIdIn(shiftIds, Shift.Status.CANCELED, Instant.now(clock));
+        jobRepository.addToActiveShiftCount(jobId, -canceled);
+        cancellation.setCanceledShifts(cancellation.getCanceledShifts() + canceled);
+        jobCancellationRepository.save(cancellation);
+        shiftsResponseCache.evictAfterCommit(jobId);
+        shiftAvailabilityIndex.setStatusAfterCommit(jobId, shiftIds, Shift.Status.CANCELED);
+        talentScheduleIndex.evictAfterCommit(talentIds);
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    public JobCancellation fetch(final UUID operationId) {
+        return jobCancellationRepository.findById(operationId)
+                .orElseThrow(() -> new JobCancellationNotFoundException(operationId));
+    }
+
+    /**
+     * @return IDs of the cancellations that still have shifts to cancel
+     */
+    @Transactional(readOnly = true)
+    public List<UUID> findRunning() {
+        return jobCancellationRepository.findIdsByStatus(JobCancellation.Status.RUNNING);
+    }
+}
@@ -0,0 +1,87 @@
+package com.zenjob.challenge.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs asynchronous job cancellations chunk by chunk on its own threads.
+ * Running cancellations are looked up periodically, starting right after startup, so cancellations
+ * interrupted by a restart or a failed chunk are resumed from the last stored chunk.
+ */
+@Slf4j
+@Service
+public class JobCancellationWorker {
+    private final JobCancellationService jobCancellationService;
+    private final Executor executor;
+    //Cancellations queued or running on this instance, so a cancellation is never run twice at the same time
+    private final Set<UUID> submitted = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public JobCancellationWorker(JobCancellationService jobCancellationService,
+                                 @Value("${zenjob.job-cancellation.threads:1}") int threads) {
+        this(jobCancellationService, Executors.newFixedThreadPool(threads,
+                new CustomizableThreadFactory("job-cancellation-")));
+    }
+
+    JobCancellationWorker(JobCancellationService jobCancellationService, Executor executor) {
+        this.jobCancellationService = jobCancellationService;
+        this.executor = executor;
+    }
+
+    /**
+     * Queues a cancellation, unless it is already queued or running.
+     *
+     * @param operationId The ID of the cancellation.
+     */
+    public void submit(UUID operationId) {
+        if (!submitted.add(operationId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> run(operationId));
+        } catch (RejectedExecutionException e) {
+            submitted.remove(operationId);
+            log.warn("Job cancellation {} not queued, it is resumed later", operationId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${zenjob.job-cancellation.resume-interval:PT1M}")
+    public void resumeRunning() {
+        jobCancellationService.findRunning().forEach(this::submit);
+    }
+
+    private void run(UUID operationId) {
+        try {
+            int chunks = 0;
+            while (jobCancellationService.cancelNextChunk(operationId)) {
+                chunks++;
+            }
+            log.info("Job cancellation {} completed after {} chunks", operationId, chunks);
+        } catch (RuntimeException e) {
+            log.error("Job cancellation {} failed, it is resumed later", operationId, e);
+        } finally {
+            submitted.remove(operationId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        //Interrupted chunks roll back and are resumed after the restart
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.zenjob.challenge.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zenjob.challenge.dto.JobImportResultDto;
+import com.zenjob.challenge.dto.JobRequestDto;
+import com.zenjob.challenge.entity.Job;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates jobs from a JSON array or newline delimited JSON stream of job requests.
+ * Requests are read one at a time, so the request body is never held in memory, and written in chunks,
+ * each in its own transaction. A chunk that fails to write does not undo the chunks before it.
+ */
+@Slf4j
+@Service
+public class JobImportService {
+    private final JobService jobService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public JobImportService(JobService jobService,
+                            ObjectMapper objectMapper,
+                            Validator validator,
+                            @Value("${zenjob.job-import.chunk-size:500}") int chunkSize) {
+        this.jobService = jobService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Creates the jobs of a request body. Invalid jobs are reported and skipped.
+     * Malformed JSON ends the import, the jobs read before it are still created.
+     * A failed read ends it with the exception, jobs not yet written in a chunk are dropped.
+     *
+     * @param body JSON array or newline delimited JSON of job requests
+     * @return one result per job read, in request order
+     */
+    public List<JobImportResultDto> importJobs(InputStream body) throws IOException {
+        List<JobImportResultDto> results = new ArrayList<>();
+        List<JobRequestDto> chunk = new ArrayList<>(chunkSize);
+        List<JobImportResultDto> chunkResults = new ArrayList<>(chunkSize);
+
+        //Unwraps a top level array, otherwise reads whitespace separated values
+        try (MappingIterator<JsonNode> nodes = objectMapper.readerFor(JsonNode.class).readValues(body)) {
+            while (true) {
+                JobImportResultDto result = JobImportResultDto.builder().index(results.size()).build();
+                JsonNode node;
+                try {
+                    if (!nodes.hasNextValue()) {
+                        break;
+                    }
+                    node = nodes.nextValue();
+                } catch (JsonProcessingException e) {
+                    result.setError("Malformed JSON: " + e.getOriginalMessage());
+                    results.add(result);
+                    break;
+                }
+                results.add(result);
+
+                JobRequestDto jobRequestDto = toValidRequest(node, result);
+                if (jobRequestDto != null) {
+                    chunk.add(jobRequestDto);
+                    chunkResults.add(result);
+                    if (chunk.size() == chunkSize) {
+                        createChunk(chunk, chunkResults);
+                        chunk = new ArrayList<>(chunkSize);
+                        chunkResults = new ArrayList<>(chunkSize);
+                    }
+                }
+            }
+        }
+        //Only reached when the body was read to its end or to malformed JSON, a broken upload writes nothing more
+        if (!chunk.isEmpty()) {
+            createChunk(chunk, chunkResults);
+        }
+        return results;
+    }
+
+    private JobRequestDto toValidRequest(JsonNode node, JobImportResultDto result) {
+        JobRequestDto jobRequestDto;
+        try {
+            jobRequestDto = objectMapper.treeToValue(node, JobRequestDto.class);
+        } catch (JsonProcessingException e) {
+            result.setError(e.getOriginalMessage());
+            return null;
+        }
+
+        Set<ConstraintViolation<JobRequestDto>> violations = validator.validate(jobRequestDto);
+        if (!violations.isEmpty()) {
+            result.setError(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+            return null;
+        }
+
+        try {
+            jobService.validate(jobRequestDto);
+        } catch (IllegalArgumentException e) {
+            result.setError(e.getMessage());
+            return null;
+        }
+        return jobRequestDto;
+    }
+
+    private void createChunk(List<JobRequestDto> chunk, List<JobImportResultDto> chunkResults) {
+        try {
+            List<Job> jobs = jobService.createAll(chunk);
+            for (int i = 0; i < jobs.size(); i++) {
+                chunkResults.get(i).setJobId(jobs.get(i).getId());
+            }
+        } catch (DataAccessException e) {
+            log.error("Error creating {} imported jobs", chunk.size(), e);
+            chunkResults.forEach(result -> result.setError("Job could not be saved"));
+        }
+    }
+}
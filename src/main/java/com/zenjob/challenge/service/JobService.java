@@ -1,10 +1,14 @@
 package com.zenjob.challenge.service;
 
+import com.zenjob.challenge.dto.JobEventDto;
 import com.zenjob.challenge.dto.JobRequestDto;
 import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.OutboxEvent;
 import com.zenjob.challenge.entity.Shift;
 import com.zenjob.challenge.exception.JobNotFoundException;
 import com.zenjob.challenge.repository.JobRepository;
+import com.zenjob.challenge.util.IdGenerator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,6 +16,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
@@ -21,23 +27,85 @@ import java.util.stream.LongStream;
 public class JobService {
     private final JobRepository jobRepository;
     private final ShiftService shiftService;
+    private final IdGenerator idGenerator;
+    private final OutboxPublisher outboxPublisher;
+    private final ShiftAvailabilityIndex shiftAvailabilityIndex;
+    private final BusinessMetrics businessMetrics;
+    private final KnownIdFilter knownIdFilter;
 
     /**
-     * Creates a new Job and its subsequent shifts
+     * Creates a new Job and its subsequent shifts.
+     * Ids are assigned up front so the job and all of its shifts are written with batched inserts.
      * @param jobRequestDto Dto with job ID and start and end date
      * @return created Job object
      */
+    @Timed("zenjob.service")
     @Transactional
     public Job create(final JobRequestDto jobRequestDto) {
+        validate(jobRequestDto);
+        Job newJob = buildJob(jobRequestDto);
+        knownIdFilter.addJobs(Collections.singletonList(newJob));
+        Job job = jobRepository.insertWithShifts(newJob);
+        businessMetrics.jobCreated(job.getShifts().size());
+        shiftAvailabilityIndex.addAfterCommit(job.getShifts());
+        outboxPublisher.publish(OutboxEvent.Type.JOB_CREATED, job.getId(), createdEvent(job));
+        return job;
+    }
+
+    /**
+     * Creates many jobs and their shifts in one transaction, with batched inserts shared by all jobs.
+     * The requests must have been checked with {@link #validate(JobRequestDto)}.
+     *
+     * @param jobRequestDtos Dtos with job ID and start and end date
+     * @return created jobs, in request order
+     */
+    @Timed("zenjob.service")
+    @Transactional
+    public List<Job> createAll(final List<JobRequestDto> jobRequestDtos) {
+        List<Job> jobs = jobRequestDtos.stream()
+                .map(this::buildJob)
+                .collect(Collectors.toList());
+        knownIdFilter.addJobs(jobs);
+        jobRepository.insertAllWithShifts(jobs);
+        jobs.forEach(job -> businessMetrics.jobCreated(job.getShifts().size()));
+        shiftAvailabilityIndex.addAfterCommit(jobs.stream()
+                .flatMap(job -> job.getShifts().stream())
+                .collect(Collectors.toList()));
+        outboxPublisher.publishAll(OutboxEvent.Type.JOB_CREATED, jobs.stream()
+                .map(JobService::createdEvent)
+                .collect(Collectors.toList()), JobEventDto::getJobId);
+        return jobs;
+    }
+
+    private static JobEventDto createdEvent(Job job) {
+        return JobEventDto.builder()
+                .jobId(job.getId())
+                .companyId(job.getCompanyId())
+                .status(job.getStatus())
+                .start(job.getStartTime())
+                .end(job.getEndTime())
+                .shifts(job.getShifts().size())
+                .build();
+    }
+
+    /**
+     * Checks the dates of a job request.
+     *
+     * @param jobRequestDto Dto with job ID and start and end date
+     */
+    public void validate(final JobRequestDto jobRequestDto) {
+        validateStartEndDate(jobRequestDto.getStart(), jobRequestDto.getEnd());
+    }
+
+    private Job buildJob(final JobRequestDto jobRequestDto) {
 
         LocalDate startDate = jobRequestDto.getStart();
         LocalDate endDate = jobRequestDto.getEnd();
 
-        validateStartEndDate(startDate, endDate);
-
         //Creates job entity
         Job job = Job.builder()
-                .companyId(UUID.randomUUID())
+                .id(idGenerator.generate())
+                .companyId(jobRequestDto.getCompanyId())
                 .startTime(startDate.atTime(8, 0, 0).toInstant(ZoneOffset.UTC))
                 .endTime(endDate.atTime(16, 0, 0).toInstant(ZoneOffset.UTC))
                 .status(Job.Status.CREATED)
@@ -49,6 +117,7 @@ public class JobService {
         job.setShifts(LongStream.range(0, totalDays)
                 .mapToObj(idx -> startDate.plus(idx, ChronoUnit.DAYS))
                 .map(date -> Shift.builder()
+                        .id(idGenerator.generate())
                         .job(job)
                         .startTime(date.atTime(8, 0, 0).toInstant(ZoneOffset.UTC))
                         .endTime(date.atTime(16, 0, 0).toInstant(ZoneOffset.UTC))
@@ -56,7 +125,7 @@ public class JobService {
                         .build())
                 .collect(Collectors.toList()));
 
-        return jobRepository.save(job);
+        return job;
     }
 
     /**
@@ -79,9 +148,10 @@ public class JobService {
      *
      * @param jobId The ID of the job to cancel.
      */
+    @Timed("zenjob.service")
     @Transactional
     public void cancel(final UUID jobId) {
-
+        knownIdFilter.checkJob(jobId);
         Job job = jobRepository.findById(jobId)
                 .orElseThrow(()->new JobNotFoundException(jobId));
 
@@ -90,12 +160,19 @@ public class JobService {
             jobRepository.save(job);
 
             //Cancels all the shifts associated with the job
-            job.getShifts().forEach(shiftService::cancel);
+            shiftService.cancelAllByJobId(jobId);
+            outboxPublisher.publish(OutboxEvent.Type.JOB_CANCELED, jobId, JobEventDto.builder()
+                    .jobId(jobId)
+                    .companyId(job.getCompanyId())
+                    .status(Job.Status.CANCELED)
+                    .build());
         }
 
     }
 
+    @Timed("zenjob.service")
     public Job fetch(final UUID jobId){
+        knownIdFilter.checkJob(jobId);
         return jobRepository.findById(jobId).orElseThrow(()->new JobNotFoundException(jobId));
     }
 
@@ -0,0 +1,264 @@
+package com.zenjob.challenge.service;
+
+import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.Shift;
+import com.zenjob.challenge.exception.JobNotFoundException;
+import com.zenjob.challenge.exception.ShiftNotFoundException;
+import com.zenjob.challenge.repository.JobRepository;
+import com.zenjob.challenge.repository.ShiftRepository;
+import com.zenjob.challenge.util.UUIDBloomFilter;
+import com.zenjob.challenge.util.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters of the IDs of all jobs and shifts, so lookups of IDs that do not exist are answered
+ * with a not found error without a database round trip. IDs the filters may contain are looked up as before.
+ * <p>
+ * The filters are loaded from a streaming scan of the IDs once all beans are created, and sized for twice
+ * the IDs found, at least the minimum capacity. Once a filter holds more IDs than it was sized for, both
+ * are loaded again with twice the capacity. New IDs are added before they are inserted, so they are found
+ * as soon as their transaction commits, and to filters loaded in the meantime after the commit, so they are
+ * not lost to a load running at the same time. IDs of rolled back inserts stay in the filters as false positives.
+ * <p>
+ * Inserts made by other instances are only seen once the filters are rebuilt from the database, every rebuild
+ * interval. Until then their IDs are answered as not found by this instance, the rebuild interval bounds that.
+ */
+@Slf4j
+@Component
+public class KnownIdFilter implements SmartInitializingSingleton {
+    private final JobRepository jobRepository;
+    private final ShiftRepository shiftRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final long minCapacity;
+    private final Counter skippedJobLookups;
+    private final Counter passedJobLookups;
+    private final Counter skippedShiftLookups;
+    private final Counter passedShiftLookups;
+
+    //Null until loaded, every ID passes
+    private volatile Filters filters;
+    //Filters being loaded, which receive new IDs too
+    private volatile Filters loading;
+
+    public KnownIdFilter(JobRepository jobRepository,
+                         ShiftRepository shiftRepository,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${zenjob.known-id-filter.enabled:true}") boolean enabled,
+                         @Value("${zenjob.known-id-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                         @Value("${zenjob.known-id-filter.min-capacity:100000}") long minCapacity) {
+        this.jobRepository = jobRepository;
+        this.shiftRepository = shiftRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.minCapacity = minCapacity;
+        this.skippedJobLookups = lookupCounter(meterRegistry, "job", "skipped");
+        this.passedJobLookups = lookupCounter(meterRegistry, "job", "passed");
+        this.skippedShiftLookups = lookupCounter(meterRegistry, "shift", "skipped");
+        this.passedShiftLookups = lookupCounter(meterRegistry, "shift", "passed");
+        Gauge.builder("zenjob.known_id_filter.false_positive_rate", this, filter -> filter.expectedFalsePositiveRate(true))
+                .description("False positive rate expected for the IDs in the filter")
+                .tag("type", "job")
+                .register(meterRegistry);
+        Gauge.builder("zenjob.known_id_filter.false_positive_rate", this, filter -> filter.expectedFalsePositiveRate(false))
+                .description("False positive rate expected for the IDs in the filter")
+                .tag("type", "shift")
+                .register(meterRegistry);
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String type, String result) {
+        return Counter.builder("zenjob.known_id_filter.lookups")
+                .description("Lookups by ID, skipped ones were answered as not found without a database query")
+                .tag("type", type)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            load(minCapacity);
+        }
+    }
+
+    /**
+     * Loads the filters again with twice the capacity once one of them holds more IDs than it was sized for.
+     */
+    @Scheduled(fixedDelayString = "${zenjob.known-id-filter.resize-check-interval:PT1M}")
+    public void resizeIfFull() {
+        Filters current = filters;
+        if (current != null && current.isFull()) {
+            load(2 * Math.max(current.jobs.getCapacity(), current.shifts.getCapacity()));
+        }
+    }
+
+    /**
+     * Loads the filters again at their current capacity, so IDs inserted by other instances are found
+     * and IDs of rolled back inserts are dropped.
+     */
+    @Scheduled(initialDelayString = "${zenjob.known-id-filter.rebuild-interval:PT5M}",
+            fixedDelayString = "${zenjob.known-id-filter.rebuild-interval:PT5M}")
+    public void rebuild() {
+        Filters current = filters;
+        if (current != null) {
+            load(Math.max(current.jobs.getCapacity(), current.shifts.getCapacity()));
+        }
+    }
+
+    /**
+     * Replaces the filters with the IDs of all jobs and shifts, read with one streaming query per table.
+     * Loads run one at a time, new IDs are only added to the filters of one running load.
+     *
+     * @param capacity Number of IDs of each type the filters are sized for at least.
+     */
+    public synchronized void load(long capacity) {
+        long start = System.nanoTime();
+        Filters next = new Filters(
+                UUIDBloomFilter.create(Math.max(capacity, 2 * jobRepository.count()), falsePositiveRate),
+                UUIDBloomFilter.create(Math.max(capacity, 2 * shiftRepository.count()), falsePositiveRate));
+        //Set before the scan, so IDs committed after the scan started are added by the after commit hook
+        loading = next;
+        try {
+            transactionTemplate.execute(status -> {
+                addAll(next.jobs, jobRepository::streamAllIds);
+                addAll(next.shifts, shiftRepository::streamAllIds);
+                return null;
+            });
+            //In this order, an add that finds no loading filters finds the loaded ones
+            filters = next;
+        } finally {
+            loading = null;
+        }
+        log.info("Loaded {} job and {} shift IDs into filters for {} and {} IDs in {} ms",
+                next.jobs.getAdded(), next.shifts.getAdded(), next.jobs.getCapacity(), next.shifts.getCapacity(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static void addAll(UUIDBloomFilter filter, Supplier<Stream<UUID>> ids) {
+        try (Stream<UUID> stream = ids.get()) {
+            stream.forEach(filter::add);
+        }
+    }
+
+    /**
+     * Adds new jobs and their shifts, call before they are inserted.
+     *
+     * @param jobs The jobs to be created, with their shifts.
+     */
+    public void addJobs(Collection<Job> jobs) {
+        add(target -> jobs.forEach(job -> {
+            target.jobs.add(job.getId());
+            job.getShifts().forEach(shift -> target.shifts.add(shift.getId()));
+        }));
+    }
+
+    /**
+     * Adds new shifts, call before they are inserted.
+     *
+     * @param shifts The shifts to be created.
+     */
+    public void addShifts(Collection<Shift> shifts) {
+        add(target -> shifts.forEach(shift -> target.shifts.add(shift.getId())));
+    }
+
+    private void add(Consumer<Filters> add) {
+        if (!enabled) {
+            return;
+        }
+        Filters added = addNow(add, null);
+        //A load may have started its scan before the commit, its filters get the IDs too
+        AfterCommit.run(() -> addNow(add, added));
+    }
+
+    /**
+     * Adds to the filters being loaded and the current ones, unless they are the given ones.
+     *
+     * @return the current filters
+     */
+    private Filters addNow(Consumer<Filters> add, Filters skipped) {
+        //Loading filters first, see load
+        Filters next = loading;
+        if (next != null && next != skipped) {
+            add.accept(next);
+        }
+        Filters current = filters;
+        if (current != null && current != next && current != skipped) {
+            add.accept(current);
+        }
+        return current;
+    }
+
+    /**
+     * Fails if the job does not exist for sure, passes if it may exist.
+     *
+     * @param jobId The ID of the job.
+     */
+    public void checkJob(UUID jobId) {
+        if (!mightContain(jobId, true)) {
+            skippedJobLookups.increment();
+            throw new JobNotFoundException(jobId);
+        }
+        passedJobLookups.increment();
+    }
+
+    /**
+     * Fails if the shift does not exist for sure, passes if it may exist.
+     *
+     * @param shiftId The ID of the shift.
+     */
+    public void checkShift(UUID shiftId) {
+        if (!mightContain(shiftId, false)) {
+            skippedShiftLookups.increment();
+            throw new ShiftNotFoundException(shiftId);
+        }
+        passedShiftLookups.increment();
+    }
+
+    private boolean mightContain(UUID id, boolean job) {
+        Filters current = filters;
+        return current == null || current.get(job).mightContain(id);
+    }
+
+    private double expectedFalsePositiveRate(boolean job) {
+        Filters current = filters;
+        return current == null ? Double.NaN : current.get(job).expectedFalsePositiveRate();
+    }
+
+    private static final class Filters {
+        private final UUIDBloomFilter jobs;
+        private final UUIDBloomFilter shifts;
+
+        private Filters(UUIDBloomFilter jobs, UUIDBloomFilter shifts) {
+            this.jobs = jobs;
+            this.shifts = shifts;
+        }
+
+        UUIDBloomFilter get(boolean job) {
+            return job ? jobs : shifts;
+        }
+
+        boolean isFull() {
+            return jobs.getAdded() > jobs.getCapacity() || shifts.getAdded() > shifts.getCapacity();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.zenjob.challenge.service;
+
+import com.zenjob.challenge.entity.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Logs outbox events, for environments without a downstream system.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "zenjob.outbox.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingOutboxSink implements OutboxSink {
+
+    @Override
+    public void send(List<OutboxEvent> events) {
+        events.forEach(event -> log.info("Outbox event {} {} for {}: {}",
+                event.getId(), event.getType(), event.getAggregateId(), event.getPayload()));
+    }
+
+    @Override
+    public String name() {
+        return "log";
+    }
+}
@@ -0,0 +1,72 @@
+package com.zenjob.challenge.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zenjob.challenge.entity.OutboxEvent;
+import com.zenjob.challenge.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes job and shift events to the outbox in the transaction of the state change, so an event
+ * is relayed if and only if the change is committed. Delivery is left to the {@link OutboxRelay}.
+ */
+@RequiredArgsConstructor
+@Service
+public class OutboxPublisher {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    /**
+     * @param type The type of the event.
+     * @param aggregateId The ID of the job or shift that changed.
+     * @param payload Job or shift event dto.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(OutboxEvent.Type type, UUID aggregateId, Object payload) {
+        publishAll(type, Collections.singletonList(payload), event -> aggregateId);
+    }
+
+    /**
+     * Writes one event per payload with a single batched insert.
+     *
+     * @param type The type of the events.
+     * @param payloads Job or shift event dtos.
+     * @param aggregateId Returns the ID of the job or shift of a payload.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> void publishAll(OutboxEvent.Type type, Collection<T> payloads, Function<T, UUID> aggregateId) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        Instant now = clock.instant();
+        outboxEventRepository.appendAll(payloads.stream()
+                .map(payload -> OutboxEvent.builder()
+                        .type(type)
+                        .aggregateId(aggregateId.apply(payload))
+                        .payload(toJson(payload))
+                        .createdAt(now)
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
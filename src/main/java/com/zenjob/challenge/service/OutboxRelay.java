@@ -0,0 +1,134 @@
+package com.zenjob.challenge.service;
+
+import com.zenjob.challenge.entity.OutboxEvent;
+import com.zenjob.challenge.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the outbox in batches to the {@link OutboxSink}, on the scheduler thread and never on the request path.
+ * Requests only insert outbox rows, so a slow or failing sink makes the outbox grow instead of slowing them down.
+ * The relay reads the next batch only after the sink accepted the previous one, and backs off exponentially
+ * while the sink fails.
+ */
+@Slf4j
+@Service
+public class OutboxRelay {
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink sink;
+    private final Clock clock;
+    private final Pageable batch;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Counter relayedCounter;
+    private final Counter failureCounter;
+    private final Timer sendTimer;
+
+    private Duration backoff;
+    private Instant retryAt = Instant.MIN;
+    //Creation time of the oldest event waiting in the outbox, null if the outbox was empty
+    private volatile Instant oldestPending;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxSink sink,
+                       Clock clock,
+                       MeterRegistry meterRegistry,
+                       @Value("${zenjob.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${zenjob.outbox.relay.initial-backoff:PT1S}") Duration initialBackoff,
+                       @Value("${zenjob.outbox.relay.max-backoff:PT1M}") Duration maxBackoff) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.clock = clock;
+        this.batch = PageRequest.of(0, batchSize);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.backoff = initialBackoff;
+        this.relayedCounter = Counter.builder("zenjob.outbox.relayed")
+                .description("Outbox events delivered to the sink")
+                .tag("sink", sink.name())
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("zenjob.outbox.failures")
+                .description("Outbox batches the sink failed to deliver")
+                .tag("sink", sink.name())
+                .register(meterRegistry);
+        this.sendTimer = Timer.builder("zenjob.outbox.send")
+                .description("Time the sink takes to deliver a batch of outbox events")
+                .tag("sink", sink.name())
+                .register(meterRegistry);
+        Gauge.builder("zenjob.outbox.lag", this, OutboxRelay::lagSeconds)
+                .description("Age of the oldest outbox event waiting to be relayed")
+                .tag("sink", sink.name())
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Relays batches until the outbox is drained or the sink fails.
+     *
+     * @return number of relayed events
+     */
+    @Scheduled(fixedDelayString = "${zenjob.outbox.relay.poll-interval:PT1S}")
+    public int relay() {
+        if (clock.instant().isBefore(retryAt)) {
+            return 0;
+        }
+
+        int relayed = 0;
+        List<OutboxEvent> events;
+        do {
+            events = outboxEventRepository.findBatch(batch);
+            if (events.isEmpty()) {
+                break;
+            }
+            oldestPending = events.get(0).getCreatedAt();
+            if (!send(events)) {
+                return relayed;
+            }
+            outboxEventRepository.deleteByIdIn(events.stream()
+                    .map(OutboxEvent::getId)
+                    .collect(Collectors.toList()));
+            relayedCounter.increment(events.size());
+            relayed += events.size();
+        } while (events.size() == batch.getPageSize());
+
+        oldestPending = null;
+        return relayed;
+    }
+
+    private boolean send(List<OutboxEvent> events) {
+        try {
+            sendTimer.recordCallable(() -> {
+                sink.send(events);
+                return null;
+            });
+            backoff = initialBackoff;
+            return true;
+        } catch (Exception e) {
+            failureCounter.increment();
+            retryAt = clock.instant().plus(backoff);
+            log.warn("Outbox sink {} failed to deliver {} events, retrying in {}", sink.name(), events.size(), backoff, e);
+            Duration doubled = backoff.multipliedBy(2);
+            backoff = doubled.compareTo(maxBackoff) > 0 ? maxBackoff : doubled;
+            return false;
+        }
+    }
+
+    private double lagSeconds() {
+        Instant oldest = oldestPending;
+        return oldest == null ? 0 : Duration.between(oldest, clock.instant()).toMillis() / 1000.0;
+    }
+}
@@ -0,0 +1,23 @@
+package com.zenjob.challenge.service;
+
+import com.zenjob.challenge.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Delivers outbox events to downstream systems. Called by the {@link OutboxRelay} from a single thread,
+ * with batches in id order. A batch is delivered at least once: it is sent again if this method throws,
+ * or if the relay stops before the batch is deleted from the outbox.
+ */
+public interface OutboxSink {
+
+    /**
+     * @param events Batch of events, oldest first.
+     */
+    void send(List<OutboxEvent> events) throws Exception;
+
+    /**
+     * @return name of the sink, used as metrics tag
+     */
+    String name();
+}
@@ -0,0 +1,335 @@
+package com.zenjob.challenge.service;
+
+import com.zenjob.challenge.dto.ShiftAvailabilityDto;
+import com.zenjob.challenge.dto.ShiftDto;
+import com.zenjob.challenge.entity.Shift;
+import com.zenjob.challenge.exception.JobNotFoundException;
+import com.zenjob.challenge.repository.JobRepository;
+import com.zenjob.challenge.repository.ShiftRepository;
+import com.zenjob.challenge.util.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of the shifts of every job by status, to answer availability questions without reading shifts.
+ * <p>
+ * The shifts of a job are numbered into slots in the order they were added. Every job keeps one bitset
+ * over its slots per status, and the ID and start day of every slot in primitive arrays, so counts are bit
+ * counts and open days are read from the set bits.
+ * <p>
+ * The index is loaded in pages of jobs once all beans are created, before requests are served. Changes are
+ * applied after the transaction that made them commits, so readers never see uncommitted writes. Jobs that
+ * are not indexed, or were read longer than the max age ago, are read from the database when they are asked
+ * for, which bounds how long writes of other instances go unseen.
+ */
+@Slf4j
+@Component
+public class ShiftAvailabilityIndex implements SmartInitializingSingleton {
+    private static final Shift.Status[] STATUSES = Shift.Status.values();
+    private static final long SECONDS_PER_DAY = TimeUnit.DAYS.toSeconds(1);
+
+    private final JobRepository jobRepository;
+    private final ShiftRepository shiftRepository;
+    private final int loadPageSize;
+    private final long maxAgeNanos;
+    private final Map<UUID, JobSlots> jobs = new ConcurrentHashMap<>();
+
+    public ShiftAvailabilityIndex(JobRepository jobRepository,
+                                  ShiftRepository shiftRepository,
+                                  @Value("${zenjob.availability-index.load-page-size:500}") int loadPageSize,
+                                  @Value("${zenjob.availability-index.max-age:PT10M}") Duration maxAge) {
+        this.jobRepository = jobRepository;
+        this.shiftRepository = shiftRepository;
+        this.loadPageSize = loadPageSize;
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        load();
+    }
+
+    /**
+     * Replaces the index with the shifts of all jobs, read in pages of jobs ordered by id.
+     */
+    public void load() {
+        long start = System.nanoTime();
+        Pageable page = PageRequest.of(0, loadPageSize);
+        Map<UUID, JobSlots> loaded = new HashMap<>();
+
+        List<UUID> jobIds = jobRepository.findIdPage(page);
+        while (!jobIds.isEmpty()) {
+            for (ShiftDto shift : shiftRepository.findAllDtoByJobIdIn(jobIds)) {
+                loaded.computeIfAbsent(shift.getJobId(), jobId -> new JobSlots())
+                        .add(shift.getId(), epochDay(shift.getStart()), shift.getStatus());
+            }
+            if (jobIds.size() < loadPageSize) {
+                break;
+            }
+            jobIds = jobRepository.findIdPageAfter(jobIds.get(jobIds.size() - 1), page);
+        }
+
+        jobs.clear();
+        jobs.putAll(loaded);
+        log.info("Indexed shifts of {} jobs in {} ms", loaded.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * @param jobId The ID of the job.
+     * @return number of shifts of the job in every status
+     */
+    public ShiftAvailabilityDto countByStatus(UUID jobId) {
+        int[] counts = slots(jobId).counts();
+        return ShiftAvailabilityDto.builder()
+                .jobId(jobId)
+                .open(counts[Shift.Status.CREATED.ordinal()])
+                .booked(counts[Shift.Status.BOOKED.ordinal()])
+                .canceled(counts[Shift.Status.CANCELED.ordinal()])
+                .completed(counts[Shift.Status.COMPLETED.ordinal()])
+                .build();
+    }
+
+    /**
+     * @param jobId The ID of the job.
+     * @return days with at least one shift of the job that can still be booked, in ascending order
+     */
+    public List<LocalDate> findOpenDays(UUID jobId) {
+        return Arrays.stream(slots(jobId).days(Shift.Status.CREATED))
+                .sorted()
+                .distinct()
+                .mapToObj(LocalDate::ofEpochDay)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Adds the shifts of new jobs to the index once the current transaction commits.
+     *
+     * @param shifts The created shifts, with their job.
+     */
+    public void addAfterCommit(Collection<Shift> shifts) {
+        AfterCommit.run(() -> shifts.forEach(shift -> jobs.computeIfAbsent(shift.getJob().getId(), jobId -> new JobSlots())
+                .add(shift.getId(), epochDay(shift.getStartTime()), shift.getStatus())));
+    }
+
+    /**
+     * Adds new shifts of existing jobs to the index once the current transaction commits. Jobs that are not
+     * indexed are skipped rather than indexed with only the new shifts, they are read whole when asked for.
+     *
+     * @param shifts The created shifts, with their job.
+     */
+    public void addToIndexedJobsAfterCommit(Collection<Shift> shifts) {
+        AfterCommit.run(() -> shifts.forEach(shift -> {
+            JobSlots slots = jobs.get(shift.getJob().getId());
+            if (slots != null) {
+                slots.add(shift.getId(), epochDay(shift.getStartTime()), shift.getStatus());
+            }
+        }));
+    }
+
+    public void setStatusAfterCommit(UUID jobId, UUID shiftId, Shift.Status status) {
+        AfterCommit.run(() -> setStatus(jobId, shiftId, status));
+    }
+
+    public void setStatusAfterCommit(UUID jobId, Collection<UUID> shiftIds, Shift.Status status) {
+        AfterCommit.run(() -> shiftIds.forEach(shiftId -> setStatus(jobId, shiftId, status)));
+    }
+
+    /**
+     * Moves shifts of any jobs to a status once the current transaction commits.
+     *
+     * @param shifts The changed shifts, only their IDs and job IDs are read.
+     * @param status The new status of the shifts.
+     */
+    public void setStatusAfterCommit(Collection<ShiftDto> shifts, Shift.Status status) {
+        AfterCommit.run(() -> shifts.forEach(shift -> setStatus(shift.getJobId(), shift.getId(), status)));
+    }
+
+    /**
+     * Moves all shifts of a job to a status once the current transaction commits.
+     *
+     * @param jobId The ID of the job.
+     * @param status The new status of the shifts.
+     */
+    public void setStatusOfAllAfterCommit(UUID jobId, Shift.Status status) {
+        AfterCommit.run(() -> {
+            JobSlots slots = jobs.get(jobId);
+            if (slots != null) {
+                slots.setStatusOfAll(status);
+            }
+        });
+    }
+
+    private void setStatus(UUID jobId, UUID shiftId, Shift.Status status) {
+        JobSlots slots = jobs.get(jobId);
+        if (slots != null) {
+            slots.setStatus(shiftId, status);
+        }
+    }
+
+    /**
+     * @return the slots of the job, read from the database if the job is not indexed or older than the max age
+     */
+    private JobSlots slots(UUID jobId) {
+        JobSlots slots = jobs.get(jobId);
+        if (slots != null && System.nanoTime() - slots.createdAt < maxAgeNanos) {
+            return slots;
+        }
+        //Read outside the map, so the query holds no lock that changes of other jobs wait for.
+        //A change committed while the job is read may be missed until the job is read again.
+        List<ShiftDto> shifts = shiftRepository.findAllDtoByJobId(jobId);
+        if (shifts.isEmpty()) {
+            if (slots != null) {
+                jobs.remove(jobId, slots);
+            }
+            throw new JobNotFoundException(jobId);
+        }
+        JobSlots read = new JobSlots();
+        shifts.forEach(shift -> read.add(shift.getId(), epochDay(shift.getStart()), shift.getStatus()));
+        if (slots == null) {
+            JobSlots raced = jobs.putIfAbsent(jobId, read);
+            return raced != null ? raced : read;
+        }
+        jobs.replace(jobId, slots, read);
+        return read;
+    }
+
+    private static int epochDay(Instant start) {
+        return (int) Math.floorDiv(start.getEpochSecond(), SECONDS_PER_DAY);
+    }
+
+    /**
+     * The shifts of one job. Slots are only ever added, a shift keeps its slot when its status changes.
+     * Slots are found by shift ID in an open addressing table of slot numbers, so no IDs or slots are boxed.
+     */
+    private static final class JobSlots {
+        private static final int INITIAL_SLOTS = 16;
+
+        private final long createdAt = System.nanoTime();
+        private final BitSet[] slotsByStatus = new BitSet[STATUSES.length];
+        private long[] mostSignificantBits = new long[INITIAL_SLOTS];
+        private long[] leastSignificantBits = new long[INITIAL_SLOTS];
+        private int[] days = new int[INITIAL_SLOTS];
+        private int size;
+        //Slot + 1 of the shift hashed to every bucket, 0 for empty buckets, at most half full
+        private int[] table = new int[2 * INITIAL_SLOTS];
+
+        private JobSlots() {
+            for (int i = 0; i < slotsByStatus.length; i++) {
+                slotsByStatus[i] = new BitSet();
+            }
+        }
+
+        synchronized void add(UUID shiftId, int day, Shift.Status status) {
+            int slot = slotOf(shiftId);
+            if (slot < 0) {
+                slot = size++;
+                if (slot == days.length) {
+                    mostSignificantBits = Arrays.copyOf(mostSignificantBits, slot * 2);
+                    leastSignificantBits = Arrays.copyOf(leastSignificantBits, slot * 2);
+                    days = Arrays.copyOf(days, slot * 2);
+                }
+                mostSignificantBits[slot] = shiftId.getMostSignificantBits();
+                leastSignificantBits[slot] = shiftId.getLeastSignificantBits();
+                days[slot] = day;
+                if (2 * size > table.length) {
+                    table = new int[2 * table.length];
+                    for (int i = 0; i < slot; i++) {
+                        insert(i);
+                    }
+                }
+                insert(slot);
+            }
+            set(slot, status);
+        }
+
+        synchronized void setStatus(UUID shiftId, Shift.Status status) {
+            int slot = slotOf(shiftId);
+            if (slot >= 0) {
+                set(slot, status);
+            }
+        }
+
+        synchronized void setStatusOfAll(Shift.Status status) {
+            for (BitSet slots : slotsByStatus) {
+                slots.clear();
+            }
+            slotsByStatus[status.ordinal()].set(0, size);
+        }
+
+        synchronized int[] counts() {
+            int[] counts = new int[slotsByStatus.length];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = slotsByStatus[i].cardinality();
+            }
+            return counts;
+        }
+
+        /**
+         * @return start days of the shifts in the status, in slot order and with duplicates
+         */
+        synchronized int[] days(Shift.Status status) {
+            BitSet slots = slotsByStatus[status.ordinal()];
+            int[] result = new int[slots.cardinality()];
+            int i = 0;
+            for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+                result[i++] = days[slot];
+            }
+            return result;
+        }
+
+        /**
+         * @return the slot of the shift, or -1 if the shift has none
+         */
+        private int slotOf(UUID shiftId) {
+            long most = shiftId.getMostSignificantBits();
+            long least = shiftId.getLeastSignificantBits();
+            int mask = table.length - 1;
+            for (int bucket = bucket(most, least, mask); table[bucket] != 0; bucket = (bucket + 1) & mask) {
+                int slot = table[bucket] - 1;
+                if (mostSignificantBits[slot] == most && leastSignificantBits[slot] == least) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private void insert(int slot) {
+            int mask = table.length - 1;
+            int bucket = bucket(mostSignificantBits[slot], leastSignificantBits[slot], mask);
+            while (table[bucket] != 0) {
+                bucket = (bucket + 1) & mask;
+            }
+            table[bucket] = slot + 1;
+        }
+
+        private static int bucket(long most, long least, int mask) {
+            int hash = Long.hashCode(most ^ least) * 0x9E3779B9;
+            return (hash ^ hash >>> 16) & mask;
+        }
+
+        private void set(int slot, Shift.Status status) {
+            for (BitSet slots : slotsByStatus) {
+                slots.clear(slot);
+            }
+            slotsByStatus[status.ordinal()].set(slot);
+        }
+    }
+}
@@ -1,124 +1,552 @@
 package com.zenjob.challenge.service;
 
+import com.zenjob.challenge.dto.BulkBookingRequestDto;
+import com.zenjob.challenge.dto.ShiftBookingDto;
+import com.zenjob.challenge.dto.ShiftBookingResultDto;
 import com.zenjob.challenge.dto.ShiftDto;
+import com.zenjob.challenge.dto.ShiftEventDto;
+import com.zenjob.challenge.dto.ShiftsResponseDto;
 import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.OutboxEvent;
 import com.zenjob.challenge.entity.Shift;
 import com.zenjob.challenge.exception.*;
+import com.zenjob.challenge.repository.JobRepository;
 import com.zenjob.challenge.repository.ShiftRepository;
+import com.zenjob.challenge.util.IdGenerator;
+import com.zenjob.challenge.util.ShiftCursor;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 @Service
 public class ShiftService {
 
     private final ShiftRepository shiftRepository;
+    private final JobRepository jobRepository;
+    private final IdGenerator idGenerator;
+    private final ShiftsResponseCache shiftsResponseCache;
+    private final OutboxPublisher outboxPublisher;
+    private final ShiftAvailabilityIndex shiftAvailabilityIndex;
+    private final TalentScheduleIndex talentScheduleIndex;
+    private final BusinessMetrics businessMetrics;
+    private final KnownIdFilter knownIdFilter;
+    private final Clock clock;
 
     /**
-     * Books a talent for a shift if the shift is in the CREATED state.
+     * Books a talent for a shift if the shift is in the CREATED state
+     * and the talent is not booked for an overlapping shift.
      *
      * @param shiftId The ID of the shift.
      * @param talentId The ID of the talent.
      */
+    @Timed("zenjob.service")
     @Transactional
     public void book(UUID shiftId, UUID talentId) {
+        BookingResult result = tryBook(shiftId, talentId);
+        if (result == BookingResult.ALREADY_BOOKED) {
+            throw new CannotBookShiftException(shiftId);
+        }
+        if (result == BookingResult.OVERLAPPING) {
+            throw new OverlappingShiftException(shiftId, talentId);
+        }
+    }
+
+    /**
+     * Books a talent for a shift with one conditional update instead of read, modify and save.
+     * When many talents race for the same shift, exactly one wins and the others get ALREADY_BOOKED
+     * without an optimistic locking failure or a rollback.
+     * <p>
+     * Overlapping shifts of the talent are looked up in the database while the talent is locked, so concurrent
+     * bookings of one talent cannot overlap each other. The {@link TalentScheduleIndex} is not trusted for the
+     * decision, it may miss changes made by other instances.
+     *
+     * @param shiftId The ID of the shift.
+     * @param talentId The ID of the talent.
+     * @return BOOKED, ALREADY_BOOKED if the shift is no longer in the CREATED state,
+     * or OVERLAPPING if the talent is booked for a shift at the same time
+     */
+    @Timed("zenjob.service")
+    @Transactional
+    public BookingResult tryBook(UUID shiftId, UUID talentId) {
+        knownIdFilter.checkShift(shiftId);
         Shift shift = shiftRepository.findById(shiftId).orElseThrow(()->new ShiftNotFoundException(shiftId));
 
+        //A shift never goes back to CREATED, so a taken shift is rejected without a write
         if(!shift.getStatus().equals(Shift.Status.CREATED)){
-            throw new CannotBookShiftException(shiftId);
+            businessMetrics.alreadyBooked(1);
+            return BookingResult.ALREADY_BOOKED;
+        }
+        boolean overlapInIndex = talentScheduleIndex.overlaps(talentId, shift.getStartTime(), shift.getEndTime());
+        shiftRepository.lockTalent(talentId);
+        if (shiftRepository.existsOverlapping(talentId, Shift.Status.BOOKED, shift.getStartTime(), shift.getEndTime())) {
+            businessMetrics.overlapping(1);
+            return BookingResult.OVERLAPPING;
+        }
+        if (overlapInIndex) {
+            //Canceled since it was indexed, possibly by another instance
+            talentScheduleIndex.evict(talentId);
+        }
+        if (!shiftRepository.bookIfCreated(shiftId, talentId)) {
+            businessMetrics.alreadyBooked(1);
+            return BookingResult.ALREADY_BOOKED;
+        }
+
+        shiftsResponseCache.evictAfterCommit(shift.getJob().getId());
+        talentScheduleIndex.evictAfterCommit(talentId);
+        shiftAvailabilityIndex.setStatusAfterCommit(shift.getJob().getId(), shiftId, Shift.Status.BOOKED);
+        outboxPublisher.publish(OutboxEvent.Type.SHIFT_BOOKED, shiftId, ShiftEventDto.builder()
+                .shiftId(shiftId)
+                .jobId(shift.getJob().getId())
+                .talentId(talentId)
+                .status(Shift.Status.BOOKED)
+                .build());
+        return BookingResult.BOOKED;
+    }
+
+    /**
+     * Books talents for many shifts with one query and one batched conditional update.
+     * Bookings that overlap a booked shift of their talent or an earlier booking of the request are not made.
+     * In BEST_EFFORT mode every bookable shift is booked. In ALL_OR_NOTHING mode nothing is written unless
+     * every shift is bookable, and a booking lost to a concurrent request rolls back the others.
+     *
+     * @param bookings Pairs of shift and talent IDs.
+     * @param mode Whether shifts are booked when others of the request cannot be.
+     * @return one result per booking, in request order
+     */
+    @Timed("zenjob.service")
+    @Transactional
+    public List<ShiftBookingResultDto> bookAll(List<ShiftBookingDto> bookings, BulkBookingRequestDto.Mode mode) {
+        Map<UUID, ShiftDto> shifts = shiftRepository.findAllDtoByIdIn(bookings.stream()
+                        .map(ShiftBookingDto::getShift)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(ShiftDto::getId, Function.identity()));
+
+        ShiftBookingResultDto.Outcome[] outcomes = new ShiftBookingResultDto.Outcome[bookings.size()];
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            ShiftDto shift = shifts.get(bookings.get(i).getShift());
+            if (shift == null) {
+                outcomes[i] = ShiftBookingResultDto.Outcome.NOT_FOUND;
+            } else if (!shift.getStatus().equals(Shift.Status.CREATED)) {
+                outcomes[i] = ShiftBookingResultDto.Outcome.NOT_BOOKABLE;
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        //Overlaps within the request are rejected before talents are locked
+        Map<UUID, List<ShiftDto>> requestedByTalent = new HashMap<>();
+        candidates.removeIf(i -> {
+            UUID talentId = bookings.get(i).getTalent();
+            ShiftDto shift = shifts.get(bookings.get(i).getShift());
+            List<ShiftDto> requested = requestedByTalent.computeIfAbsent(talentId, id -> new ArrayList<>());
+            if (requested.stream().anyMatch(other -> !other.getId().equals(shift.getId()) && overlaps(other, shift))) {
+                outcomes[i] = ShiftBookingResultDto.Outcome.OVERLAPPING;
+                return true;
+            }
+            requested.add(shift);
+            return false;
+        });
+
+        //Talents are locked in one order, so concurrent bulk bookings cannot deadlock on each other
+        candidates.stream()
+                .map(i -> bookings.get(i).getTalent())
+                .collect(Collectors.toCollection(TreeSet::new))
+                .forEach(shiftRepository::lockTalent);
+        //The database decides, overlaps in the index of this instance that it does not confirm are stale
+        candidates.removeIf(i -> {
+            UUID talentId = bookings.get(i).getTalent();
+            ShiftDto shift = shifts.get(bookings.get(i).getShift());
+            boolean overlapInIndex = talentScheduleIndex.overlaps(talentId, shift.getStart(), shift.getEnd());
+            if (shiftRepository.existsOverlapping(talentId, Shift.Status.BOOKED, shift.getStart(), shift.getEnd())) {
+                outcomes[i] = ShiftBookingResultDto.Outcome.OVERLAPPING;
+                return true;
+            }
+            if (overlapInIndex) {
+                talentScheduleIndex.evict(talentId);
+            }
+            return false;
+        });
+
+        boolean allOrNothing = mode == BulkBookingRequestDto.Mode.ALL_OR_NOTHING;
+        if (allOrNothing && candidates.size() < bookings.size()) {
+            candidates.forEach(i -> outcomes[i] = ShiftBookingResultDto.Outcome.NOT_APPLIED);
+            recordConflicts(outcomes);
+            throw new BulkBookingRejectedException(toResults(bookings, outcomes));
+        }
+
+        if (!candidates.isEmpty()) {
+            //Shifts taken since they were read, or booked twice in the request, are not updated
+            boolean[] booked = shiftRepository.bookAllIfCreated(candidates.stream()
+                    .map(bookings::get)
+                    .collect(Collectors.toList()));
+            for (int j = 0; j < booked.length; j++) {
+                outcomes[candidates.get(j)] = booked[j]
+                        ? ShiftBookingResultDto.Outcome.BOOKED
+                        : ShiftBookingResultDto.Outcome.NOT_BOOKABLE;
+            }
+        }
+
+        if (allOrNothing && candidates.stream().anyMatch(i -> outcomes[i] != ShiftBookingResultDto.Outcome.BOOKED)) {
+            //The exception rolls back the bookings that were made
+            candidates.stream()
+                    .filter(i -> outcomes[i] == ShiftBookingResultDto.Outcome.BOOKED)
+                    .forEach(i -> outcomes[i] = ShiftBookingResultDto.Outcome.NOT_APPLIED);
+            recordConflicts(outcomes);
+            throw new BulkBookingRejectedException(toResults(bookings, outcomes));
+        }
+
+        recordConflicts(outcomes);
+        List<ShiftEventDto> bookedShifts = candidates.stream()
+                .filter(i -> outcomes[i] == ShiftBookingResultDto.Outcome.BOOKED)
+                .map(i -> ShiftEventDto.builder()
+                        .shiftId(bookings.get(i).getShift())
+                        .jobId(shifts.get(bookings.get(i).getShift()).getJobId())
+                        .talentId(bookings.get(i).getTalent())
+                        .status(Shift.Status.BOOKED)
+                        .build())
+                .collect(Collectors.toList());
+        if (!bookedShifts.isEmpty()) {
+            shiftsResponseCache.evictAfterCommit(bookedShifts.stream()
+                    .map(ShiftEventDto::getJobId)
+                    .collect(Collectors.toSet()));
+            talentScheduleIndex.evictAfterCommit(bookedShifts.stream()
+                    .map(ShiftEventDto::getTalentId)
+                    .collect(Collectors.toSet()));
+            shiftAvailabilityIndex.setStatusAfterCommit(bookedShifts.stream()
+                    .map(bookedShift -> shifts.get(bookedShift.getShiftId()))
+                    .collect(Collectors.toList()), Shift.Status.BOOKED);
+            outboxPublisher.publishAll(OutboxEvent.Type.SHIFT_BOOKED, bookedShifts, ShiftEventDto::getShiftId);
+        }
+        return toResults(bookings, outcomes);
+    }
+
+    private void recordConflicts(ShiftBookingResultDto.Outcome[] outcomes) {
+        int alreadyBooked = 0;
+        int overlapping = 0;
+        for (ShiftBookingResultDto.Outcome outcome : outcomes) {
+            if (outcome == ShiftBookingResultDto.Outcome.NOT_BOOKABLE) {
+                alreadyBooked++;
+            } else if (outcome == ShiftBookingResultDto.Outcome.OVERLAPPING) {
+                overlapping++;
+            }
         }
+        businessMetrics.alreadyBooked(alreadyBooked);
+        businessMetrics.overlapping(overlapping);
+    }
+
+    private static boolean overlaps(ShiftDto first, ShiftDto second) {
+        return first.getStart().isBefore(second.getEnd()) && second.getStart().isBefore(first.getEnd());
+    }
 
-        shift.setTalentId(talentId);
-        shift.setStatus(Shift.Status.BOOKED);
-        shiftRepository.save(shift);
+    private static List<ShiftBookingResultDto> toResults(List<ShiftBookingDto> bookings,
+                                                         ShiftBookingResultDto.Outcome[] outcomes) {
+        List<ShiftBookingResultDto> results = new ArrayList<>(bookings.size());
+        for (int i = 0; i < bookings.size(); i++) {
+            results.add(ShiftBookingResultDto.builder()
+                    .shift(bookings.get(i).getShift())
+                    .talent(bookings.get(i).getTalent())
+                    .outcome(outcomes[i])
+                    .build());
+        }
+        return results;
     }
 
+    @Timed("zenjob.service")
     @Transactional
     public void cancel(UUID shiftId) {
+        knownIdFilter.checkShift(shiftId);
         Shift shift = shiftRepository.findById(shiftId)
                 .orElseThrow(() -> new ShiftNotFoundException(shiftId));
 
-        checkIfLastAvailableShift(shift);  //check if the shift is the last available shift of a job
         cancel(shift);
     }
 
+    /**
+     * Cancels a shift that is not canceled yet and takes it off the active shift counter of its job.
+     * The last active shift of a job that is not canceled cannot be canceled.
+     *
+     * @param shift The shift to be canceled.
+     */
+    @Timed("zenjob.service")
     @Transactional
     public void cancel(Shift shift) {
         if (!shift.getStatus().equals(Shift.Status.CANCELED)) {
+            releaseActiveShift(shift);  //check if the shift is the last available shift of a job
             shift.setStatus(Shift.Status.CANCELED);
             shiftRepository.save(shift);
+            shiftsResponseCache.evictAfterCommit(shift.getJob().getId());
+            shiftAvailabilityIndex.setStatusAfterCommit(shift.getJob().getId(), shift.getId(), Shift.Status.CANCELED);
+            if (shift.getTalentId() != null) {
+                talentScheduleIndex.evictAfterCommit(shift.getTalentId());
+            }
+            outboxPublisher.publish(OutboxEvent.Type.SHIFT_CANCELED, shift.getId(), ShiftEventDto.builder()
+                    .shiftId(shift.getId())
+                    .jobId(shift.getJob().getId())
+                    .talentId(shift.getTalentId())
+                    .status(Shift.Status.CANCELED)
+                    .build());
+        }
+    }
+
+    /**
+     * Cancels all shifts of a job that are not canceled yet with one bulk update
+     * and takes them off the active shift counter of the job.
+     *
+     * @param jobId The ID of the job.
+     * @return number of canceled shifts
+     */
+    @Timed("zenjob.service")
+    @Transactional
+    public int cancelAllByJobId(UUID jobId) {
+        //Read before the update, only talents with booked shifts have schedules that change
+        List<UUID> talentIds = shiftRepository.findTalentIdsByJobIdAndStatus(jobId, Shift.Status.BOOKED);
+        int canceled = shiftRepository.updateStatusByJobId(jobId, Shift.Status.CANCELED, Instant.now(clock));
+        if (canceled > 0) {
+            jobRepository.addToActiveShiftCount(jobId, -canceled);
+            shiftsResponseCache.evictAfterCommit(jobId);
+            shiftAvailabilityIndex.setStatusOfAllAfterCommit(jobId, Shift.Status.CANCELED);
+            talentScheduleIndex.evictAfterCommit(talentIds);
         }
+        return canceled;
     }
 
     /**
      * Cancels all shifts for a given talent and creates replacement shifts.
+     * Active shifts are filtered in the database, canceled with one bulk update
+     * and replaced with one batched insert.
+     * Every canceled shift gets one replacement in the same job, so active shift counters do not change.
      *
      * @param talentId The ID of the talent.
      */
+    @Timed("zenjob.service")
     @Transactional
     public void cancelShiftForTalent(UUID talentId) {
-        List<Shift> shifts = shiftRepository.findAllByTalentId(talentId);
-        if(shifts.isEmpty()) {
-            throw new ShiftsForTalentNotFoundException(talentId);
+        List<ShiftDto> activeShifts = shiftRepository.findAllDtoByTalentIdAndStatusNot(talentId, Shift.Status.CANCELED);
+
+        if (activeShifts.isEmpty()) {
+            if (!shiftRepository.existsByTalentId(talentId)) {
+                throw new ShiftsForTalentNotFoundException(talentId);
+            }
+            throw new NoAvailableShiftException(talentId);
         }
 
-        List<Shift> activeShifts = shifts.stream()
-                .filter(shift -> !shift.getStatus().equals(Shift.Status.CANCELED))
+        List<UUID> shiftIds = activeShifts.stream()
+                .map(ShiftDto::getId)
                 .collect(Collectors.toList());
+        //A shift canceled since it was read is skipped by the update and must not get a replacement,
+        //so the whole cancellation is rolled back like a failed versioned save
+        int canceled = shiftRepository.updateStatusByIdIn(shiftIds, Shift.Status.CANCELED, Instant.now(clock));
+        if (canceled != shiftIds.size()) {
+            throw new OptimisticLockingFailureException("Shifts of talent with Id " + talentId
+                    + " were changed while they were canceled");
+        }
 
-        if (activeShifts.isEmpty()) {
-            throw new NoAvailableShiftException(talentId);
+        List<Shift> replacementShifts = activeShifts.stream()
+                .map(this::createReplacementShift)
+                .collect(Collectors.toList());
+        knownIdFilter.addShifts(replacementShifts);
+        shiftRepository.insertAll(replacementShifts);
+        businessMetrics.replacementsCreated(replacementShifts.size());
+
+        shiftsResponseCache.evictAfterCommit(activeShifts.stream()
+                .map(ShiftDto::getJobId)
+                .collect(Collectors.toSet()));
+        shiftAvailabilityIndex.setStatusAfterCommit(activeShifts, Shift.Status.CANCELED);
+        shiftAvailabilityIndex.addToIndexedJobsAfterCommit(replacementShifts);
+        talentScheduleIndex.evictAfterCommit(talentId);
+
+        List<ShiftEventDto> canceledShifts = new ArrayList<>(activeShifts.size());
+        for (int i = 0; i < activeShifts.size(); i++) {
+            canceledShifts.add(ShiftEventDto.builder()
+                    .shiftId(activeShifts.get(i).getId())
+                    .jobId(activeShifts.get(i).getJobId())
+                    .talentId(talentId)
+                    .status(Shift.Status.CANCELED)
+                    .replacementShiftId(replacementShifts.get(i).getId())
+                    .build());
         }
-        activeShifts.forEach(shift -> {
-                cancel(shift);
-                createReplacementShift(shift);
-                });
+        outboxPublisher.publishAll(OutboxEvent.Type.SHIFT_CANCELED, canceledShifts, ShiftEventDto::getShiftId);
     }
 
-    private void createReplacementShift(Shift canceledShift) {
-        Shift replacementShift = Shift.builder()
-                .job(canceledShift.getJob())
-                .startTime(canceledShift.getStartTime())
-                .endTime(canceledShift.getEndTime())
+    private Shift createReplacementShift(ShiftDto canceledShift) {
+        return Shift.builder()
+                .id(idGenerator.generate())
+                .job(Job.builder().id(canceledShift.getJobId()).build())
+                .startTime(canceledShift.getStart())
+                .endTime(canceledShift.getEnd())
                 .status(Shift.Status.CREATED)
                 .build();
-
-        shiftRepository.save(replacementShift);
     }
 
     /**
-     * Check if a shift is the last available shift of a job.
-     * Also checks if Job was canceled or not.
+     * Takes a shift off the active shift counter of its job.
+     * Fails if the shift is the last active shift and the job was not canceled.
      *
      * @param currentShift The shift to be canceled.
      */
-    private void checkIfLastAvailableShift(Shift currentShift) {
+    private void releaseActiveShift(Shift currentShift) {
         Job job = currentShift.getJob();
-        long numberOfAvailableShift =  shiftRepository.countAllByJobIdAndStatusNot(job.getId(), Shift.Status.CANCELED);
-        if(!job.getStatus().equals(Job.Status.CANCELED) && numberOfAvailableShift == 1) {
+        if (job.getStatus().equals(Job.Status.CANCELED)) {
+            jobRepository.addToActiveShiftCount(job.getId(), -1);
+        } else if (jobRepository.decrementActiveShiftCountUnlessLast(job.getId()) == 0) {
+            businessMetrics.lastShiftRejected();
             throw new LastShiftException(currentShift);
         }
     }
 
+    /**
+     * Fetches the shifts of a job.
+     * Runs in a read-only transaction, which switches the Hibernate session to flush mode MANUAL,
+     * and reads straight into dtos without loading the job.
+     *
+     * @param jobId The ID of the job.
+     * @return shifts of the job
+     */
+    @Timed("zenjob.service")
+    @Transactional(readOnly = true)
     public List<ShiftDto> fetchByJobId(final UUID jobId) {
-        List<Shift> shifts = shiftRepository.findAllByJobId(jobId);
+        knownIdFilter.checkJob(jobId);
+        List<ShiftDto> shifts = shiftRepository.findAllDtoByJobId(jobId);
         if(shifts.isEmpty()) {
             throw new JobNotFoundException(jobId);
         }
-        return shifts.stream()
-                .map(shift -> ShiftDto.builder()
-                        .id(shift.getId())
-                        .talentId(shift.getTalentId())
-                        .jobId(shift.getJob().getId())
-                        .start(shift.getStartTime())
-                        .end(shift.getEndTime())
-                        .status(shift.getStatus())
-                        .build())
-                .collect(Collectors.toList());
+        return shifts;
+    }
+
+    /**
+     * Fetches one page of the shifts of a job, ordered by start time and id.
+     *
+     * @param jobId The ID of the job.
+     * @param after Cursor returned with the previous page, null for the first page.
+     * @param limit Maximum number of shifts in the page.
+     * @return the page and the cursor of the next page, if there is one
+     */
+    @Timed("zenjob.service")
+    @Transactional(readOnly = true)
+    public ShiftsResponseDto fetchPageByJobId(final UUID jobId, final String after, final int limit) {
+        //Reads one extra shift to find out if there is a next page
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<ShiftDto> shifts;
+        if (after == null) {
+            knownIdFilter.checkJob(jobId);
+            shifts = shiftRepository.findPageDtoByJobId(jobId, pageable);
+            if (shifts.isEmpty()) {
+                throw new JobNotFoundException(jobId);
+            }
+        } else {
+            ShiftCursor cursor = ShiftCursor.decode(after);
+            shifts = shiftRepository.findPageDtoByJobIdAfter(jobId, cursor.getStartTime(), cursor.getId(), pageable);
+        }
+        return toPage(shifts, limit);
+    }
+
+    /**
+     * Searches the open shifts of all jobs, or of the jobs of one company, that start in [from, to),
+     * one page at a time ordered by start time and id. Across all jobs this reads a range of the
+     * (status, start time, id) index. For one company it starts from the company's jobs that overlap
+     * the window and reads only their shifts, so the cost does not grow with the shifts of other companies.
+     *
+     * @param from Start of the time window, inclusive.
+     * @param to End of the time window, exclusive.
+     * @param companyId The ID of the company, null for all companies.
+     * @param after Cursor returned with the previous page, null for the first page.
+     * @param limit Maximum number of shifts in the page.
+     * @return the page and the cursor of the next page, if there is one
+     */
+    @Timed("zenjob.service")
+    @Transactional(readOnly = true)
+    public ShiftsResponseDto searchOpen(final Instant from, final Instant to, final UUID companyId,
+                                        final String after, final int limit) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Start of the time window must be before its end!");
+        }
+
+        //Reads one extra shift to find out if there is a next page
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        Shift.Status status = Shift.Status.CREATED;
+        List<ShiftDto> shifts;
+        if (after == null) {
+            shifts = companyId == null
+                    ? shiftRepository.findPageDtoByStatusStartingBetween(status, from, to, pageable)
+                    : shiftRepository.findPageDtoByCompanyIdAndStatusStartingBetween(companyId, Job.Status.CREATED,
+                            status, from, to, pageable);
+        } else {
+            ShiftCursor cursor = ShiftCursor.decode(after);
+            shifts = companyId == null
+                    ? shiftRepository.findPageDtoByStatusStartingBetweenAfter(status, from, to,
+                            cursor.getStartTime(), cursor.getId(), pageable)
+                    : shiftRepository.findPageDtoByCompanyIdAndStatusStartingBetweenAfter(companyId, Job.Status.CREATED,
+                            status, from, to, cursor.getStartTime(), cursor.getId(), pageable);
+        }
+        return toPage(shifts, limit);
+    }
+
+    /**
+     * @param shifts Up to limit + 1 shifts, the extra one only tells that there is a next page.
+     */
+    private static ShiftsResponseDto toPage(List<ShiftDto> shifts, int limit) {
+        if (shifts.size() <= limit) {
+            return ShiftsResponseDto.builder().shifts(shifts).build();
+        }
+        List<ShiftDto> page = shifts.subList(0, limit);
+        return ShiftsResponseDto.builder()
+                .shifts(page)
+                .next(ShiftCursor.of(page.get(limit - 1)).encode())
+                .build();
+    }
+
+    /**
+     * Checks that a job has at least one shift by reading a single row.
+     *
+     * @param jobId The ID of the job.
+     */
+    @Timed("zenjob.service")
+    @Transactional(readOnly = true)
+    public void checkJobHasShifts(final UUID jobId) {
+        knownIdFilter.checkJob(jobId);
+        if (shiftRepository.findPageDtoByJobId(jobId, PageRequest.of(0, 1)).isEmpty()) {
+            throw new JobNotFoundException(jobId);
+        }
+    }
+
+    /**
+     * Streams the shifts of a job, ordered by start time and id, to the consumer while they are read,
+     * so memory use does not grow with the number of shifts.
+     *
+     * @param jobId The ID of the job.
+     * @param consumer Receives every shift of the job.
+     */
+    @Timed("zenjob.service")
+    @Transactional(readOnly = true)
+    public void streamByJobId(final UUID jobId, final Consumer<ShiftDto> consumer) {
+        try (Stream<ShiftDto> shifts = shiftRepository.streamAllDtoByJobId(jobId)) {
+            shifts.forEach(consumer);
+        }
+    }
+
+    public enum BookingResult {
+        BOOKED,
+        ALREADY_BOOKED,
+        OVERLAPPING
     }
 }
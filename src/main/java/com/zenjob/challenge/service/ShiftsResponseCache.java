@@ -0,0 +1,97 @@
+package com.zenjob.challenge.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zenjob.challenge.util.AfterCommit;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Serialized shift listings of jobs, keyed by job id.
+ * <p>
+ * Memory is bounded by the total size of the cached listings. Caffeine evicts by frequency and recency
+ * (W-TinyLFU), entries also expire after a time to live as a safety net.
+ * <p>
+ * Only one load runs per job: the first caller on a miss loads on its own thread and concurrent callers
+ * wait for its result. Entries are evicted after the transaction that changed the shifts commits; a
+ * load still running at that moment is dropped instead of being cached.
+ */
+@Component
+public class ShiftsResponseCache {
+    private final AsyncCache<UUID, byte[]> cache;
+
+    public ShiftsResponseCache(MeterRegistry meterRegistry,
+                               @Value("${zenjob.shifts-response-cache.max-size:64MB}") DataSize maxSize,
+                               @Value("${zenjob.shifts-response-cache.ttl:PT5M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .<UUID, byte[]>weigher((jobId, response) -> response.length)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        //Same tag keys as the second-level cache metrics, Prometheus requires them to match per meter name
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "shifts.response", Tags.of("cacheType", "response"));
+    }
+
+    /**
+     * Returns the cached listing of a job, or loads and caches it.
+     * Exceptions of the loader are passed on to every waiting caller and nothing is cached.
+     *
+     * @param jobId The ID of the job.
+     * @param loader Loads the serialized listing of the job.
+     * @return serialized listing of the job
+     */
+    public byte[] get(UUID jobId, Function<UUID, byte[]> loader) {
+        CompletableFuture<byte[]> load = new CompletableFuture<>();
+        CompletableFuture<byte[]> cached = cache.get(jobId, (id, executor) -> load);
+        if (cached != load) {
+            return join(cached);
+        }
+
+        try {
+            byte[] response = loader.apply(jobId);
+            load.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            //Failed loads are removed from the cache by Caffeine
+            load.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void evictAfterCommit(UUID jobId) {
+        evictAfterCommit(Collections.singleton(jobId));
+    }
+
+    /**
+     * Evicts the listings of the jobs once the current transaction commits, or right away without a transaction.
+     *
+     * @param jobIds The IDs of the jobs whose shifts changed.
+     */
+    public void evictAfterCommit(Collection<UUID> jobIds) {
+        AfterCommit.run(() -> cache.synchronous().invalidateAll(jobIds));
+    }
+
+    private static byte[] join(CompletableFuture<byte[]> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.zenjob.challenge.service;
+
+import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.Shift;
+import com.zenjob.challenge.repository.JobRepository;
+import com.zenjob.challenge.repository.ShiftRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the number of jobs and shifts in every status as gauges tagged with the status.
+ * The counts are read with one grouped query per table on a schedule and kept in memory,
+ * so scraping the metrics never touches the database.
+ */
+@Component
+public class StatusCountGauges {
+    private final JobRepository jobRepository;
+    private final ShiftRepository shiftRepository;
+    private final Map<Job.Status, AtomicLong> jobCounts;
+    private final Map<Shift.Status, AtomicLong> shiftCounts;
+
+    public StatusCountGauges(JobRepository jobRepository, ShiftRepository shiftRepository, MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.shiftRepository = shiftRepository;
+        this.jobCounts = register(meterRegistry, "zenjob.jobs", "Jobs by status", Job.Status.class);
+        this.shiftCounts = register(meterRegistry, "zenjob.shifts", "Shifts by status", Shift.Status.class);
+    }
+
+    private static <S extends Enum<S>> Map<S, AtomicLong> register(MeterRegistry meterRegistry, String name,
+                                                                   String description, Class<S> statusType) {
+        Map<S, AtomicLong> counts = new EnumMap<>(statusType);
+        for (S status : statusType.getEnumConstants()) {
+            AtomicLong count = new AtomicLong();
+            counts.put(status, count);
+            Gauge.builder(name, count, AtomicLong::get)
+                    .description(description)
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+        return counts;
+    }
+
+    /**
+     * Reads the counts of jobs and shifts by status, runs once at startup and then every refresh interval.
+     */
+    @Scheduled(fixedDelayString = "${zenjob.status-count-gauges.refresh-interval:PT1M}")
+    public void refresh() {
+        update(jobCounts, jobRepository.countGroupedByStatus());
+        update(shiftCounts, shiftRepository.countGroupedByStatus());
+    }
+
+    private static <S extends Enum<S>> void update(Map<S, AtomicLong> counts, List<Object[]> rows) {
+        //Statuses without rows are not returned and go back to zero
+        Map<S, Long> read = new HashMap<>();
+        for (Object[] row : rows) {
+            @SuppressWarnings("unchecked")
+            S status = (S) row[0];
+            read.put(status, (Long) row[1]);
+        }
+        counts.forEach((status, count) -> count.set(read.getOrDefault(status, 0L)));
+    }
+}
@@ -0,0 +1,123 @@
+package com.zenjob.challenge.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.zenjob.challenge.dto.ShiftDto;
+import com.zenjob.challenge.entity.Shift;
+import com.zenjob.challenge.repository.ShiftRepository;
+import com.zenjob.challenge.util.AfterCommit;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Booked shifts of talents as sorted arrays of start and end times, to find overlapping bookings
+ * with a binary search instead of reading the shifts of the talent.
+ * <p>
+ * Schedules are loaded on first use, evicted after the transaction that changed the bookings of the talent
+ * commits and expire after a time to live, which bounds how long changes made by other instances go unseen.
+ * The index is only a hint: bookings are always checked against the database while the talent is locked,
+ * and the schedule of a talent is evicted when an overlap it reported is not in the database.
+ */
+@Component
+public class TalentScheduleIndex {
+    private final LoadingCache<UUID, TalentSchedule> schedules;
+
+    public TalentScheduleIndex(ShiftRepository shiftRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${zenjob.talent-schedule.max-talents:100000}") long maxTalents,
+                               @Value("${zenjob.talent-schedule.ttl:PT5M}") Duration ttl) {
+        this.schedules = Caffeine.newBuilder()
+                .maximumSize(maxTalents)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(talentId -> TalentSchedule.of(
+                        shiftRepository.findAllDtoByTalentIdAndStatus(talentId, Shift.Status.BOOKED)));
+        CaffeineCacheMetrics.monitor(meterRegistry, schedules, "talent.schedule", Tags.of("cacheType", "index"));
+    }
+
+    /**
+     * @param talentId The ID of the talent.
+     * @param start Start of the time to check.
+     * @param end End of the time to check.
+     * @return true if a booked shift of the talent overlaps the time
+     */
+    public boolean overlaps(UUID talentId, Instant start, Instant end) {
+        return schedules.get(talentId).overlaps(start.toEpochMilli(), end.toEpochMilli());
+    }
+
+    /**
+     * Evicts the schedule of the talent right away, for a schedule that was found to be stale.
+     *
+     * @param talentId The ID of the talent.
+     */
+    public void evict(UUID talentId) {
+        schedules.invalidate(talentId);
+    }
+
+    public void evictAfterCommit(UUID talentId) {
+        evictAfterCommit(Collections.singleton(talentId));
+    }
+
+    /**
+     * Evicts the schedules of the talents once the current transaction commits, or right away without a transaction.
+     *
+     * @param talentIds The IDs of the talents whose bookings changed.
+     */
+    public void evictAfterCommit(Collection<UUID> talentIds) {
+        AfterCommit.run(() -> schedules.invalidateAll(talentIds));
+    }
+
+    /**
+     * Shifts of one talent ordered by start, with the latest end of all shifts up to each one,
+     * so shifts that overlap each other are still found.
+     */
+    static final class TalentSchedule {
+        private final long[] starts;
+        private final long[] maxEnds;
+
+        private TalentSchedule(long[] starts, long[] maxEnds) {
+            this.starts = starts;
+            this.maxEnds = maxEnds;
+        }
+
+        /**
+         * @param shifts Shifts ordered by start time.
+         */
+        static TalentSchedule of(List<ShiftDto> shifts) {
+            long[] starts = new long[shifts.size()];
+            long[] maxEnds = new long[shifts.size()];
+            long maxEnd = Long.MIN_VALUE;
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = shifts.get(i).getStart().toEpochMilli();
+                maxEnd = Math.max(maxEnd, shifts.get(i).getEnd().toEpochMilli());
+                maxEnds[i] = maxEnd;
+            }
+            return new TalentSchedule(starts, maxEnds);
+        }
+
+        boolean overlaps(long start, long end) {
+            //Index of the first shift starting at or after the end, every shift before it starts before the end
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (starts[middle] < end) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low > 0 && maxEnds[low - 1] > start;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.zenjob.challenge.util;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.Configurable;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Properties;
+
+/**
+ * Lets Hibernate generate entity ids with the configured {@link IdGenerator}, for entities persisted
+ * without an id. The strategy is read from the {@code zenjob.id.generator} JPA property.
+ */
+public class HibernateIdGenerator implements IdentifierGenerator, Configurable {
+    public static final String STRATEGY_SETTING = "zenjob.id.generator";
+
+    private IdGenerator idGenerator;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) {
+        String strategy = serviceRegistry.getService(ConfigurationService.class)
+                .getSetting(STRATEGY_SETTING, StandardConverters.STRING, IdGenerator.TIME_ORDERED);
+        idGenerator = IdGenerator.forStrategy(strategy);
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        return idGenerator.generate();
+    }
+}
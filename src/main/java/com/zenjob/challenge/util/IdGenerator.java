@@ -0,0 +1,25 @@
+package com.zenjob.challenge.util;
+
+import java.util.UUID;
+
+/**
+ * Generates primary keys for jobs and shifts.
+ * The strategy is selected with the {@code zenjob.id.generator} property.
+ */
+public interface IdGenerator {
+    String RANDOM = "random";
+    String TIME_ORDERED = "time-ordered";
+
+    UUID generate();
+
+    static IdGenerator forStrategy(String strategy) {
+        switch (strategy) {
+            case RANDOM:
+                return RandomIdGenerator.INSTANCE;
+            case TIME_ORDERED:
+                return TimeOrderedIdGenerator.INSTANCE;
+            default:
+                throw new IllegalArgumentException("Unknown id generator: " + strategy);
+        }
+    }
+}
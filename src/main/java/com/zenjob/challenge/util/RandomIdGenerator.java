@@ -0,0 +1,15 @@
+package com.zenjob.challenge.util;
+
+import java.util.UUID;
+
+/**
+ * Random version 4 UUIDs.
+ */
+public class RandomIdGenerator implements IdGenerator {
+    public static final RandomIdGenerator INSTANCE = new RandomIdGenerator();
+
+    @Override
+    public UUID generate() {
+        return UUID.randomUUID();
+    }
+}
@@ -0,0 +1,65 @@
+package com.zenjob.challenge.util;
+
+import com.zenjob.challenge.dto.ShiftDto;
+import com.zenjob.challenge.entity.Shift;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads shift listings written by {@link ShiftBinaryWriter}, for clients and tests.
+ */
+public final class ShiftBinaryReader {
+    private static final Shift.Status[] STATUSES = Shift.Status.values();
+
+    private ShiftBinaryReader() {
+    }
+
+    /**
+     * @param in The listing, read up to its end byte.
+     * @return the shifts of the listing, in the order they were written
+     * @throws IOException if the listing is not in the binary format or was cut off
+     */
+    public static List<ShiftDto> read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        byte[] magic = new byte[ShiftBinaryWriter.MAGIC.length];
+        data.readFully(magic);
+        if (!Arrays.equals(magic, ShiftBinaryWriter.MAGIC)) {
+            throw new IOException("Not a binary shift listing");
+        }
+        int version = data.readUnsignedByte();
+        if (version != ShiftBinaryWriter.VERSION) {
+            throw new IOException("Unsupported version of binary shift listing: " + version);
+        }
+        UUID jobId = readUUID(data);
+
+        List<ShiftDto> shifts = new ArrayList<>();
+        try {
+            for (byte flags = data.readByte(); flags != ShiftBinaryWriter.END; flags = data.readByte()) {
+                int status = flags & ShiftBinaryWriter.STATUS_MASK;
+                if (status >= STATUSES.length) {
+                    throw new IOException("Unknown shift status: " + status);
+                }
+                UUID id = readUUID(data);
+                Instant start = Instant.ofEpochMilli(data.readLong());
+                Instant end = Instant.ofEpochMilli(data.readLong());
+                UUID talentId = (flags & ShiftBinaryWriter.TALENT_FLAG) != 0 ? readUUID(data) : null;
+                shifts.add(new ShiftDto(id, talentId, jobId, start, end, STATUSES[status]));
+            }
+        } catch (EOFException e) {
+            throw new IOException("Binary shift listing ends after " + shifts.size() + " shifts without its end byte", e);
+        }
+        return shifts;
+    }
+
+    private static UUID readUUID(DataInputStream data) throws IOException {
+        return new UUID(data.readLong(), data.readLong());
+    }
+}
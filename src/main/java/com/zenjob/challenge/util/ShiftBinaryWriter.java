@@ -0,0 +1,97 @@
+package com.zenjob.challenge.util;
+
+import com.zenjob.challenge.dto.ShiftDto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+
+/**
+ * Writes the shifts of a job in a compact binary format, one fixed layout record per shift, so a listing
+ * can be written while the shifts are read. All numbers are big endian.
+ * <pre>
+ * header:  'Z' 'J' 'S' version(1 byte) jobId(16 bytes)
+ * shift:   flags(1 byte) id(16 bytes) start(8 bytes) end(8 bytes) [talentId(16 bytes)]
+ * end:     0xFF
+ * </pre>
+ * The low bits of the flags are the ordinal of the shift status, the high bit is set when a talent follows.
+ * UUIDs are written as their most and then least significant bits, start and end as epoch milliseconds.
+ * A listing without the end byte was cut off. See {@link ShiftBinaryReader} for reading it back.
+ */
+public class ShiftBinaryWriter implements Closeable {
+    public static final String MEDIA_TYPE_VALUE = "application/x-zenjob-shifts";
+
+    static final byte[] MAGIC = {'Z', 'J', 'S'};
+    static final byte VERSION = 1;
+    static final int TALENT_FLAG = 0x80;
+    static final int STATUS_MASK = 0x7F;
+    static final byte END = (byte) 0xFF;
+
+    //Flags, id and talent, start and end
+    private static final int MAX_RECORD_BYTES = 1 + 2 * 2 * Long.BYTES + 2 * Long.BYTES;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[8192];
+    private int position;
+
+    /**
+     * Writes the header of the listing.
+     *
+     * @param out Receives the listing, it is not closed by this writer.
+     * @param jobId The ID of the job, written once for all shifts.
+     */
+    public ShiftBinaryWriter(OutputStream out, UUID jobId) throws IOException {
+        this.out = out;
+        System.arraycopy(MAGIC, 0, buffer, 0, MAGIC.length);
+        position = MAGIC.length;
+        buffer[position++] = VERSION;
+        putUUID(jobId);
+    }
+
+    /**
+     * @param shift A shift of the job of the listing.
+     */
+    public void write(ShiftDto shift) throws IOException {
+        if (buffer.length - position < MAX_RECORD_BYTES) {
+            flushBuffer();
+        }
+        UUID talentId = shift.getTalentId();
+        buffer[position++] = (byte) (shift.getStatus().ordinal() | (talentId == null ? 0 : TALENT_FLAG));
+        putUUID(shift.getId());
+        putLong(shift.getStart().toEpochMilli());
+        putLong(shift.getEnd().toEpochMilli());
+        if (talentId != null) {
+            putUUID(talentId);
+        }
+    }
+
+    /**
+     * Writes the end of the listing and flushes it to the output stream.
+     */
+    @Override
+    public void close() throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = END;
+        flushBuffer();
+        out.flush();
+    }
+
+    private void flushBuffer() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+
+    private void putUUID(UUID uuid) {
+        putLong(uuid.getMostSignificantBits());
+        putLong(uuid.getLeastSignificantBits());
+    }
+
+    private void putLong(long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (value >>> shift);
+        }
+    }
+}
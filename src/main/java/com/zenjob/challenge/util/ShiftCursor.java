@@ -0,0 +1,52 @@
+package com.zenjob.challenge.util;
+
+import com.zenjob.challenge.dto.ShiftDto;
+import com.zenjob.challenge.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset position in the shifts of a job, ordered by (start time, id).
+ * Encoded as url safe base64 of the start time seconds, nanos and the shift id.
+ */
+@Getter
+@AllArgsConstructor
+public class ShiftCursor {
+    private static final int ENCODED_BYTES = Long.BYTES + Integer.BYTES + 2 * Long.BYTES;
+
+    private final Instant startTime;
+    private final UUID id;
+
+    public static ShiftCursor of(ShiftDto shift) {
+        return new ShiftCursor(shift.getStart(), shift.getId());
+    }
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES)
+                .putLong(startTime.getEpochSecond())
+                .putInt(startTime.getNano())
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public static ShiftCursor decode(String cursor) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+            if (bytes.length != ENCODED_BYTES) {
+                throw new BadRequestException("Invalid cursor: " + cursor);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            Instant startTime = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+            return new ShiftCursor(startTime, new UUID(buffer.getLong(), buffer.getLong()));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
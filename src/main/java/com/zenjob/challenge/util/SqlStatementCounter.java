@@ -0,0 +1,64 @@
+package com.zenjob.challenge.util;
+
+import org.slf4j.MDC;
+
+/**
+ * Counts the SQL statements executed by the current thread, and the time spent executing them,
+ * between {@link #start()} and {@link #stop()}. Statements of other threads, such as scheduled tasks
+ * or the body of a streamed response, are not counted.
+ * <p>
+ * The running count is kept in the MDC under {@value #MDC_KEY}, so every log line of a request shows how many
+ * statements ran before it.
+ */
+public final class SqlStatementCounter {
+    public static final String MDC_KEY = "sqlStatements";
+
+    private static final ThreadLocal<SqlStatementCounter> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long nanos;
+
+    private SqlStatementCounter() {
+    }
+
+    /**
+     * Starts counting the statements of the current thread, replacing a counter that was not stopped.
+     *
+     * @return the counter, to be stopped in a finally block
+     */
+    public static SqlStatementCounter start() {
+        SqlStatementCounter counter = new SqlStatementCounter();
+        CURRENT.set(counter);
+        MDC.put(MDC_KEY, "0");
+        return counter;
+    }
+
+    /**
+     * Adds an executed statement to the counter of the current thread, if it has one.
+     *
+     * @param nanos Time the statement took to execute.
+     */
+    public static void record(long nanos) {
+        SqlStatementCounter counter = CURRENT.get();
+        if (counter != null) {
+            counter.statements++;
+            counter.nanos += nanos;
+            MDC.put(MDC_KEY, Integer.toString(counter.statements));
+        }
+    }
+
+    public void stop() {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+}
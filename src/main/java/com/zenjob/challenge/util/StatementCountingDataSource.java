@@ -0,0 +1,111 @@
+package com.zenjob.challenge.util;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Reports every statement executed on its connections to the {@link SqlStatementCounter}.
+ * Statements of Hibernate and of plain JDBC templates are counted alike. A JDBC batch is one statement,
+ * as it is sent to the database in one round trip.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, super.getConnection(username, password));
+    }
+
+    private static <T> T proxy(Class<T> type, T target) {
+        InvocationHandler handler = type == Connection.class ? new ConnectionHandler(target) : new StatementHandler(target);
+        return type.cast(Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private abstract static class DelegatingHandler implements InvocationHandler {
+        final Object target;
+
+        DelegatingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            //Proxies are used as map keys by Hibernate, so they are only equal to themselves
+            if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            return invoke(method, args);
+        }
+
+        abstract Object invoke(Method method, Object[] args) throws Throwable;
+
+        Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static final class ConnectionHandler extends DelegatingHandler {
+
+        ConnectionHandler(Object target) {
+            super(target);
+        }
+
+        @Override
+        Object invoke(Method method, Object[] args) throws Throwable {
+            Object result = invokeTarget(method, args);
+            //createStatement, prepareStatement and prepareCall return the matching statement interface
+            if (result != null && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return proxy(statementType(method), result);
+            }
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Class<Object> statementType(Method method) {
+            return (Class<Object>) method.getReturnType();
+        }
+    }
+
+    private static final class StatementHandler extends DelegatingHandler {
+
+        StatementHandler(Object target) {
+            super(target);
+        }
+
+        @Override
+        Object invoke(Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return invokeTarget(method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return invokeTarget(method, args);
+            } finally {
+                SqlStatementCounter.record(System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.zenjob.challenge.util;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version 7 style UUIDs: 48 bits of unix epoch milliseconds, then a 12 bit counter and 62 random bits.
+ * Ids sort by creation time, so inserts append to the right edge of the primary key index
+ * instead of landing on random pages.
+ * <p>
+ * Ids are strictly increasing across all threads using the same instance: the millisecond and counter
+ * are advanced together with a compare-and-set. When the counter of a millisecond is exhausted, the
+ * generator borrows the next millisecond instead of waiting, and the clock catches up.
+ */
+public class TimeOrderedIdGenerator implements IdGenerator {
+    public static final TimeOrderedIdGenerator INSTANCE = new TimeOrderedIdGenerator(Clock.systemUTC());
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    // New milliseconds start in the lower half of the counter, leaving room for ids within the same millisecond
+    private static final int COUNTER_START_BOUND = 1 << (COUNTER_BITS - 1);
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private final Clock clock;
+    // Last issued (millis << COUNTER_BITS) | counter
+    private final AtomicLong state = new AtomicLong();
+
+    public TimeOrderedIdGenerator(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public UUID generate() {
+        long next = state.updateAndGet(previous -> {
+            long millis = clock.millis();
+            if (millis > previous >>> COUNTER_BITS) {
+                return millis << COUNTER_BITS | ThreadLocalRandom.current().nextInt(COUNTER_START_BOUND);
+            }
+            return previous + 1;
+        });
+        long mostSigBits = (next >>> COUNTER_BITS) << 16 | VERSION | (next & COUNTER_MASK);
+        long leastSigBits = VARIANT | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Milliseconds since the epoch encoded in a time ordered id.
+     */
+    public static long timestampOf(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+}
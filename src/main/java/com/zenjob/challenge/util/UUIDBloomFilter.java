@@ -0,0 +1,120 @@
+package com.zenjob.challenge.util;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of UUIDs that can be added to and read from many threads without locks.
+ * A UUID that was added is always found, a UUID that was not added is found with about the false positive
+ * rate the filter was created for, as long as no more UUIDs than its capacity were added.
+ * <p>
+ * The bit positions are derived from two 64 bit hashes of the UUID (Kirsch-Mitzenmacher double hashing),
+ * so a lookup reads the UUID once and allocates nothing.
+ */
+public class UUIDBloomFilter {
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final long capacity;
+    private final AtomicLong added = new AtomicLong();
+
+    private UUIDBloomFilter(long bits, int hashes, long capacity) {
+        this.words = new AtomicLongArray(Math.toIntExact((bits + Long.SIZE - 1) / Long.SIZE));
+        this.bits = bits;
+        this.hashes = hashes;
+        this.capacity = capacity;
+    }
+
+    /**
+     * @param capacity Number of UUIDs the filter is sized for.
+     * @param falsePositiveRate Rate of UUIDs that were not added but are found, between 0 and 1 exclusive.
+     * @return an empty filter with the optimal number of bits and hashes for the capacity and rate
+     */
+    public static UUIDBloomFilter create(long capacity, double falsePositiveRate) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity of a bloom filter must be positive!");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate of a bloom filter must be between 0 and 1!");
+        }
+        long bits = Math.max(Long.SIZE, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2)));
+        int hashes = Math.max(1, (int) Math.round((double) bits / capacity * LN2));
+        return new UUIDBloomFilter(bits, hashes, capacity);
+    }
+
+    public void add(UUID id) {
+        long hash1 = hash1(id);
+        long hash2 = hash2(id, hash1);
+        for (int i = 0; i < hashes; i++) {
+            long bit = index(hash1, hash2, i);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            //Reads first, most bits of a known ID are set already
+            if ((words.get(word) & mask) == 0) {
+                words.getAndAccumulate(word, mask, (current, set) -> current | set);
+            }
+        }
+        added.incrementAndGet();
+    }
+
+    /**
+     * @return false if the UUID was never added, true if it may have been
+     */
+    public boolean mightContain(UUID id) {
+        long hash1 = hash1(id);
+        long hash2 = hash2(id, hash1);
+        for (int i = 0; i < hashes; i++) {
+            long bit = index(hash1, hash2, i);
+            if ((words.get((int) (bit >>> 6)) & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return number of additions, UUIDs added more than once are counted every time
+     */
+    public long getAdded() {
+        return added.get();
+    }
+
+    /**
+     * @return false positive rate expected for the number of additions so far
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashes * added.get() / bits), hashes);
+    }
+
+    private long index(long hash1, long hash2, int i) {
+        return ((hash1 + i * hash2) & Long.MAX_VALUE) % bits;
+    }
+
+    private static long hash1(UUID id) {
+        return mix(id.getMostSignificantBits() ^ mix(id.getLeastSignificantBits()));
+    }
+
+    //Odd, so the positions of one UUID never collapse onto the same bit
+    private static long hash2(UUID id, long hash1) {
+        return mix(hash1 ^ id.getLeastSignificantBits()) | 1;
+    }
+
+    /**
+     * Finalizer of MurmurHash3, spreads every input bit over all output bits.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
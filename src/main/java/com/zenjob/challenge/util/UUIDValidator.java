@@ -5,11 +5,61 @@ import com.zenjob.challenge.exception.BadRequestException;
 import java.util.UUID;
 
 public class UUIDValidator {
+    private static final int LENGTH = 36;
+
     public static UUID validateUUID(String uuidString){
-        try {
-            return UUID.fromString(uuidString);
-        }catch (IllegalArgumentException  e){
-            throw new BadRequestException(e.getMessage());
+        UUID uuid = parse(uuidString);
+        if (uuid == null) {
+            throw new BadRequestException("Invalid UUID string: " + uuidString);
+        }
+        return uuid;
+    }
+
+    /**
+     * Parses a UUID in its canonical form of 36 characters, e.g. {@code 123e4567-e89b-12d3-a456-426614174000},
+     * in upper or lower case. Unlike {@link UUID#fromString} it does not throw for invalid strings,
+     * and allocates nothing but the UUID.
+     *
+     * @param uuidString The string to parse, may be null.
+     * @return the UUID, or null if the string is not a canonical UUID
+     */
+    public static UUID parse(String uuidString) {
+        if (uuidString == null || uuidString.length() != LENGTH
+                || uuidString.charAt(8) != '-' || uuidString.charAt(13) != '-'
+                || uuidString.charAt(18) != '-' || uuidString.charAt(23) != '-') {
+            return null;
+        }
+        long timeLow = parseHex(uuidString, 0, 8);
+        long timeMid = parseHex(uuidString, 9, 13);
+        long timeHigh = parseHex(uuidString, 14, 18);
+        long clockSeq = parseHex(uuidString, 19, 23);
+        long node = parseHex(uuidString, 24, 36);
+        if ((timeLow | timeMid | timeHigh | clockSeq | node) < 0) {
+            return null;
+        }
+        return new UUID(timeLow << 32 | timeMid << 16 | timeHigh, clockSeq << 48 | node);
+    }
+
+    /**
+     * @return the value of the hex digits from start to end, exclusive, or -1 if one of them is not a hex digit
+     */
+    private static long parseHex(String s, int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            //Only ASCII digits, Character.digit also takes digits of other scripts
+            char c = s.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                digit = c - 'a' + 10;
+            } else if (c >= 'A' && c <= 'F') {
+                digit = c - 'A' + 10;
+            } else {
+                return -1;
+            }
+            value = value << 4 | digit;
         }
+        return value;
     }
 }
@@ -0,0 +1,8 @@
+-- Shifts of a job, optionally narrowed by status (findAllByJobId, countAllByJobIdAndStatusNot, bulk job cancel)
+CREATE INDEX idx_shift_job_id_status ON shift (job_id, status);
+
+-- Shifts of a talent, optionally narrowed by status (findAllByTalentId, cancel for talent)
+CREATE INDEX idx_shift_talent_id_status ON shift (talent_id, status);
+
+-- Jobs of a company by status
+CREATE INDEX idx_job_company_id_status ON job (company_id, status);
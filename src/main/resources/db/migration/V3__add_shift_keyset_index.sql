@@ -0,0 +1,3 @@
+-- Keyset pagination and streaming of the shifts of a job ordered by (start_time, id).
+-- Lets databases that support it read a page in index order; H2 still sorts the rows of the job.
+CREATE INDEX idx_shift_job_id_start_time_id ON shift (job_id, start_time, id);
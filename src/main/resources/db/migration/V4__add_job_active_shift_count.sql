@@ -0,0 +1,6 @@
+-- Number of shifts of a job that are not canceled (status 2), kept up to date by the services
+-- so the last shift rule does not have to count the shifts of the job on every cancel.
+ALTER TABLE job ADD COLUMN active_shift_count INTEGER DEFAULT 0 NOT NULL;
+
+UPDATE job j
+SET active_shift_count = (SELECT COUNT(*) FROM shift s WHERE s.job_id = j.id AND s.status <> 2);
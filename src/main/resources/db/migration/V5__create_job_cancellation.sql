@@ -0,0 +1,19 @@
+-- Asynchronous job cancellations and their progress. Running cancellations (status 0) are picked up
+-- again by the worker after a restart.
+CREATE TABLE job_cancellation
+(
+    id              BINARY(16) NOT NULL,
+    version         BIGINT     NOT NULL,
+    job_id          BINARY(16) NOT NULL,
+    status          INTEGER    NOT NULL,
+    total_shifts    INTEGER    NOT NULL,
+    canceled_shifts INTEGER    NOT NULL,
+    created_at      TIMESTAMP,
+    updated_at      TIMESTAMP,
+    CONSTRAINT pk_job_cancellation PRIMARY KEY (id),
+    CONSTRAINT fk_job_cancellation_job FOREIGN KEY (job_id) REFERENCES job (id)
+);
+
+-- Running cancellations to resume, and the running cancellation of a job
+CREATE INDEX idx_job_cancellation_status ON job_cancellation (status);
+CREATE INDEX idx_job_cancellation_job_id_status ON job_cancellation (job_id, status);
@@ -0,0 +1,11 @@
+-- Job and shift state changes, written in the transaction of the change and relayed to downstream
+-- systems in id order by the outbox relay, which deletes them once they are delivered.
+CREATE TABLE outbox_event
+(
+    id           BIGINT AUTO_INCREMENT NOT NULL,
+    type         VARCHAR(32)           NOT NULL,
+    aggregate_id BINARY(16)            NOT NULL,
+    payload      VARCHAR(4096)         NOT NULL,
+    created_at   TIMESTAMP             NOT NULL,
+    CONSTRAINT pk_outbox_event PRIMARY KEY (id)
+);
@@ -0,0 +1,13 @@
+-- Booked shifts of a talent by start time, for the overlap check at booking. Also serves every
+-- lookup of the shifts of a talent by status, which used idx_shift_talent_id_status.
+CREATE INDEX idx_shift_talent_id_status_start_time ON shift (talent_id, status, start_time);
+DROP INDEX idx_shift_talent_id_status;
+
+-- One row per talent that ever booked a shift. Bookings lock the row of their talent until they commit,
+-- so the overlap check and the booking of one talent never interleave.
+CREATE TABLE talent_lock
+(
+    talent_id BINARY(16) NOT NULL,
+    locked_at TIMESTAMP  NOT NULL,
+    CONSTRAINT pk_talent_lock PRIMARY KEY (talent_id)
+);
@@ -0,0 +1,8 @@
+-- Shifts in a status across all jobs in a time window, ordered by (start_time, id) for keyset pagination
+-- (open shift search)
+CREATE INDEX idx_shift_status_start_time_id ON shift (status, start_time, id);
+
+-- Jobs of a company by status that are not over yet, for the open shift search of one company.
+-- Also serves every lookup of the jobs of a company by status, which used idx_job_company_id_status.
+CREATE INDEX idx_job_company_id_status_end_time ON job (company_id, status, end_time);
+DROP INDEX idx_job_company_id_status;
@@ -0,0 +1,83 @@
+package com.zenjob.challenge.benchmark;
+
+import com.zenjob.challenge.dto.JobRequestDto;
+import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.Shift;
+import com.zenjob.challenge.repository.JobRepository;
+import com.zenjob.challenge.service.JobService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Compares the cascading {@code save} of a job with the batched insert path used by {@link JobService#create}.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+public class JobCreateBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 10;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 30, 365, 3650})
+    public void create(int days) {
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        LocalDate endDate = startDate.plusDays(days - 1);
+
+        double cascadeMillis = measure(() -> transactionTemplate.execute(status -> jobRepository.save(cascadingJob(startDate, endDate))));
+        double batchedMillis = measure(() -> jobService.create(new JobRequestDto(UUID.randomUUID(), startDate, endDate)));
+
+        System.out.printf("days=%5d cascade save: %9.3f ms/job, batched insert: %9.3f ms/job, speedup: %.2fx%n",
+                days, cascadeMillis, batchedMillis, cascadeMillis / batchedMillis);
+    }
+
+    private static double measure(Runnable runnable) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            runnable.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            runnable.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ITERATIONS;
+    }
+
+    private static Job cascadingJob(LocalDate startDate, LocalDate endDate) {
+        Job job = Job.builder()
+                .companyId(UUID.randomUUID())
+                .startTime(startDate.atTime(8, 0).toInstant(ZoneOffset.UTC))
+                .endTime(endDate.atTime(16, 0).toInstant(ZoneOffset.UTC))
+                .status(Job.Status.CREATED)
+                .build();
+        job.setShifts(LongStream.rangeClosed(0, endDate.toEpochDay() - startDate.toEpochDay())
+                .mapToObj(startDate::plusDays)
+                .map(date -> Shift.builder()
+                        .job(job)
+                        .startTime(date.atTime(8, 0).toInstant(ZoneOffset.UTC))
+                        .endTime(date.atTime(16, 0).toInstant(ZoneOffset.UTC))
+                        .status(Shift.Status.CREATED)
+                        .build())
+                .collect(Collectors.toList()));
+        return job;
+    }
+}
@@ -0,0 +1,163 @@
+package com.zenjob.challenge.benchmark;
+
+import com.zenjob.challenge.dto.ShiftsResponseDto;
+import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.Shift;
+import com.zenjob.challenge.repository.JobRepository;
+import com.zenjob.challenge.service.ShiftService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Measures latency percentiles of searching open shifts by time window over a large dataset:
+ * {@code benchmark.shifts} shifts (1,000,000 by default) of 30 day jobs spread over a year and 100 companies,
+ * with every third shift booked. The dataset is inserted with JDBC batches before measuring.
+ * Run with {@code ./gradlew benchmark}, the heap needs about 2 GB for the default dataset.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class OpenShiftSearchBenchmarkTest {
+
+    private static final int SHIFTS = Integer.getInteger("benchmark.shifts", 1_000_000);
+    private static final int DAYS_PER_JOB = 30;
+    private static final int DAYS = 365;
+    private static final int COMPANIES = 100;
+    private static final int INSERT_CHUNK_JOBS = 1_000;
+    private static final int PAGE_LIMIT = 100;
+
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 1_000;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private ShiftService shiftService;
+
+    private final Random random = new Random(42);
+    private final LocalDate firstDay = LocalDate.now().plusDays(1);
+
+    //Keeps results reachable so the measured work is not optimized away
+    private Object sink;
+
+    @Test
+    public void searchOpen() {
+        List<UUID> companies = insertDataset();
+
+        long[] allCompanies = measure(() -> {
+            Instant from = randomDay();
+            return shiftService.searchOpen(from, from.plus(Duration.ofDays(1)), null, null, PAGE_LIMIT);
+        });
+        long[] oneCompany = measure(() -> {
+            Instant from = randomDay();
+            return shiftService.searchOpen(from, from.plus(Duration.ofDays(7)),
+                    companies.get(random.nextInt(COMPANIES)), null, PAGE_LIMIT);
+        });
+        long[] tenthPage = measure(() -> {
+            Instant from = randomDay();
+            Instant to = from.plus(Duration.ofDays(1));
+            String after = null;
+            ShiftsResponseDto page = null;
+            for (int i = 0; i < 10 && (i == 0 || after != null); i++) {
+                page = shiftService.searchOpen(from, to, null, after, PAGE_LIMIT);
+                after = page.getNext();
+            }
+            return page;
+        });
+
+        print("1 day window, all companies, first page", allCompanies);
+        print("7 day window, one company,   first page", oneCompany);
+        print("1 day window, all companies, 10 pages  ", tenthPage);
+    }
+
+    /**
+     * @return the IDs of the companies owning the jobs
+     */
+    private List<UUID> insertDataset() {
+        List<UUID> companies = new ArrayList<>();
+        for (int i = 0; i < COMPANIES; i++) {
+            companies.add(UUID.randomUUID());
+        }
+
+        long start = System.nanoTime();
+        int jobs = SHIFTS / DAYS_PER_JOB;
+        List<Job> chunk = new ArrayList<>();
+        for (int i = 0; i < jobs; i++) {
+            chunk.add(job(companies.get(i % COMPANIES), firstDay.plusDays(random.nextInt(DAYS - DAYS_PER_JOB))));
+            if (chunk.size() == INSERT_CHUNK_JOBS || i == jobs - 1) {
+                jobRepository.insertAllWithShifts(chunk);
+                chunk.clear();
+            }
+        }
+        System.out.printf("Inserted %d shifts of %d jobs in %d s%n", jobs * DAYS_PER_JOB, jobs,
+                Duration.ofNanos(System.nanoTime() - start).getSeconds());
+        return companies;
+    }
+
+    private Job job(UUID companyId, LocalDate startDate) {
+        Job job = Job.builder()
+                .id(UUID.randomUUID())
+                .companyId(companyId)
+                .startTime(startDate.atTime(8, 0).toInstant(ZoneOffset.UTC))
+                .endTime(startDate.plusDays(DAYS_PER_JOB - 1).atTime(16, 0).toInstant(ZoneOffset.UTC))
+                .status(Job.Status.CREATED)
+                .build();
+        for (int day = 0; day < DAYS_PER_JOB; day++) {
+            LocalDate date = startDate.plusDays(day);
+            job.getShifts().add(Shift.builder()
+                    .id(UUID.randomUUID())
+                    .job(job)
+                    .talentId(day % 3 == 0 ? UUID.randomUUID() : null)
+                    .startTime(date.atTime(8, 0).toInstant(ZoneOffset.UTC))
+                    .endTime(date.atTime(16, 0).toInstant(ZoneOffset.UTC))
+                    .status(day % 3 == 0 ? Shift.Status.BOOKED : Shift.Status.CREATED)
+                    .build());
+        }
+        return job;
+    }
+
+    private Instant randomDay() {
+        return firstDay.plusDays(random.nextInt(DAYS)).atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+
+    /**
+     * @return the latency of every measured iteration in nanoseconds, sorted
+     */
+    private long[] measure(Supplier<?> operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink = operation.get();
+        }
+        long[] latencies = new long[MEASURED_ITERATIONS];
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            sink = operation.get();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static void print(String name, long[] latencies) {
+        System.out.printf("%s: p50 %6.2f ms, p99 %6.2f ms, max %6.2f ms%n", name,
+                millis(latencies, 0.50), millis(latencies, 0.99), latencies[latencies.length - 1] / 1_000_000.0);
+    }
+
+    private static double millis(long[] sortedLatencies, double percentile) {
+        return sortedLatencies[(int) Math.ceil(percentile * sortedLatencies.length) - 1] / 1_000_000.0;
+    }
+}
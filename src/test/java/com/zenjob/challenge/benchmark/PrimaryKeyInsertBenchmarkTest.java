@@ -0,0 +1,74 @@
+package com.zenjob.challenge.benchmark;
+
+import com.zenjob.challenge.util.IdGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Insert throughput into a shift-like table keyed by random or time ordered UUIDs.
+ * Throughput is reported per segment to show how it develops as the primary key index grows.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class PrimaryKeyInsertBenchmarkTest {
+
+    private static final int ROWS = 2_000_000;
+    private static final int SEGMENT_ROWS = 500_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    @ParameterizedTest
+    @ValueSource(strings = {IdGenerator.RANDOM, IdGenerator.TIME_ORDERED})
+    public void insert(String strategy) throws SQLException {
+        IdGenerator idGenerator = IdGenerator.forStrategy(strategy);
+
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:pk_benchmark_" + strategy.replace('-', '_'))) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE shift (id BINARY(16) NOT NULL, job_id BINARY(16) NOT NULL, " +
+                        "start_time TIMESTAMP, status INTEGER, CONSTRAINT pk_shift PRIMARY KEY (id))");
+            }
+            connection.setAutoCommit(false);
+
+            UUID jobId = idGenerator.generate();
+            Timestamp startTime = Timestamp.from(Instant.now());
+            long totalNanos = 0;
+            StringBuilder segments = new StringBuilder();
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO shift (id, job_id, start_time, status) VALUES (?, ?, ?, ?)")) {
+                for (int segment = 0; segment < ROWS / SEGMENT_ROWS; segment++) {
+                    long start = System.nanoTime();
+                    for (int row = 1; row <= SEGMENT_ROWS; row++) {
+                        insert.setObject(1, idGenerator.generate());
+                        insert.setObject(2, jobId);
+                        insert.setTimestamp(3, startTime);
+                        insert.setInt(4, 0);
+                        insert.addBatch();
+                        if (row % BATCH_SIZE == 0) {
+                            insert.executeBatch();
+                            connection.commit();
+                        }
+                    }
+                    long elapsed = System.nanoTime() - start;
+                    totalNanos += elapsed;
+                    segments.append(String.format(" %,9.0f", SEGMENT_ROWS / (elapsed / 1e9)));
+                }
+            }
+
+            System.out.printf("%-12s %,d rows: %,9.0f rows/s overall, per %,d rows:%s rows/s%n",
+                    strategy, ROWS, ROWS / (totalNanos / 1e9), SEGMENT_ROWS, segments);
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE shift");
+            }
+        }
+    }
+}
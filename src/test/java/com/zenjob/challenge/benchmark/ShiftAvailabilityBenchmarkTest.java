@@ -0,0 +1,107 @@
+package com.zenjob.challenge.benchmark;
+
+import com.zenjob.challenge.dto.JobRequestDto;
+import com.zenjob.challenge.dto.ShiftDto;
+import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.Shift;
+import com.zenjob.challenge.repository.ShiftRepository;
+import com.zenjob.challenge.service.JobService;
+import com.zenjob.challenge.service.ShiftAvailabilityIndex;
+import com.zenjob.challenge.service.ShiftService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Compares latency and heap allocation of answering availability questions with repository queries
+ * and with the {@link ShiftAvailabilityIndex}, for jobs with every third shift booked.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+public class ShiftAvailabilityBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 5_000;
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private ShiftService shiftService;
+
+    @Autowired
+    private ShiftRepository shiftRepository;
+
+    @Autowired
+    private ShiftAvailabilityIndex shiftAvailabilityIndex;
+
+    //Keeps results reachable so the measured work is not optimized away
+    private Object sink;
+
+    @ParameterizedTest
+    @ValueSource(ints = {30, 365})
+    public void openShifts(int days) {
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        Job job = jobService.create(new JobRequestDto(UUID.randomUUID(), startDate, startDate.plusDays(days - 1)));
+        for (int i = 0; i < days; i += 3) {
+            shiftService.book(job.getShifts().get(i).getId(), UUID.randomUUID());
+        }
+        UUID jobId = job.getId();
+
+        Result countQuery = measure(() -> shiftRepository.findAllDtoByJobId(jobId).stream()
+                .filter(shift -> shift.getStatus() == Shift.Status.CREATED)
+                .count());
+        Result countIndex = measure(() -> shiftAvailabilityIndex.countByStatus(jobId).getOpen());
+        Result daysQuery = measure(() -> shiftRepository.findAllDtoByJobId(jobId).stream()
+                .filter(shift -> shift.getStatus() == Shift.Status.CREATED)
+                .map(ShiftDto::getStart)
+                .map(start -> start.atZone(ZoneOffset.UTC).toLocalDate())
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList()));
+        Result daysIndex = measure(() -> shiftAvailabilityIndex.findOpenDays(jobId));
+
+        System.out.printf("shifts=%4d open count query: %8.2f us/op %8d B/op, index: %8.2f us/op %8d B/op%n",
+                days, countQuery.micros, countQuery.bytes, countIndex.micros, countIndex.bytes);
+        System.out.printf("shifts=%4d open days  query: %8.2f us/op %8d B/op, index: %8.2f us/op %8d B/op%n",
+                days, daysQuery.micros, daysQuery.bytes, daysIndex.micros, daysIndex.bytes);
+    }
+
+    private Result measure(Supplier<?> operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink = operation.get();
+        }
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink = operation.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Result(elapsed / 1_000.0 / MEASURED_ITERATIONS, allocated / MEASURED_ITERATIONS);
+    }
+
+    private static class Result {
+        private final double micros;
+        private final long bytes;
+
+        private Result(double micros, long bytes) {
+            this.micros = micros;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.zenjob.challenge.benchmark;
+
+import com.zenjob.challenge.dto.JobRequestDto;
+import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.Shift;
+import com.zenjob.challenge.exception.CannotBookShiftException;
+import com.zenjob.challenge.repository.ShiftRepository;
+import com.zenjob.challenge.service.ShiftService;
+import com.zenjob.challenge.service.JobService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lets many talents race for the same shift, round after round, and compares the former read, modify and
+ * save booking guarded by {@code @Version} with the conditional update used by {@link ShiftService#book}.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+public class ShiftBookingContentionBenchmarkTest {
+
+    private static final int THREADS = 128;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 100;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private ShiftService shiftService;
+
+    @Autowired
+    private ShiftRepository shiftRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void book() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            run("read-modify-save", executor, this::bookWithOptimisticLock);
+            run("conditional update", executor, shiftService::book);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void run(String name, ExecutorService executor, BiConsumer<UUID, UUID> booking) throws Exception {
+        List<UUID> shiftIds = createShifts(WARMUP_ROUNDS + MEASURED_ROUNDS);
+        Outcomes warmup = new Outcomes(WARMUP_ROUNDS);
+        Outcomes measured = new Outcomes(MEASURED_ROUNDS);
+
+        long start = 0;
+        for (int round = 0; round < shiftIds.size(); round++) {
+            if (round == WARMUP_ROUNDS) {
+                start = System.nanoTime();
+            }
+            race(executor, shiftIds.get(round), booking, round < WARMUP_ROUNDS ? warmup : measured);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long[] latencies = measured.sortedLatencies();
+        System.out.printf("%-18s %d threads x %d shifts: %,8.0f attempts/s, p50 %7.3f ms, p99 %7.3f ms, max %7.3f ms, " +
+                        "booked %d, already booked %d, lock failures %d%n",
+                name, THREADS, MEASURED_ROUNDS, latencies.length / seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6,
+                measured.booked.get(), measured.alreadyBooked.get(), measured.lockFailures.get());
+
+        assertThat(measured.booked).hasValue(MEASURED_ROUNDS);
+    }
+
+    private void race(ExecutorService executor, UUID shiftId, BiConsumer<UUID, UUID> booking, Outcomes outcomes) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        Future<?>[] attempts = new Future<?>[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            attempts[i] = executor.submit(() -> {
+                start.await();
+                long begin = System.nanoTime();
+                try {
+                    booking.accept(shiftId, UUID.randomUUID());
+                    outcomes.booked.incrementAndGet();
+                } catch (CannotBookShiftException e) {
+                    outcomes.alreadyBooked.incrementAndGet();
+                } catch (OptimisticLockingFailureException e) {
+                    outcomes.lockFailures.incrementAndGet();
+                }
+                outcomes.record(System.nanoTime() - begin);
+                return null;
+            });
+        }
+        start.countDown();
+        for (Future<?> attempt : attempts) {
+            attempt.get();
+        }
+    }
+
+    /**
+     * The booking as it was before the conditional update.
+     */
+    private void bookWithOptimisticLock(UUID shiftId, UUID talentId) {
+        transactionTemplate.execute(status -> {
+            Shift shift = shiftRepository.findById(shiftId).orElseThrow(IllegalStateException::new);
+            if (!shift.getStatus().equals(Shift.Status.CREATED)) {
+                throw new CannotBookShiftException(shiftId);
+            }
+            shift.setTalentId(talentId);
+            shift.setStatus(Shift.Status.BOOKED);
+            return shiftRepository.save(shift);
+        });
+    }
+
+    private List<UUID> createShifts(int count) {
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        Job job = jobService.create(new JobRequestDto(UUID.randomUUID(), startDate, startDate.plusDays(count - 1)));
+        return job.getShifts().stream().map(Shift::getId).collect(Collectors.toList());
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1e6;
+    }
+
+    private static class Outcomes {
+        private final long[] latencies;
+        private final AtomicInteger recorded = new AtomicInteger();
+        private final AtomicInteger booked = new AtomicInteger();
+        private final AtomicInteger alreadyBooked = new AtomicInteger();
+        private final AtomicInteger lockFailures = new AtomicInteger();
+
+        Outcomes(int rounds) {
+            latencies = new long[rounds * THREADS];
+        }
+
+        void record(long nanos) {
+            latencies[recorded.getAndIncrement()] = nanos;
+        }
+
+        long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, recorded.get());
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.zenjob.challenge.benchmark;
+
+import com.zenjob.challenge.dto.JobRequestDto;
+import com.zenjob.challenge.dto.ShiftDto;
+import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.repository.ShiftRepository;
+import com.zenjob.challenge.service.JobService;
+import com.zenjob.challenge.service.ShiftService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Compares latency and heap allocation of reading a job's shifts as managed entities mapped by hand
+ * with the dto projection used by {@link ShiftService#fetchByJobId}.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+public class ShiftFetchBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 500;
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private ShiftService shiftService;
+
+    @Autowired
+    private ShiftRepository shiftRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @ParameterizedTest
+    @ValueSource(ints = {30, 365})
+    public void fetchByJobId(int days) {
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        Job job = jobService.create(new JobRequestDto(UUID.randomUUID(), startDate, startDate.plusDays(days - 1)));
+
+        Result entities = measure(() -> transactionTemplate.execute(status -> shiftRepository.findAllByJobId(job.getId()).stream()
+                .map(shift -> ShiftDto.builder()
+                        .id(shift.getId())
+                        .talentId(shift.getTalentId())
+                        .jobId(shift.getJob().getId())
+                        .start(shift.getStartTime())
+                        .end(shift.getEndTime())
+                        .status(shift.getStatus())
+                        .build())
+                .collect(Collectors.toList())));
+        Result projection = measure(() -> shiftService.fetchByJobId(job.getId()));
+
+        System.out.printf("shifts=%4d entities: %8.1f us/op %10d B/op, projection: %8.1f us/op %10d B/op%n",
+                days, entities.micros, entities.bytes, projection.micros, projection.bytes);
+    }
+
+    private static Result measure(Runnable runnable) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            runnable.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            runnable.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Result(elapsed / 1_000.0 / MEASURED_ITERATIONS, allocated / MEASURED_ITERATIONS);
+    }
+
+    private static class Result {
+        private final double micros;
+        private final long bytes;
+
+        private Result(double micros, long bytes) {
+            this.micros = micros;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.zenjob.challenge.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zenjob.challenge.dto.JobImportResultDto;
 import com.zenjob.challenge.dto.JobRequestDto;
 import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.JobCancellation;
+import com.zenjob.challenge.exception.JobCancellationNotFoundException;
 import com.zenjob.challenge.exception.JobNotFoundException;
+import com.zenjob.challenge.service.JobCancellationService;
+import com.zenjob.challenge.service.JobCancellationWorker;
+import com.zenjob.challenge.service.JobImportService;
 import com.zenjob.challenge.service.JobService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,10 +20,12 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.util.Arrays;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -32,6 +40,15 @@ public class JobControllerTest {
     @MockBean
     private JobService jobService;
 
+    @MockBean
+    private JobImportService jobImportService;
+
+    @MockBean
+    private JobCancellationService jobCancellationService;
+
+    @MockBean
+    private JobCancellationWorker jobCancellationWorker;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -57,6 +74,22 @@ public class JobControllerTest {
                 .andExpect(jsonPath("$.data.status").value(job.getStatus().toString()));
     }
 
+    @Test
+    public void createAll_success() throws Exception {
+        UUID jobId = UUID.randomUUID();
+
+        when(jobImportService.importJobs(any())).thenReturn(Arrays.asList(
+                JobImportResultDto.builder().index(0).jobId(jobId).build(),
+                JobImportResultDto.builder().index(1).error("End date of a job cannot be before start date!").build()));
+
+        mockMvc.perform(post("/v1/job/bulk")
+                        .contentType("application/x-ndjson")
+                        .content("{}\n{}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.results[0].jobId").value(jobId.toString()))
+                .andExpect(jsonPath("$.data.results[1].error").value("End date of a job cannot be before start date!"));
+    }
+
     @Test
     public void create_sameStartEndDate() throws Exception {
         JobRequestDto jobRequestDto = new JobRequestDto(UUID.randomUUID(), LocalDate.now().plusDays(1), LocalDate.now().plusDays(1));
@@ -95,14 +128,19 @@ public class JobControllerTest {
 
         mockMvc.perform(put("/v1/job/cancel/{jobId}", jobId.toString())
                         .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isNotFound());
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.message").value("Job with Id " + jobId + " not found"));
     }
 
     @Test
     void cancel_invalidIdRequested() throws Exception {
         mockMvc.perform(get("/v1/job/invalid"))
                 .andDo(print())
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("Invalid UUID string: invalid"));
     }
 
     @Test
@@ -133,4 +171,35 @@ public class JobControllerTest {
         mockMvc.perform(get("/v1/job/{jobId}", jobId.toString()))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    public void cancelAsync_success() throws Exception {
+        JobCancellation cancellation = JobCancellation.builder()
+                .id(UUID.randomUUID())
+                .jobId(UUID.randomUUID())
+                .status(JobCancellation.Status.RUNNING)
+                .totalShifts(1000)
+                .build();
+
+        when(jobCancellationService.start(cancellation.getJobId())).thenReturn(cancellation);
+
+        mockMvc.perform(put("/v1/job/cancel/{jobId}", cancellation.getJobId().toString())
+                        .param("async", "true"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.data.operationId").value(cancellation.getId().toString()))
+                .andExpect(jsonPath("$.data.status").value("RUNNING"))
+                .andExpect(jsonPath("$.data.totalShifts").value(1000));
+
+        verify(jobCancellationWorker).submit(cancellation.getId());
+    }
+
+    @Test
+    public void fetchCancellation_notFound() throws Exception {
+        UUID operationId = UUID.randomUUID();
+
+        when(jobCancellationService.fetch(operationId)).thenThrow(new JobCancellationNotFoundException(operationId));
+
+        mockMvc.perform(get("/v1/job/cancellation/{operationId}", operationId.toString()))
+                .andExpect(status().isNotFound());
+    }
 }
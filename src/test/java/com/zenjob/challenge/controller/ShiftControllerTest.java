@@ -2,30 +2,62 @@ package com.zenjob.challenge.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zenjob.challenge.dto.BookTalentRequestDto;
+import com.zenjob.challenge.dto.BulkBookingRequestDto;
+import com.zenjob.challenge.dto.ShiftAvailabilityDto;
+import com.zenjob.challenge.dto.ShiftBookingDto;
+import com.zenjob.challenge.dto.ShiftBookingResultDto;
 import com.zenjob.challenge.dto.ShiftDto;
+import com.zenjob.challenge.dto.ShiftsResponseDto;
 import com.zenjob.challenge.entity.Shift;
+import com.zenjob.challenge.exception.BulkBookingRejectedException;
 import com.zenjob.challenge.exception.JobNotFoundException;
+import com.zenjob.challenge.exception.OverlappingShiftException;
 import com.zenjob.challenge.exception.ShiftNotFoundException;
 import com.zenjob.challenge.exception.ShiftsForTalentNotFoundException;
+import com.zenjob.challenge.service.ShiftAvailabilityIndex;
 import com.zenjob.challenge.service.ShiftService;
+import com.zenjob.challenge.service.ShiftsResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.zenjob.challenge.util.ShiftBinaryReader;
+import com.zenjob.challenge.util.ShiftBinaryWriter;
+import com.zenjob.challenge.util.ShiftCursor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.util.unit.DataSize;
 
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ShiftController.class)
@@ -36,9 +68,20 @@ public class ShiftControllerTest {
     @MockBean
     private ShiftService shiftService;
 
+    @MockBean
+    private ShiftAvailabilityIndex shiftAvailabilityIndex;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @TestConfiguration
+    static class CacheConfig {
+        @Bean
+        public ShiftsResponseCache shiftsResponseCache() {
+            return new ShiftsResponseCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+        }
+    }
+
     @Test
     public void fetchByJobId_success() throws Exception {
         UUID jobId = UUID.randomUUID();
@@ -71,6 +114,199 @@ public class ShiftControllerTest {
                 .andExpect(jsonPath("$.data.shifts[0].status").value(shifts.get(0).getStatus().toString()));
     }
 
+    @Test
+    public void fetchByJobId_cached() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        ShiftDto shift = ShiftDto.builder()
+                .id(UUID.randomUUID())
+                .jobId(jobId)
+                .start(LocalDate.now().plusDays(1).atTime(8, 0).toInstant(ZoneOffset.UTC))
+                .end(LocalDate.now().plusDays(1).atTime(16, 0).toInstant(ZoneOffset.UTC))
+                .status(Shift.Status.CREATED)
+                .build();
+
+        when(shiftService.fetchByJobId(jobId)).thenReturn(Collections.singletonList(shift));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/v1/shift/{jobId}", jobId.toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.data.shifts[0].id").value(shift.getId().toString()))
+                    .andExpect(jsonPath("$.data.next").doesNotExist());
+        }
+
+        verify(shiftService, times(1)).fetchByJobId(jobId);
+    }
+
+    @Test
+    public void fetchByJobId_page() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        ShiftDto shift = ShiftDto.builder()
+                .id(UUID.randomUUID())
+                .jobId(jobId)
+                .start(LocalDate.now().plusDays(1).atTime(8, 0).toInstant(ZoneOffset.UTC))
+                .end(LocalDate.now().plusDays(1).atTime(16, 0).toInstant(ZoneOffset.UTC))
+                .status(Shift.Status.CREATED)
+                .build();
+        String next = ShiftCursor.of(shift).encode();
+
+        when(shiftService.fetchPageByJobId(jobId, null, 1)).thenReturn(ShiftsResponseDto.builder()
+                .shifts(Collections.singletonList(shift))
+                .next(next)
+                .build());
+
+        mockMvc.perform(get("/v1/shift/{jobId}", jobId.toString())
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.shifts[0].id").value(shift.getId().toString()))
+                .andExpect(jsonPath("$.data.next").value(next));
+    }
+
+    @Test
+    public void fetchByJobId_lastPageHasNoCursor() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        String after = new ShiftCursor(Instant.now(), UUID.randomUUID()).encode();
+
+        when(shiftService.fetchPageByJobId(jobId, after, 100)).thenReturn(ShiftsResponseDto.builder()
+                .shifts(Collections.emptyList())
+                .build());
+
+        mockMvc.perform(get("/v1/shift/{jobId}", jobId.toString())
+                        .param("after", after))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.shifts").isEmpty())
+                .andExpect(jsonPath("$.data.next").doesNotExist());
+    }
+
+    @Test
+    public void fetchByJobId_invalidLimit() throws Exception {
+        mockMvc.perform(get("/v1/shift/{jobId}", UUID.randomUUID().toString())
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void searchOpen_page() throws Exception {
+        UUID companyId = UUID.randomUUID();
+        Instant from = LocalDate.now().plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+        Instant to = from.plus(Duration.ofDays(1));
+        ShiftDto shift = ShiftDto.builder()
+                .id(UUID.randomUUID())
+                .jobId(UUID.randomUUID())
+                .start(from.plus(Duration.ofHours(8)))
+                .end(from.plus(Duration.ofHours(16)))
+                .status(Shift.Status.CREATED)
+                .build();
+        String next = ShiftCursor.of(shift).encode();
+
+        when(shiftService.searchOpen(from, to, companyId, null, 1)).thenReturn(ShiftsResponseDto.builder()
+                .shifts(Collections.singletonList(shift))
+                .next(next)
+                .build());
+
+        mockMvc.perform(get("/v1/shift/open")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .param("companyId", companyId.toString())
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.shifts[0].id").value(shift.getId().toString()))
+                .andExpect(jsonPath("$.data.next").value(next));
+    }
+
+    @Test
+    public void searchOpen_allCompaniesWithDefaultLimit() throws Exception {
+        Instant from = Instant.parse("2030-01-01T00:00:00Z");
+        Instant to = Instant.parse("2030-01-02T00:00:00Z");
+        when(shiftService.searchOpen(from, to, null, null, 100)).thenReturn(ShiftsResponseDto.builder()
+                .shifts(Collections.emptyList())
+                .build());
+
+        mockMvc.perform(get("/v1/shift/open")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.shifts").isEmpty());
+    }
+
+    @Test
+    public void searchOpen_invalidRequest() throws Exception {
+        mockMvc.perform(get("/v1/shift/open")
+                        .param("from", "2030-01-01T00:00:00Z"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/shift/open")
+                        .param("from", "2030-01-01T00:00:00Z")
+                        .param("to", "2030-01-02T00:00:00Z")
+                        .param("companyId", "not-a-uuid"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void streamByJobId_success() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        List<ShiftDto> shifts = Arrays.asList(
+                ShiftDto.builder().id(UUID.randomUUID()).jobId(jobId).status(Shift.Status.CREATED).build(),
+                ShiftDto.builder().id(UUID.randomUUID()).jobId(jobId).status(Shift.Status.BOOKED).build());
+
+        doAnswer(invocation -> {
+            Consumer<ShiftDto> consumer = invocation.getArgument(1);
+            shifts.forEach(consumer);
+            return null;
+        }).when(shiftService).streamByJobId(eq(jobId), any());
+
+        MvcResult result = mockMvc.perform(get("/v1/shift/{jobId}", jobId.toString())
+                        .accept(ShiftController.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ShiftController.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[0], Map.class).get("id")).isEqualTo(shifts.get(0).getId().toString());
+        assertThat(objectMapper.readValue(lines[1], Map.class).get("status")).isEqualTo("BOOKED");
+    }
+
+    @Test
+    public void streamBinaryByJobId_success() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        Instant start = Instant.parse("2030-01-01T08:00:00Z");
+        List<ShiftDto> shifts = Arrays.asList(
+                new ShiftDto(UUID.randomUUID(), null, jobId, start, start.plusSeconds(28800), Shift.Status.CREATED),
+                new ShiftDto(UUID.randomUUID(), UUID.randomUUID(), jobId, start, start.plusSeconds(28800), Shift.Status.BOOKED));
+
+        doAnswer(invocation -> {
+            Consumer<ShiftDto> consumer = invocation.getArgument(1);
+            shifts.forEach(consumer);
+            return null;
+        }).when(shiftService).streamByJobId(eq(jobId), any());
+
+        MvcResult result = mockMvc.perform(get("/v1/shift/{jobId}", jobId.toString())
+                        .accept(ShiftBinaryWriter.MEDIA_TYPE_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ShiftBinaryWriter.MEDIA_TYPE_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(ShiftBinaryReader.read(new ByteArrayInputStream(body))).isEqualTo(shifts);
+    }
+
+    @Test
+    public void streamByJobId_notFound() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        doThrow(new JobNotFoundException(jobId)).when(shiftService).checkJobHasShifts(jobId);
+
+        mockMvc.perform(get("/v1/shift/{jobId}", jobId.toString())
+                        .accept(ShiftController.APPLICATION_NDJSON_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     public void fetchByJobId_notFound() throws Exception {
         UUID jobId = UUID.randomUUID();
@@ -104,6 +340,63 @@ public class ShiftControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void book_overlapping() throws Exception {
+        UUID shiftId = UUID.randomUUID();
+        BookTalentRequestDto bookTalentRequestDto = new BookTalentRequestDto(UUID.randomUUID());
+
+        doThrow(new OverlappingShiftException(shiftId, bookTalentRequestDto.getTalent()))
+                .when(shiftService).book(shiftId, bookTalentRequestDto.getTalent());
+
+        mockMvc.perform(put("/v1/shift/book/{shiftId}", shiftId.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookTalentRequestDto)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void bookAll_success() throws Exception {
+        ShiftBookingDto booking = new ShiftBookingDto(UUID.randomUUID(), UUID.randomUUID());
+        BulkBookingRequestDto request = BulkBookingRequestDto.builder()
+                .bookings(Collections.singletonList(booking))
+                .build();
+
+        when(shiftService.bookAll(request.getBookings(), BulkBookingRequestDto.Mode.BEST_EFFORT))
+                .thenReturn(Collections.singletonList(result(booking, ShiftBookingResultDto.Outcome.BOOKED)));
+
+        mockMvc.perform(put("/v1/shift/book")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.results[0].shift").value(booking.getShift().toString()))
+                .andExpect(jsonPath("$.data.results[0].outcome").value("BOOKED"));
+    }
+
+    @Test
+    public void bookAll_allOrNothingRejected() throws Exception {
+        ShiftBookingDto booking = new ShiftBookingDto(UUID.randomUUID(), UUID.randomUUID());
+        BulkBookingRequestDto request = new BulkBookingRequestDto(Collections.singletonList(booking),
+                BulkBookingRequestDto.Mode.ALL_OR_NOTHING);
+
+        when(shiftService.bookAll(request.getBookings(), BulkBookingRequestDto.Mode.ALL_OR_NOTHING))
+                .thenThrow(new BulkBookingRejectedException(Collections.singletonList(
+                        result(booking, ShiftBookingResultDto.Outcome.NOT_FOUND))));
+
+        mockMvc.perform(put("/v1/shift/book")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.data.results[0].outcome").value("NOT_FOUND"));
+    }
+
+    @Test
+    public void bookAll_emptyRequest() throws Exception {
+        mockMvc.perform(put("/v1/shift/book")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bookings\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void cancelForTalent_success() throws Exception {
         UUID talentId = UUID.randomUUID();
@@ -150,5 +443,42 @@ public class ShiftControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void countByStatus_success() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        when(shiftAvailabilityIndex.countByStatus(jobId)).thenReturn(ShiftAvailabilityDto.builder()
+                .jobId(jobId).open(2).booked(1).canceled(3).build());
+
+        mockMvc.perform(get("/v1/shift/{jobId}/availability", jobId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.jobId").value(jobId.toString()))
+                .andExpect(jsonPath("$.data.open").value(2))
+                .andExpect(jsonPath("$.data.booked").value(1))
+                .andExpect(jsonPath("$.data.canceled").value(3));
+    }
+
+    @Test
+    public void fetchOpenDays_success() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        LocalDate day = LocalDate.of(2030, 1, 2);
+        when(shiftAvailabilityIndex.findOpenDays(jobId)).thenReturn(Arrays.asList(day, day.plusDays(2)));
+
+        mockMvc.perform(get("/v1/shift/{jobId}/open-days", jobId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.days[0]").value("2030-01-02"))
+                .andExpect(jsonPath("$.data.days[1]").value("2030-01-04"));
+    }
 
+    @Test
+    public void fetchOpenDays_jobNotFound() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        when(shiftAvailabilityIndex.findOpenDays(jobId)).thenThrow(new JobNotFoundException(jobId));
+
+        mockMvc.perform(get("/v1/shift/{jobId}/open-days", jobId.toString()))
+                .andExpect(status().isNotFound());
+    }
+
+    private static ShiftBookingResultDto result(ShiftBookingDto booking, ShiftBookingResultDto.Outcome outcome) {
+        return new ShiftBookingResultDto(booking.getShift(), booking.getTalent(), outcome);
+    }
 }
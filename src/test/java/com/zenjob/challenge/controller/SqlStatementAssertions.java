@@ -0,0 +1,72 @@
+package com.zenjob.challenge.controller;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fails controller calls that run more SQL statements than allowed, so N+1 query regressions fail the build.
+ * Statements are read from the {@code zenjob.http.sql.statements} summaries recorded for every request,
+ * so the filter chain must be applied to the calls, e.g. with {@code @AutoConfigureMockMvc}.
+ */
+public class SqlStatementAssertions {
+    private static final String STATEMENTS = "zenjob.http.sql.statements";
+
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatementAssertions(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param max Maximum number of statements the call may run.
+     * @param call Performs exactly one request.
+     * @return the result of the call
+     */
+    public ResultActions assertStatementsAtMost(int max, Callable<ResultActions> call) throws Exception {
+        Map<Meter.Id, Snapshot> before = snapshot();
+        ResultActions result = call.call();
+
+        long requests = 0;
+        long statements = 0;
+        String endpoints = "";
+        for (Map.Entry<Meter.Id, Snapshot> after : snapshot().entrySet()) {
+            Snapshot previous = before.getOrDefault(after.getKey(), new Snapshot(0, 0));
+            long count = after.getValue().count - previous.count;
+            if (count > 0) {
+                requests += count;
+                statements += Math.round(after.getValue().total - previous.total);
+                endpoints += after.getKey().getTag("method") + " " + after.getKey().getTag("uri") + " ";
+            }
+        }
+
+        assertThat(requests).as("Requests performed by the call").isEqualTo(1);
+        assertThat(statements).as("SQL statements of %s", endpoints.trim()).isLessThanOrEqualTo(max);
+        return result;
+    }
+
+    private Map<Meter.Id, Snapshot> snapshot() {
+        Map<Meter.Id, Snapshot> snapshot = new HashMap<>();
+        for (DistributionSummary summary : meterRegistry.find(STATEMENTS).summaries()) {
+            snapshot.put(summary.getId(), new Snapshot(summary.count(), summary.totalAmount()));
+        }
+        return snapshot;
+    }
+
+    private static final class Snapshot {
+        private final long count;
+        private final double total;
+
+        private Snapshot(long count, double total) {
+            this.count = count;
+            this.total = total;
+        }
+    }
+}
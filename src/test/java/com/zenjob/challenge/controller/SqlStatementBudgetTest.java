@@ -0,0 +1,120 @@
+package com.zenjob.challenge.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import com.zenjob.challenge.dto.BookTalentRequestDto;
+import com.zenjob.challenge.dto.BulkBookingRequestDto;
+import com.zenjob.challenge.dto.JobRequestDto;
+import com.zenjob.challenge.dto.ShiftBookingDto;
+import com.zenjob.challenge.dto.ShiftDto;
+import com.zenjob.challenge.repository.ShiftRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs every endpoint against the database for jobs of few and of many shifts, with the same upper bound
+ * on SQL statements, so a statement per shift fails the build.
+ */
+@Tag("integration-test")
+@SpringBootTest
+@AutoConfigureMockMvc
+public class SqlStatementBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ShiftRepository shiftRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 60})
+    public void jobEndpoints(int days) throws Exception {
+        SqlStatementAssertions sql = new SqlStatementAssertions(meterRegistry);
+        UUID jobId = createJob(sql, days);
+
+        sql.assertStatementsAtMost(1, () -> mockMvc.perform(get("/v1/job/{jobId}", jobId))
+                .andExpect(status().isOk()));
+        sql.assertStatementsAtMost(5, () -> mockMvc.perform(put("/v1/job/cancel/{jobId}", jobId))
+                .andExpect(status().isAccepted()));
+        //Unknown IDs are rejected by the known ID filter
+        sql.assertStatementsAtMost(0, () -> mockMvc.perform(get("/v1/job/{jobId}", UUID.randomUUID()))
+                .andExpect(status().isNotFound()));
+        sql.assertStatementsAtMost(0, () -> mockMvc.perform(put("/v1/shift/book/{shiftId}", UUID.randomUUID())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BookTalentRequestDto(UUID.randomUUID()))))
+                .andExpect(status().isNotFound()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 60})
+    public void shiftEndpoints(int days) throws Exception {
+        SqlStatementAssertions sql = new SqlStatementAssertions(meterRegistry);
+        UUID jobId = createJob(sql, days);
+        List<UUID> shiftIds = shiftRepository.findAllDtoByJobId(jobId).stream()
+                .map(ShiftDto::getId)
+                .collect(Collectors.toList());
+        UUID talentId = UUID.randomUUID();
+        String from = LocalDate.now().plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC).toString();
+        String to = LocalDate.now().plusDays(days + 1).atStartOfDay().toInstant(ZoneOffset.UTC).toString();
+
+        sql.assertStatementsAtMost(1, () -> mockMvc.perform(get("/v1/shift/{jobId}", jobId))
+                .andExpect(status().isOk()));
+        sql.assertStatementsAtMost(1, () -> mockMvc.perform(get("/v1/shift/{jobId}", jobId).param("limit", "10"))
+                .andExpect(status().isOk()));
+        sql.assertStatementsAtMost(1, () -> mockMvc.perform(get("/v1/shift/open").param("from", from).param("to", to))
+                .andExpect(status().isOk()));
+        //The first booking of the talent creates its lock row and selects it again
+        sql.assertStatementsAtMost(8, () -> mockMvc.perform(put("/v1/shift/book/{shiftId}", shiftIds.get(0))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BookTalentRequestDto(talentId))))
+                .andExpect(status().isAccepted()));
+
+        //Books the remaining shifts, the overlap with booked shifts of the talent is checked per booking
+        List<ShiftBookingDto> bookings = shiftIds.subList(1, shiftIds.size()).stream()
+                .map(shiftId -> new ShiftBookingDto(shiftId, talentId))
+                .collect(Collectors.toList());
+        sql.assertStatementsAtMost(5 + bookings.size(), () -> mockMvc.perform(put("/v1/shift/book")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(BulkBookingRequestDto.builder().bookings(bookings).build())))
+                .andExpect(status().isOk()));
+
+        sql.assertStatementsAtMost(4, () -> mockMvc.perform(put("/v1/shift/cancel/{shiftId}", shiftIds.get(0)))
+                .andExpect(status().isAccepted()));
+        sql.assertStatementsAtMost(4, () -> mockMvc.perform(put("/v1/shift/talent/{talentId}", talentId))
+                .andExpect(status().isAccepted()));
+    }
+
+    private UUID createJob(SqlStatementAssertions sql, int days) throws Exception {
+        JobRequestDto request = new JobRequestDto(UUID.randomUUID(), LocalDate.now().plusDays(1), LocalDate.now().plusDays(days));
+        String response = sql.assertStatementsAtMost(3, () -> mockMvc.perform(post("/v1/job")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated()))
+                .andReturn().getResponse().getContentAsString();
+        return UUID.fromString(JsonPath.read(response, "$.data.jobId"));
+    }
+}
@@ -0,0 +1,32 @@
+package com.zenjob.challenge.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zenjob.challenge.dto.ErrorResponseDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ErrorResponsesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void json_sameAsObjectMapper() throws Exception {
+        for (String message : Arrays.asList(
+                "Job with Id 123e4567-e89b-12d3-a456-426614174000 not found",
+                "Invalid UUID string: \"quoted\" \\ back\\slash",
+                "Control \n\t\u0001 characters",
+                "Unicode äöü € 😀",
+                "",
+                null)) {
+            for (HttpStatus status : Arrays.asList(HttpStatus.BAD_REQUEST, HttpStatus.NOT_FOUND, HttpStatus.CONFLICT)) {
+                assertThat(new String(ErrorResponses.json(status, message), StandardCharsets.UTF_8))
+                        .isEqualTo(objectMapper.writeValueAsString(new ErrorResponseDto(status.value(), message)));
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.zenjob.challenge.repository;
+
+import com.zenjob.challenge.config.ClockConfig;
+import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.Shift;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(ClockConfig.class)
+public class JobRepositoryTest {
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private ShiftRepository shiftRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void insertWithShifts_success() {
+        Job job = buildJob(5);
+
+        jobRepository.insertWithShifts(job);
+
+        Job insertedJob = jobRepository.findById(job.getId()).orElseThrow(IllegalStateException::new);
+        assertThat(insertedJob.getCompanyId()).isEqualTo(job.getCompanyId());
+        assertThat(insertedJob.getStatus()).isEqualTo(Job.Status.CREATED);
+        assertThat(insertedJob.getCreatedAt()).isNotNull();
+        assertThat(activeShiftCount(job)).isEqualTo(5);
+
+        List<Shift> shifts = shiftRepository.findAllByJobId(job.getId());
+        assertThat(shifts).hasSize(5);
+        assertThat(shifts).extracting(Shift::getId)
+                .containsExactlyInAnyOrderElementsOf(job.getShifts().stream().map(Shift::getId).collect(Collectors.toList()));
+        assertThat(shifts).allSatisfy(shift -> {
+            assertThat(shift.getStatus()).isEqualTo(Shift.Status.CREATED);
+            assertThat(shift.getTalentId()).isNull();
+            assertThat(shift.getUpdatedAt()).isNotNull();
+        });
+    }
+
+    @Test
+    public void insertWithShifts_moreShiftsThanBatchSize() {
+        Job job = buildJob(250);
+
+        jobRepository.insertWithShifts(job);
+
+        assertThat(shiftRepository.findAllByJobId(job.getId())).hasSize(250);
+    }
+
+    @Test
+    public void insertAllWithShifts_success() {
+        List<Job> jobs = Arrays.asList(buildJob(2), buildJob(3), buildJob(1));
+
+        jobRepository.insertAllWithShifts(jobs);
+
+        assertThat(jobs).allSatisfy(job -> {
+            assertThat(jobRepository.existsById(job.getId())).isTrue();
+            assertThat(shiftRepository.findAllByJobId(job.getId())).hasSameSizeAs(job.getShifts());
+            assertThat(activeShiftCount(job)).isEqualTo(job.getShifts().size());
+        });
+    }
+
+    @Test
+    public void decrementActiveShiftCountUnlessLast_keepsLastShift() {
+        Job job = jobRepository.insertWithShifts(buildJob(2));
+
+        assertThat(jobRepository.decrementActiveShiftCountUnlessLast(job.getId())).isEqualTo(1);
+        assertThat(jobRepository.decrementActiveShiftCountUnlessLast(job.getId())).isEqualTo(0);
+
+        assertThat(activeShiftCount(job)).isEqualTo(1);
+    }
+
+    @Test
+    public void addToActiveShiftCount_success() {
+        Job job = jobRepository.insertWithShifts(buildJob(3));
+
+        assertThat(jobRepository.addToActiveShiftCount(job.getId(), -3)).isEqualTo(1);
+
+        assertThat(activeShiftCount(job)).isEqualTo(0);
+    }
+
+    @Test
+    public void reconcileActiveShiftCount_repairsDriftedCounters() {
+        Job drifted = jobRepository.insertWithShifts(buildJob(3));
+        Job correct = jobRepository.insertWithShifts(buildJob(2));
+        jobRepository.addToActiveShiftCount(drifted.getId(), 5);
+        shiftRepository.updateStatusByIdIn(Collections.singletonList(correct.getShifts().get(0).getId()),
+                Shift.Status.CANCELED, Instant.now());
+        jobRepository.addToActiveShiftCount(correct.getId(), -1);
+
+        int repaired = jobRepository.reconcileActiveShiftCount(Arrays.asList(drifted.getId(), correct.getId()));
+
+        assertThat(repaired).isEqualTo(1);
+        assertThat(activeShiftCount(drifted)).isEqualTo(3);
+        assertThat(activeShiftCount(correct)).isEqualTo(1);
+    }
+
+    @Test
+    public void findIdPageAfter_walksAllJobs() {
+        List<UUID> jobIds = IntStream.range(0, 5)
+                .mapToObj(idx -> jobRepository.insertWithShifts(buildJob(1)).getId())
+                .collect(Collectors.toList());
+
+        PageRequest page = PageRequest.of(0, 2);
+        List<UUID> walked = new ArrayList<>(jobRepository.findIdPage(page));
+        while (walked.size() < jobIds.size()) {
+            List<UUID> next = jobRepository.findIdPageAfter(walked.get(walked.size() - 1), page);
+            assertThat(next).isNotEmpty();
+            walked.addAll(next);
+        }
+
+        assertThat(walked).containsExactlyInAnyOrderElementsOf(jobIds);
+    }
+
+    private int activeShiftCount(Job job) {
+        return jdbcTemplate.queryForObject("SELECT active_shift_count FROM job WHERE id = ?", Integer.class, job.getId());
+    }
+
+    private Job buildJob(int days) {
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        Job job = Job.builder()
+                .id(UUID.randomUUID())
+                .companyId(UUID.randomUUID())
+                .startTime(startDate.atTime(8, 0).toInstant(ZoneOffset.UTC))
+                .endTime(startDate.plusDays(days - 1).atTime(16, 0).toInstant(ZoneOffset.UTC))
+                .status(Job.Status.CREATED)
+                .build();
+        job.setShifts(IntStream.range(0, days)
+                .mapToObj(idx -> Shift.builder()
+                        .id(UUID.randomUUID())
+                        .job(job)
+                        .startTime(startDate.plusDays(idx).atTime(8, 0).toInstant(ZoneOffset.UTC))
+                        .endTime(startDate.plusDays(idx).atTime(16, 0).toInstant(ZoneOffset.UTC))
+                        .status(Shift.Status.CREATED)
+                        .build())
+                .collect(Collectors.toList()));
+        return job;
+    }
+}
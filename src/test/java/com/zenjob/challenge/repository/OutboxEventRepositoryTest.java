@@ -0,0 +1,69 @@
+package com.zenjob.challenge.repository;
+
+import com.zenjob.challenge.config.ClockConfig;
+import com.zenjob.challenge.entity.OutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(ClockConfig.class)
+public class OutboxEventRepositoryTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    public void appendAll_findBatchReturnsEventsInInsertOrder() {
+        List<OutboxEvent> events = Arrays.asList(event(OutboxEvent.Type.JOB_CREATED),
+                event(OutboxEvent.Type.SHIFT_BOOKED),
+                event(OutboxEvent.Type.SHIFT_CANCELED));
+
+        outboxEventRepository.appendAll(events);
+
+        List<OutboxEvent> batch = outboxEventRepository.findBatch(PageRequest.of(0, 2));
+        assertThat(batch).extracting(OutboxEvent::getAggregateId)
+                .containsExactly(events.get(0).getAggregateId(), events.get(1).getAggregateId());
+        assertThat(batch.get(0).getId()).isLessThan(batch.get(1).getId());
+        assertThat(batch.get(1).getType()).isEqualTo(OutboxEvent.Type.SHIFT_BOOKED);
+        assertThat(batch.get(1).getPayload()).isEqualTo(events.get(1).getPayload());
+        assertThat(batch.get(1).getCreatedAt()).isEqualTo(events.get(1).getCreatedAt());
+    }
+
+    @Test
+    public void deleteByIdIn_deletesOnlyGivenEvents() {
+        outboxEventRepository.appendAll(Arrays.asList(event(OutboxEvent.Type.JOB_CREATED),
+                event(OutboxEvent.Type.JOB_CANCELED),
+                event(OutboxEvent.Type.SHIFT_BOOKED)));
+        List<OutboxEvent> events = outboxEventRepository.findBatch(PageRequest.of(0, 10));
+
+        int deleted = outboxEventRepository.deleteByIdIn(Arrays.asList(events.get(0).getId(), events.get(2).getId()));
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(outboxEventRepository.findBatch(PageRequest.of(0, 10)).stream()
+                .map(OutboxEvent::getId)
+                .collect(Collectors.toList()))
+                .containsExactly(events.get(1).getId());
+    }
+
+    private static OutboxEvent event(OutboxEvent.Type type) {
+        UUID aggregateId = UUID.randomUUID();
+        return OutboxEvent.builder()
+                .type(type)
+                .aggregateId(aggregateId)
+                .payload("{\"id\":\"" + aggregateId + "\"}")
+                .createdAt(Instant.now().truncatedTo(ChronoUnit.MILLIS))
+                .build();
+    }
+}
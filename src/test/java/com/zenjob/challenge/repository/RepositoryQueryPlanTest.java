@@ -0,0 +1,296 @@
+package com.zenjob.challenge.repository;
+
+import com.zenjob.challenge.config.ClockConfig;
+import com.zenjob.challenge.dto.ShiftDto;
+import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.JobCancellation;
+import com.zenjob.challenge.entity.Shift;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs H2 EXPLAIN on the SQL generated for every repository query and fails if a query stops using an index.
+ * New repository queries should get a test here.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.zenjob.challenge.repository.SqlCapturingStatementInspector")
+@Import(ClockConfig.class)
+public class RepositoryQueryPlanTest {
+
+    private static final String ID = "ID";
+    private static final String JOB_ID = "JOB_ID";
+    private static final String TALENT_ID = "TALENT_ID";
+    private static final String STATUS = "STATUS";
+
+    @Autowired
+    private ShiftRepository shiftRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private JobCancellationRepository jobCancellationRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        SqlCapturingStatementInspector.clear();
+    }
+
+    @Test
+    public void jobFindById_usesIdIndex() {
+        jobRepository.findById(UUID.randomUUID());
+        assertLastStatementUsesIndexOn(ID);
+    }
+
+    @Test
+    public void decrementActiveShiftCountUnlessLast_usesIdIndex() {
+        assertStatementUsesIndexOn(JobCounterRepositoryImpl.DECREMENT_UNLESS_LAST, ID);
+    }
+
+    @Test
+    public void addToActiveShiftCount_usesIdIndex() {
+        assertStatementUsesIndexOn(JobCounterRepositoryImpl.ADD, ID);
+    }
+
+    @Test
+    public void findIdPageAfter_usesIdIndex() {
+        jobRepository.findIdPageAfter(UUID.randomUUID(), PageRequest.of(0, 10));
+        assertLastStatementUsesIndexOn(ID);
+    }
+
+    @Test
+    public void reconcileActiveShiftCount_usesIdIndex() {
+        assertStatementUsesIndexOn(JobCounterRepositoryImpl.reconcileSql(2), ID);
+    }
+
+    @Test
+    public void shiftFindById_usesIdIndex() {
+        shiftRepository.findById(UUID.randomUUID());
+        assertLastStatementUsesIndexOn(ID);
+    }
+
+    @Test
+    public void findAllByJobId_usesJobIdIndex() {
+        shiftRepository.findAllByJobId(UUID.randomUUID());
+        assertLastStatementUsesIndexOn(JOB_ID);
+    }
+
+    @Test
+    public void findAllDtoByJobId_usesJobIdIndex() {
+        shiftRepository.findAllDtoByJobId(UUID.randomUUID());
+        assertLastStatementUsesIndexOn(JOB_ID);
+        assertThat(SqlCapturingStatementInspector.lastStatement()).doesNotContain("join job");
+    }
+
+    @Test
+    public void findPageDtoByJobId_usesJobIdIndex() {
+        shiftRepository.findPageDtoByJobId(UUID.randomUUID(), PageRequest.of(0, 10));
+        assertLastStatementUsesIndexOn(JOB_ID);
+    }
+
+    @Test
+    public void findPageDtoByJobIdAfter_usesJobIdIndex() {
+        shiftRepository.findPageDtoByJobIdAfter(UUID.randomUUID(), Instant.now(), UUID.randomUUID(), PageRequest.of(0, 10));
+        assertLastStatementUsesIndexOn(JOB_ID);
+    }
+
+    @Test
+    public void streamAllDtoByJobId_usesJobIdIndex() {
+        try (Stream<ShiftDto> shifts = shiftRepository.streamAllDtoByJobId(UUID.randomUUID())) {
+            assertThat(shifts).isEmpty();
+        }
+        assertLastStatementUsesIndexOn(JOB_ID);
+    }
+
+    @Test
+    public void findAllDtoByJobIdIn_usesJobIdIndex() {
+        shiftRepository.findAllDtoByJobIdIn(Arrays.asList(UUID.randomUUID(), UUID.randomUUID()));
+        assertLastStatementUsesIndexOn(JOB_ID);
+    }
+
+    @Test
+    public void findAllDtoByIdIn_usesIdIndex() {
+        shiftRepository.findAllDtoByIdIn(Arrays.asList(UUID.randomUUID(), UUID.randomUUID()));
+        assertLastStatementUsesIndexOn(ID);
+    }
+
+    @Test
+    public void findIdPageByJobIdAndStatusNot_usesJobIdIndex() {
+        shiftRepository.findIdPageByJobIdAndStatusNot(UUID.randomUUID(), Shift.Status.CANCELED, PageRequest.of(0, 10));
+        assertLastStatementUsesIndexOn(JOB_ID);
+    }
+
+    @Test
+    public void findTalentIdsByJobIdAndStatus_usesJobIdIndex() {
+        shiftRepository.findTalentIdsByJobIdAndStatus(UUID.randomUUID(), Shift.Status.BOOKED);
+        assertLastStatementUsesIndexOn(JOB_ID);
+    }
+
+    @Test
+    public void findTalentIdsByIdInAndStatus_usesIdIndex() {
+        shiftRepository.findTalentIdsByIdInAndStatus(Arrays.asList(UUID.randomUUID(), UUID.randomUUID()), Shift.Status.BOOKED);
+        assertLastStatementUsesIndexOn(ID);
+    }
+
+    @Test
+    public void countByJobIdAndStatusNot_usesJobIdIndex() {
+        shiftRepository.countByJobIdAndStatusNot(UUID.randomUUID(), Shift.Status.CANCELED);
+        assertLastStatementUsesIndexOn(JOB_ID);
+    }
+
+    @Test
+    public void findFirstByJobIdAndStatus_usesJobIdIndex() {
+        jobCancellationRepository.findFirstByJobIdAndStatus(UUID.randomUUID(), JobCancellation.Status.RUNNING);
+        assertLastStatementUsesIndexOn(JOB_ID);
+    }
+
+    @Test
+    public void findIdsByStatus_usesStatusIndex() {
+        jobCancellationRepository.findIdsByStatus(JobCancellation.Status.RUNNING);
+        assertLastStatementUsesIndexOn(STATUS);
+    }
+
+    @Test
+    public void findAllByTalentId_usesTalentIdIndex() {
+        shiftRepository.findAllByTalentId(UUID.randomUUID());
+        assertLastStatementUsesIndexOn(TALENT_ID);
+    }
+
+    @Test
+    public void existsByTalentId_usesTalentIdIndex() {
+        shiftRepository.existsByTalentId(UUID.randomUUID());
+        assertLastStatementUsesIndexOn(TALENT_ID);
+    }
+
+    @Test
+    public void findAllDtoByTalentIdAndStatusNot_usesTalentIdIndex() {
+        shiftRepository.findAllDtoByTalentIdAndStatusNot(UUID.randomUUID(), Shift.Status.CANCELED);
+        assertLastStatementUsesIndexOn(TALENT_ID);
+    }
+
+    @Test
+    public void findAllDtoByTalentIdAndStatus_usesTalentIdIndex() {
+        shiftRepository.findAllDtoByTalentIdAndStatus(UUID.randomUUID(), Shift.Status.BOOKED);
+        assertLastStatementUsesIndexOn(TALENT_ID);
+    }
+
+    @Test
+    public void existsOverlapping_usesTalentIdStatusStartTimeIndex() {
+        shiftRepository.existsOverlapping(UUID.randomUUID(), Shift.Status.BOOKED, Instant.now(), Instant.now().plusSeconds(3600));
+        //H2 lists the range condition on start_time first
+        assertLastStatementUsesIndex("IDX_SHIFT_TALENT_ID_STATUS_START_TIME");
+    }
+
+    @Test
+    public void findPageDtoByStatusStartingBetween_usesStatusStartTimeIndex() {
+        shiftRepository.findPageDtoByStatusStartingBetween(Shift.Status.CREATED, Instant.now(), Instant.now(), PageRequest.of(0, 10));
+        assertLastStatementUsesIndex("IDX_SHIFT_STATUS_START_TIME_ID");
+    }
+
+    @Test
+    public void findPageDtoByStatusStartingBetweenAfter_usesStatusStartTimeIndex() {
+        shiftRepository.findPageDtoByStatusStartingBetweenAfter(Shift.Status.CREATED, Instant.now(), Instant.now(),
+                Instant.now(), UUID.randomUUID(), PageRequest.of(0, 10));
+        assertLastStatementUsesIndex("IDX_SHIFT_STATUS_START_TIME_ID");
+    }
+
+    @Test
+    public void findPageDtoByCompanyIdAndStatusStartingBetween_usesCompanyIdIndex() {
+        shiftRepository.findPageDtoByCompanyIdAndStatusStartingBetween(UUID.randomUUID(), Job.Status.CREATED,
+                Shift.Status.CREATED, Instant.now(), Instant.now(), PageRequest.of(0, 10));
+        //Starts from the jobs of the company, then reads their shifts by job id
+        assertLastStatementUsesIndex("IDX_JOB_COMPANY_ID_STATUS_END_TIME");
+    }
+
+    @Test
+    public void findPageDtoByCompanyIdAndStatusStartingBetweenAfter_usesCompanyIdIndex() {
+        shiftRepository.findPageDtoByCompanyIdAndStatusStartingBetweenAfter(UUID.randomUUID(), Job.Status.CREATED,
+                Shift.Status.CREATED, Instant.now(), Instant.now(), Instant.now(), UUID.randomUUID(), PageRequest.of(0, 10));
+        assertLastStatementUsesIndex("IDX_JOB_COMPANY_ID_STATUS_END_TIME");
+    }
+
+    @Test
+    public void shiftCountGroupedByStatus_readsStatusIndexInOrder() {
+        shiftRepository.countGroupedByStatus();
+        String sql = SqlCapturingStatementInspector.lastStatement();
+
+        //Every shift is counted, so the whole index is read, but grouped as it is read instead of sorted first
+        assertThat(jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class))
+                .as("Query plan of %s", sql)
+                .contains("/* PUBLIC.IDX_SHIFT_STATUS_START_TIME_ID */")
+                .contains("/* group sorted */");
+    }
+
+    @Test
+    public void lockTalent_usesTalentIdIndex() {
+        assertStatementUsesIndexOn(ShiftBookingRepositoryImpl.LOCK_TALENT, TALENT_ID);
+    }
+
+    @Test
+    public void updateStatusByJobId_usesJobIdIndex() {
+        shiftRepository.updateStatusByJobId(UUID.randomUUID(), Shift.Status.CANCELED, Instant.now());
+        assertLastStatementUsesIndexOn(JOB_ID);
+    }
+
+    @Test
+    public void bookIfCreated_usesIdIndex() {
+        assertStatementUsesIndexOn(ShiftBookingRepositoryImpl.BOOK_IF_CREATED, ID);
+    }
+
+    @Test
+    public void updateStatusByIdIn_usesIdIndex() {
+        shiftRepository.updateStatusByIdIn(Arrays.asList(UUID.randomUUID(), UUID.randomUUID()), Shift.Status.CANCELED, Instant.now());
+        assertLastStatementUsesIndexOn(ID);
+    }
+
+    @Test
+    public void deleteByIdIn_usesIdIndex() {
+        outboxEventRepository.deleteByIdIn(Arrays.asList(1L, 2L));
+        assertLastStatementUsesIndexOn(ID);
+    }
+
+    /**
+     * H2 annotates index lookups in the plan with the index and its leading column,
+     * e.g. {@code PUBLIC.PRIMARY_KEY_4: ID = ?1} or {@code ID > ?1} for range scans, and full scans with {@code tableScan}.
+     */
+    private void assertLastStatementUsesIndexOn(String leadingColumn) {
+        assertStatementUsesIndexOn(SqlCapturingStatementInspector.lastStatement(), leadingColumn);
+    }
+
+    private void assertLastStatementUsesIndex(String index) {
+        String sql = SqlCapturingStatementInspector.lastStatement();
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+
+        assertThat(plan)
+                .as("Query plan of %s", sql)
+                .doesNotContain("tableScan")
+                .contains("/* PUBLIC." + index + ":");
+    }
+
+    private void assertStatementUsesIndexOn(String sql, String leadingColumn) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+
+        assertThat(plan)
+                .as("Query plan of %s", sql)
+                .doesNotContain("tableScan")
+                .containsPattern("/\\* PUBLIC\\.\\w+: " + leadingColumn + " (=|IN|>)");
+    }
+}
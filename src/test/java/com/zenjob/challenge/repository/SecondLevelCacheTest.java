@@ -0,0 +1,168 @@
+package com.zenjob.challenge.repository;
+
+import com.zenjob.challenge.config.ClockConfig;
+import com.zenjob.challenge.config.SecondLevelCacheMetricsConfig;
+import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.Shift;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every step in its own transaction, so entities are read from the second-level cache
+ * instead of the persistence context.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(ClockConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private ShiftRepository shiftRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    private Job job;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        job = inTransaction(() -> jobRepository.insertWithShifts(buildJob(3)));
+        statistics.clear();
+    }
+
+    @Test
+    public void findById_secondReadHitsCache() {
+        UUID shiftId = job.getShifts().get(0).getId();
+        inTransaction(() -> shiftRepository.findById(shiftId));
+
+        statistics.clear();
+        Shift shift = inTransaction(() -> shiftRepository.findById(shiftId).orElseThrow(IllegalStateException::new));
+
+        assertThat(shift.getJob().getId()).isEqualTo(job.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(0);
+        assertThat(statistics.getDomainDataRegionStatistics("shift").getHitCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics("job").getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void save_replacesCachedVersion() {
+        UUID shiftId = job.getShifts().get(0).getId();
+        UUID talentId = UUID.randomUUID();
+        inTransaction(() -> shiftRepository.save(shiftRepository.findById(shiftId)
+                .orElseThrow(IllegalStateException::new)
+                .setTalentId(talentId)
+                .setStatus(Shift.Status.BOOKED)));
+
+        statistics.clear();
+        Shift shift = inTransaction(() -> shiftRepository.findById(shiftId).orElseThrow(IllegalStateException::new));
+
+        assertThat(shift.getStatus()).isEqualTo(Shift.Status.BOOKED);
+        assertThat(shift.getTalentId()).isEqualTo(talentId);
+        assertThat(shift.getVersion()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void bulkUpdate_evictsCachedShifts() {
+        UUID shiftId = job.getShifts().get(0).getId();
+        inTransaction(() -> shiftRepository.findById(shiftId));
+
+        inTransaction(() -> shiftRepository.updateStatusByJobId(job.getId(), Shift.Status.CANCELED, Instant.now()));
+        Shift shift = inTransaction(() -> shiftRepository.findById(shiftId).orElseThrow(IllegalStateException::new));
+
+        assertThat(shift.getStatus()).isEqualTo(Shift.Status.CANCELED);
+    }
+
+    @Test
+    public void insertAll_evictsCachedShiftsOfJob() {
+        assertThat(shiftCount(job.getId())).isEqualTo(3);
+        assertThat(statistics.getDomainDataRegionStatistics("job.shifts").getPutCount()).isEqualTo(1);
+
+        inTransaction(() -> {
+            shiftRepository.insertAll(Collections.singletonList(Shift.builder()
+                    .id(UUID.randomUUID())
+                    .job(Job.builder().id(job.getId()).build())
+                    .status(Shift.Status.CREATED)
+                    .build()));
+            return null;
+        });
+
+        assertThat(shiftCount(job.getId())).isEqualTo(4);
+    }
+
+    @Test
+    public void metrics_publishedPerRegion() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        new SecondLevelCacheMetricsConfig().secondLevelCacheMetrics(entityManagerFactory).bindTo(registry);
+
+        inTransaction(() -> jobRepository.findById(job.getId()));
+        inTransaction(() -> jobRepository.findById(job.getId()));
+
+        assertThat(registry.get("cache.gets").tag("cache", "job").tag("result", "hit").functionCounter().count())
+                .isGreaterThanOrEqualTo(1);
+        assertThat(registry.get("cache.evictions").tag("cache", "shift").functionCounter()).isNotNull();
+    }
+
+    private int shiftCount(UUID jobId) {
+        return inTransaction(() -> entityManager.find(Job.class, jobId).getShifts().size());
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+
+    private Job buildJob(int days) {
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        Job job = Job.builder()
+                .id(UUID.randomUUID())
+                .companyId(UUID.randomUUID())
+                .startTime(startDate.atTime(8, 0).toInstant(ZoneOffset.UTC))
+                .endTime(startDate.plusDays(days - 1).atTime(16, 0).toInstant(ZoneOffset.UTC))
+                .status(Job.Status.CREATED)
+                .build();
+        for (int day = 0; day < days; day++) {
+            job.getShifts().add(Shift.builder()
+                    .id(UUID.randomUUID())
+                    .job(job)
+                    .startTime(startDate.plusDays(day).atTime(8, 0).toInstant(ZoneOffset.UTC))
+                    .endTime(startDate.plusDays(day).atTime(16, 0).toInstant(ZoneOffset.UTC))
+                    .status(Shift.Status.CREATED)
+                    .build());
+        }
+        return job;
+    }
+}
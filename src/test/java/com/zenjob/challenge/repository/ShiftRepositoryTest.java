@@ -0,0 +1,378 @@
+package com.zenjob.challenge.repository;
+
+import com.zenjob.challenge.config.ClockConfig;
+import com.zenjob.challenge.dto.ShiftBookingDto;
+import com.zenjob.challenge.dto.ShiftDto;
+import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.Shift;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(ClockConfig.class)
+public class ShiftRepositoryTest {
+
+    @Autowired
+    private ShiftRepository shiftRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Job job;
+
+    @BeforeEach
+    public void setUp() {
+        job = entityManager.persist(Job.builder()
+                .companyId(UUID.randomUUID())
+                .status(Job.Status.CREATED)
+                .build());
+    }
+
+    @Test
+    public void updateStatusByJobId_skipsCanceledShifts() {
+        Shift created = persistShift(job, Shift.Status.CREATED, 1);
+        Shift booked = persistShift(job, Shift.Status.BOOKED, 2);
+        Shift canceled = persistShift(job, Shift.Status.CANCELED, 3);
+        Shift otherJobShift = persistShift(entityManager.persist(Job.builder()
+                .companyId(UUID.randomUUID())
+                .status(Job.Status.CREATED)
+                .build()), Shift.Status.CREATED, 1);
+        entityManager.flush();
+        entityManager.clear();
+
+        //Truncated to what the timestamp column keeps, so it reads back equal on clocks with finer precision
+        Instant updatedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        int updated = shiftRepository.updateStatusByJobId(job.getId(), Shift.Status.CANCELED, updatedAt);
+
+        assertThat(updated).isEqualTo(2);
+        assertCanceled(created, updatedAt);
+        assertCanceled(booked, updatedAt);
+        Shift untouched = entityManager.find(Shift.class, canceled.getId());
+        assertThat(untouched.getVersion()).isEqualTo(canceled.getVersion());
+        assertThat(entityManager.find(Shift.class, otherJobShift.getId()).getStatus()).isEqualTo(Shift.Status.CREATED);
+    }
+
+    @Test
+    public void findAllDtoByTalentIdAndStatusNot_filtersCanceledShifts() {
+        UUID talentId = UUID.randomUUID();
+        Shift booked = persistShift(job, Shift.Status.BOOKED, 1).setTalentId(talentId);
+        persistShift(job, Shift.Status.CANCELED, 2).setTalentId(talentId);
+        persistShift(job, Shift.Status.BOOKED, 3).setTalentId(UUID.randomUUID());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ShiftDto> shifts = shiftRepository.findAllDtoByTalentIdAndStatusNot(talentId, Shift.Status.CANCELED);
+
+        assertThat(shifts).hasSize(1);
+        assertThat(shifts.get(0).getId()).isEqualTo(booked.getId());
+        assertThat(shifts.get(0).getJobId()).isEqualTo(job.getId());
+        assertThat(shifts.get(0).getStart()).isEqualTo(booked.getStartTime());
+        assertThat(shiftRepository.existsByTalentId(talentId)).isTrue();
+        assertThat(shiftRepository.existsByTalentId(UUID.randomUUID())).isFalse();
+    }
+
+    @Test
+    public void findAllDtoByJobId_success() {
+        Shift booked = persistShift(job, Shift.Status.BOOKED, 1).setTalentId(UUID.randomUUID());
+        persistShift(job, Shift.Status.CANCELED, 2);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ShiftDto> shifts = shiftRepository.findAllDtoByJobId(job.getId());
+
+        assertThat(shifts).hasSize(2);
+        assertThat(shifts).allSatisfy(shift -> assertThat(shift.getJobId()).isEqualTo(job.getId()));
+        ShiftDto bookedDto = shifts.stream()
+                .filter(shift -> shift.getId().equals(booked.getId()))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+        assertThat(bookedDto.getTalentId()).isEqualTo(booked.getTalentId());
+        assertThat(bookedDto.getStatus()).isEqualTo(Shift.Status.BOOKED);
+        assertThat(bookedDto.getEnd()).isEqualTo(booked.getEndTime());
+    }
+
+    @Test
+    public void findPageDtoByJobIdAfter_walksAllShiftsInOrder() {
+        for (int day = 5; day >= 1; day--) {
+            persistShift(job, Shift.Status.CREATED, day);
+        }
+        //Two shifts on the same day are ordered by id
+        persistShift(job, Shift.Status.CREATED, 3);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ShiftDto> walked = new ArrayList<>();
+        List<ShiftDto> page = shiftRepository.findPageDtoByJobId(job.getId(), PageRequest.of(0, 2));
+        while (!page.isEmpty()) {
+            walked.addAll(page);
+            ShiftDto last = page.get(page.size() - 1);
+            page = shiftRepository.findPageDtoByJobIdAfter(job.getId(), last.getStart(), last.getId(), PageRequest.of(0, 2));
+        }
+
+        List<ShiftDto> streamed;
+        try (Stream<ShiftDto> stream = shiftRepository.streamAllDtoByJobId(job.getId())) {
+            streamed = stream.collect(Collectors.toList());
+        }
+
+        assertThat(walked).hasSize(6);
+        assertThat(walked).extracting(ShiftDto::getId).doesNotHaveDuplicates();
+        assertThat(walked).extracting(ShiftDto::getStart).isSorted();
+        assertThat(walked).isEqualTo(streamed);
+    }
+
+    @Test
+    public void findPageDtoByStatusStartingBetweenAfter_walksOpenShiftsOfAllJobsInWindow() {
+        job.setStartTime(Instant.now());
+        job.setEndTime(Instant.now().plus(5, ChronoUnit.DAYS));
+        Job otherJob = entityManager.persist(Job.builder()
+                .companyId(UUID.randomUUID())
+                .status(Job.Status.CREATED)
+                .build());
+        List<UUID> expected = new ArrayList<>();
+        for (int day = 1; day <= 4; day++) {
+            Shift shift = persistShift(job, Shift.Status.CREATED, day);
+            Shift otherShift = persistShift(otherJob, Shift.Status.CREATED, day);
+            if (day >= 2 && day < 4) {
+                expected.add(shift.getId());
+                expected.add(otherShift.getId());
+            }
+        }
+        persistShift(job, Shift.Status.BOOKED, 2);
+        persistShift(otherJob, Shift.Status.CANCELED, 3);
+        entityManager.flush();
+        entityManager.clear();
+
+        Instant from = LocalDate.now().plusDays(2).atStartOfDay().toInstant(ZoneOffset.UTC);
+        Instant to = LocalDate.now().plusDays(4).atStartOfDay().toInstant(ZoneOffset.UTC);
+        List<ShiftDto> walked = new ArrayList<>();
+        List<ShiftDto> page = shiftRepository.findPageDtoByStatusStartingBetween(Shift.Status.CREATED, from, to, PageRequest.of(0, 3));
+        while (!page.isEmpty()) {
+            walked.addAll(page);
+            ShiftDto last = page.get(page.size() - 1);
+            page = shiftRepository.findPageDtoByStatusStartingBetweenAfter(Shift.Status.CREATED, from, to,
+                    last.getStart(), last.getId(), PageRequest.of(0, 3));
+        }
+
+        assertThat(walked).extracting(ShiftDto::getId).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(walked).extracting(ShiftDto::getStart).isSorted();
+
+        List<ShiftDto> ofCompany = shiftRepository.findPageDtoByCompanyIdAndStatusStartingBetween(job.getCompanyId(),
+                Job.Status.CREATED, Shift.Status.CREATED, from, to, PageRequest.of(0, 1));
+        assertThat(ofCompany).extracting(ShiftDto::getJobId).containsExactly(job.getId());
+        assertThat(shiftRepository.findPageDtoByCompanyIdAndStatusStartingBetweenAfter(job.getCompanyId(),
+                Job.Status.CREATED, Shift.Status.CREATED, from, to,
+                ofCompany.get(0).getStart(), ofCompany.get(0).getId(), PageRequest.of(0, 10)))
+                .extracting(ShiftDto::getJobId)
+                .containsExactly(job.getId());
+        assertThat(shiftRepository.findPageDtoByCompanyIdAndStatusStartingBetween(job.getCompanyId(),
+                Job.Status.CANCELED, Shift.Status.CREATED, from, to, PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    public void updateStatusByIdIn_skipsCanceledShifts() {
+        Shift booked = persistShift(job, Shift.Status.BOOKED, 1);
+        Shift canceled = persistShift(job, Shift.Status.CANCELED, 2);
+        Shift notRequested = persistShift(job, Shift.Status.BOOKED, 3);
+        entityManager.flush();
+        entityManager.clear();
+
+        Instant updatedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        int updated = shiftRepository.updateStatusByIdIn(Arrays.asList(booked.getId(), canceled.getId()), Shift.Status.CANCELED, updatedAt);
+
+        assertThat(updated).isEqualTo(1);
+        assertCanceled(booked, updatedAt);
+        assertThat(entityManager.find(Shift.class, notRequested.getId()).getStatus()).isEqualTo(Shift.Status.BOOKED);
+    }
+
+    @Test
+    public void insertAll_success() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        Shift replacement = Shift.builder()
+                .id(UUID.randomUUID())
+                .job(Job.builder().id(job.getId()).build())
+                .startTime(date.atTime(8, 0).toInstant(ZoneOffset.UTC))
+                .endTime(date.atTime(16, 0).toInstant(ZoneOffset.UTC))
+                .status(Shift.Status.CREATED)
+                .build();
+        entityManager.flush();
+
+        shiftRepository.insertAll(Collections.singletonList(replacement));
+
+        Shift inserted = entityManager.find(Shift.class, replacement.getId());
+        assertThat(inserted.getJob().getId()).isEqualTo(job.getId());
+        assertThat(inserted.getStatus()).isEqualTo(Shift.Status.CREATED);
+        assertThat(inserted.getStartTime()).isEqualTo(replacement.getStartTime());
+    }
+
+    @Test
+    public void bookIfCreated_onlyBooksCreatedShifts() {
+        Shift created = persistShift(job, Shift.Status.CREATED, 1);
+        Shift canceled = persistShift(job, Shift.Status.CANCELED, 2);
+        entityManager.flush();
+        entityManager.clear();
+        UUID talentId = UUID.randomUUID();
+
+        assertThat(shiftRepository.bookIfCreated(created.getId(), talentId)).isTrue();
+        assertThat(shiftRepository.bookIfCreated(created.getId(), UUID.randomUUID())).isFalse();
+        assertThat(shiftRepository.bookIfCreated(canceled.getId(), talentId)).isFalse();
+
+        Shift booked = entityManager.find(Shift.class, created.getId());
+        assertThat(booked.getStatus()).isEqualTo(Shift.Status.BOOKED);
+        assertThat(booked.getTalentId()).isEqualTo(talentId);
+        assertThat(booked.getVersion()).isEqualTo(created.getVersion() + 1);
+        assertThat(entityManager.find(Shift.class, canceled.getId()).getTalentId()).isNull();
+    }
+
+    @Test
+    public void bookAllIfCreated_reportsEveryBooking() {
+        Shift first = persistShift(job, Shift.Status.CREATED, 1);
+        Shift second = persistShift(job, Shift.Status.CREATED, 2);
+        Shift canceled = persistShift(job, Shift.Status.CANCELED, 3);
+        entityManager.flush();
+        entityManager.clear();
+        UUID talentId = UUID.randomUUID();
+
+        boolean[] booked = shiftRepository.bookAllIfCreated(Arrays.asList(
+                new ShiftBookingDto(first.getId(), talentId),
+                new ShiftBookingDto(canceled.getId(), talentId),
+                new ShiftBookingDto(second.getId(), talentId),
+                new ShiftBookingDto(first.getId(), UUID.randomUUID())));
+
+        assertThat(booked).containsExactly(true, false, true, false);
+        assertThat(shiftRepository.findAllDtoByIdIn(Arrays.asList(first.getId(), second.getId(), canceled.getId())))
+                .extracting(ShiftDto::getTalentId)
+                .containsExactlyInAnyOrder(talentId, talentId, null);
+    }
+
+    @Test
+    public void existsOverlapping_findsBookedShiftsAtTheSameTime() {
+        UUID talentId = UUID.randomUUID();
+        Shift booked = persistShift(job, Shift.Status.BOOKED, 1).setTalentId(talentId);
+        persistShift(job, Shift.Status.BOOKED, 3).setTalentId(talentId);
+        Shift canceled = persistShift(job, Shift.Status.CANCELED, 2).setTalentId(talentId);
+        entityManager.flush();
+        entityManager.clear();
+        Instant start = booked.getStartTime();
+        Instant end = booked.getEndTime();
+
+        assertThat(shiftRepository.existsOverlapping(talentId, Shift.Status.BOOKED, start, end)).isTrue();
+        assertThat(shiftRepository.existsOverlapping(talentId, Shift.Status.BOOKED,
+                start.minus(1, ChronoUnit.HOURS), start.plus(1, ChronoUnit.HOURS))).isTrue();
+        assertThat(shiftRepository.existsOverlapping(talentId, Shift.Status.BOOKED,
+                end.minus(1, ChronoUnit.HOURS), end.plus(1, ChronoUnit.HOURS))).isTrue();
+        //Shifts that only touch do not overlap
+        assertThat(shiftRepository.existsOverlapping(talentId, Shift.Status.BOOKED, end, end.plus(2, ChronoUnit.HOURS))).isFalse();
+        assertThat(shiftRepository.existsOverlapping(talentId, Shift.Status.BOOKED, start.minus(2, ChronoUnit.HOURS), start)).isFalse();
+        assertThat(shiftRepository.existsOverlapping(talentId, Shift.Status.BOOKED,
+                canceled.getStartTime(), canceled.getEndTime())).isFalse();
+        assertThat(shiftRepository.existsOverlapping(UUID.randomUUID(), Shift.Status.BOOKED, start, end)).isFalse();
+    }
+
+    @Test
+    public void existsOverlapping_findsShiftsOverlappedByLaterBookings() {
+        UUID talentId = UUID.randomUUID();
+        LocalDate date = LocalDate.now().plusDays(5);
+        //Booked shifts of a talent may overlap each other, the longer one starts first
+        entityManager.persist(Shift.builder()
+                .job(job)
+                .talentId(talentId)
+                .startTime(date.atTime(8, 0).toInstant(ZoneOffset.UTC))
+                .endTime(date.plusDays(2).atTime(16, 0).toInstant(ZoneOffset.UTC))
+                .status(Shift.Status.BOOKED)
+                .build());
+        entityManager.persist(Shift.builder()
+                .job(job)
+                .talentId(talentId)
+                .startTime(date.plusDays(1).atTime(8, 0).toInstant(ZoneOffset.UTC))
+                .endTime(date.plusDays(1).atTime(10, 0).toInstant(ZoneOffset.UTC))
+                .status(Shift.Status.BOOKED)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(shiftRepository.existsOverlapping(talentId, Shift.Status.BOOKED,
+                date.plusDays(1).atTime(12, 0).toInstant(ZoneOffset.UTC),
+                date.plusDays(1).atTime(14, 0).toInstant(ZoneOffset.UTC))).isTrue();
+    }
+
+    @Test
+    public void findTalentIdsByJobIdAndStatus_readsTalentsOfBookedShiftsOnce() {
+        UUID talentId = UUID.randomUUID();
+        Shift first = persistShift(job, Shift.Status.BOOKED, 1).setTalentId(talentId);
+        Shift second = persistShift(job, Shift.Status.BOOKED, 2).setTalentId(talentId);
+        Shift canceled = persistShift(job, Shift.Status.CANCELED, 3).setTalentId(UUID.randomUUID());
+        Shift open = persistShift(job, Shift.Status.CREATED, 4);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(shiftRepository.findTalentIdsByJobIdAndStatus(job.getId(), Shift.Status.BOOKED))
+                .containsExactly(talentId);
+        assertThat(shiftRepository.findTalentIdsByIdInAndStatus(
+                Arrays.asList(first.getId(), second.getId(), canceled.getId(), open.getId()), Shift.Status.BOOKED))
+                .containsExactly(talentId);
+    }
+
+    @Test
+    public void findAllDtoByTalentIdAndStatus_orderedByStart() {
+        UUID talentId = UUID.randomUUID();
+        Shift later = persistShift(job, Shift.Status.BOOKED, 3).setTalentId(talentId);
+        Shift earlier = persistShift(job, Shift.Status.BOOKED, 1).setTalentId(talentId);
+        persistShift(job, Shift.Status.CANCELED, 2).setTalentId(talentId);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(shiftRepository.findAllDtoByTalentIdAndStatus(talentId, Shift.Status.BOOKED))
+                .extracting(ShiftDto::getId)
+                .containsExactly(earlier.getId(), later.getId());
+    }
+
+    @Test
+    public void lockTalent_createsLockOnce() {
+        UUID talentId = UUID.randomUUID();
+
+        shiftRepository.lockTalent(talentId);
+        shiftRepository.lockTalent(talentId);
+
+        Number locks = (Number) entityManager.getEntityManager()
+                .createNativeQuery("SELECT COUNT(*) FROM talent_lock WHERE talent_id = ?1")
+                .setParameter(1, talentId)
+                .getSingleResult();
+        assertThat(locks.intValue()).isEqualTo(1);
+    }
+
+    private void assertCanceled(Shift shift, Instant updatedAt) {
+        Shift reloaded = entityManager.find(Shift.class, shift.getId());
+        assertThat(reloaded.getStatus()).isEqualTo(Shift.Status.CANCELED);
+        assertThat(reloaded.getVersion()).isEqualTo(shift.getVersion() + 1);
+        assertThat(reloaded.getUpdatedAt()).isEqualTo(updatedAt);
+    }
+
+    private Shift persistShift(Job job, Shift.Status status, int plusDays) {
+        LocalDate date = LocalDate.now().plusDays(plusDays);
+        return entityManager.persist(Shift.builder()
+                .job(job)
+                .startTime(date.atTime(8, 0).toInstant(ZoneOffset.UTC))
+                .endTime(date.atTime(16, 0).toInstant(ZoneOffset.UTC))
+                .status(status)
+                .build());
+    }
+}
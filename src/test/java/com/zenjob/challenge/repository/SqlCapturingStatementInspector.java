@@ -0,0 +1,31 @@
+package com.zenjob.challenge.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records every SQL statement Hibernate prepares, so tests can inspect the generated queries.
+ */
+public class SqlCapturingStatementInspector implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static String lastStatement() {
+        if (STATEMENTS.isEmpty()) {
+            throw new IllegalStateException("No SQL statement was captured");
+        }
+        return STATEMENTS.get(STATEMENTS.size() - 1);
+    }
+}
@@ -0,0 +1,58 @@
+package com.zenjob.challenge.service;
+
+import com.zenjob.challenge.repository.JobRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class ActiveShiftCountReconcilerTest {
+    @Mock
+    private JobRepository jobRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ActiveShiftCountReconciler reconciler;
+
+    public ActiveShiftCountReconcilerTest() {
+        MockitoAnnotations.initMocks(this);
+        reconciler = new ActiveShiftCountReconciler(jobRepository, meterRegistry, 2);
+    }
+
+    @Test
+    public void reconcile_walksAllPages() {
+        List<UUID> firstPage = Arrays.asList(UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> lastPage = Collections.singletonList(UUID.randomUUID());
+
+        when(jobRepository.findIdPage(PageRequest.of(0, 2))).thenReturn(firstPage);
+        when(jobRepository.findIdPageAfter(firstPage.get(1), PageRequest.of(0, 2))).thenReturn(lastPage);
+        when(jobRepository.reconcileActiveShiftCount(firstPage)).thenReturn(1);
+        when(jobRepository.reconcileActiveShiftCount(lastPage)).thenReturn(1);
+
+        int repaired = reconciler.reconcile();
+
+        assertThat(repaired).isEqualTo(2);
+        assertThat(meterRegistry.counter("zenjob.active_shift_count.repaired").count()).isEqualTo(2);
+        verify(jobRepository, times(1)).findIdPageAfter(any(UUID.class), any(PageRequest.class));
+    }
+
+    @Test
+    public void reconcile_noJobs() {
+        when(jobRepository.findIdPage(PageRequest.of(0, 2))).thenReturn(Collections.emptyList());
+
+        int repaired = reconciler.reconcile();
+
+        assertThat(repaired).isEqualTo(0);
+        verify(jobRepository, times(0)).reconcileActiveShiftCount(anyCollection());
+    }
+}
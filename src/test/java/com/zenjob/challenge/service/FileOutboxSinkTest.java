@@ -0,0 +1,53 @@
+package com.zenjob.challenge.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zenjob.challenge.entity.OutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FileOutboxSinkTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void send_appendsOneLinePerEvent(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("outbox.ndjson");
+        FileOutboxSink sink = new FileOutboxSink(objectMapper, file);
+        OutboxEvent first = event(1, OutboxEvent.Type.JOB_CREATED);
+        OutboxEvent second = event(2, OutboxEvent.Type.SHIFT_BOOKED);
+        OutboxEvent third = event(3, OutboxEvent.Type.SHIFT_CANCELED);
+
+        sink.send(Arrays.asList(first, second));
+        sink.send(Collections.singletonList(third));
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(3);
+        JsonNode line = objectMapper.readTree(lines.get(1));
+        assertThat(line.get("id").asLong()).isEqualTo(2);
+        assertThat(line.get("type").asText()).isEqualTo("SHIFT_BOOKED");
+        assertThat(line.get("aggregateId").asText()).isEqualTo(second.getAggregateId().toString());
+        assertThat(line.get("payload").get("shiftId").asText()).isEqualTo(second.getAggregateId().toString());
+        assertThat(objectMapper.readTree(lines.get(2)).get("id").asLong()).isEqualTo(3);
+    }
+
+    private static OutboxEvent event(long id, OutboxEvent.Type type) {
+        UUID aggregateId = UUID.randomUUID();
+        return OutboxEvent.builder()
+                .id(id)
+                .type(type)
+                .aggregateId(aggregateId)
+                .payload("{\"shiftId\":\"" + aggregateId + "\"}")
+                .createdAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,184 @@
+package com.zenjob.challenge.service;
+
+import com.zenjob.challenge.dto.JobEventDto;
+import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.JobCancellation;
+import com.zenjob.challenge.entity.OutboxEvent;
+import com.zenjob.challenge.entity.Shift;
+import com.zenjob.challenge.exception.JobCancellationNotFoundException;
+import com.zenjob.challenge.exception.JobNotFoundException;
+import com.zenjob.challenge.repository.JobCancellationRepository;
+import com.zenjob.challenge.repository.JobRepository;
+import com.zenjob.challenge.repository.ShiftRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class JobCancellationServiceTest {
+    private static final int CHUNK_SIZE = 2;
+
+    @Mock
+    private JobRepository jobRepository;
+
+    @Mock
+    private ShiftRepository shiftRepository;
+
+    @Mock
+    private JobCancellationRepository jobCancellationRepository;
+
+    @Mock
+    private ShiftsResponseCache shiftsResponseCache;
+
+    @Mock
+    private OutboxPublisher outboxPublisher;
+
+    @Mock
+    private ShiftAvailabilityIndex shiftAvailabilityIndex;
+
+    @Mock
+    private TalentScheduleIndex talentScheduleIndex;
+
+    @Mock
+    private KnownIdFilter knownIdFilter;
+
+    private final JobCancellationService jobCancellationService;
+
+    public JobCancellationServiceTest() {
+        MockitoAnnotations.initMocks(this);
+        jobCancellationService = new JobCancellationService(jobRepository, shiftRepository, jobCancellationRepository,
+                shiftsResponseCache, outboxPublisher, shiftAvailabilityIndex, talentScheduleIndex, knownIdFilter, Clock.systemUTC(),
+                CHUNK_SIZE);
+        when(jobCancellationRepository.save(any(JobCancellation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    public void start_cancelsJobAndRecordsShifts() {
+        Job job = Job.builder().id(UUID.randomUUID()).status(Job.Status.CREATED).build();
+
+        when(jobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(jobCancellationRepository.findFirstByJobIdAndStatus(job.getId(), JobCancellation.Status.RUNNING))
+                .thenReturn(Optional.empty());
+        when(shiftRepository.countByJobIdAndStatusNot(job.getId(), Shift.Status.CANCELED)).thenReturn(5L);
+
+        JobCancellation cancellation = jobCancellationService.start(job.getId());
+
+        assertThat(job.getStatus()).isEqualTo(Job.Status.CANCELED);
+        verify(jobRepository, times(1)).save(job);
+        assertThat(cancellation.getJobId()).isEqualTo(job.getId());
+        assertThat(cancellation.getStatus()).isEqualTo(JobCancellation.Status.RUNNING);
+        assertThat(cancellation.getTotalShifts()).isEqualTo(5);
+        assertThat(cancellation.getCanceledShifts()).isZero();
+        //Shifts are left to the worker
+        verify(shiftRepository, times(0)).updateStatusByIdIn(any(), any(), any());
+
+        ArgumentCaptor<JobEventDto> event = ArgumentCaptor.forClass(JobEventDto.class);
+        verify(outboxPublisher, times(1)).publish(eq(OutboxEvent.Type.JOB_CANCELED), eq(job.getId()), event.capture());
+        assertThat(event.getValue().getCancellationId()).isEqualTo(cancellation.getId());
+    }
+
+    @Test
+    public void start_returnsRunningCancellation() {
+        Job job = Job.builder().id(UUID.randomUUID()).status(Job.Status.CANCELED).build();
+        JobCancellation running = running(job.getId());
+
+        when(jobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(jobCancellationRepository.findFirstByJobIdAndStatus(job.getId(), JobCancellation.Status.RUNNING))
+                .thenReturn(Optional.of(running));
+
+        assertThat(jobCancellationService.start(job.getId())).isSameAs(running);
+        verify(jobRepository, times(0)).save(any(Job.class));
+        verify(jobCancellationRepository, times(0)).save(any(JobCancellation.class));
+        verifyNoInteractions(outboxPublisher);
+    }
+
+    @Test
+    public void start_jobNotFound() {
+        UUID jobId = UUID.randomUUID();
+        when(jobRepository.findById(jobId)).thenReturn(Optional.empty());
+
+        assertThrows(JobNotFoundException.class, () -> jobCancellationService.start(jobId));
+    }
+
+    @Test
+    public void cancelNextChunk_cancelsOneChunk() {
+        JobCancellation cancellation = running(UUID.randomUUID());
+        List<UUID> shiftIds = Arrays.asList(UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> talentIds = Collections.singletonList(UUID.randomUUID());
+
+        when(jobCancellationRepository.findById(cancellation.getId())).thenReturn(Optional.of(cancellation));
+        when(shiftRepository.findIdPageByJobIdAndStatusNot(cancellation.getJobId(), Shift.Status.CANCELED,
+                PageRequest.of(0, CHUNK_SIZE))).thenReturn(shiftIds);
+        when(shiftRepository.findTalentIdsByIdInAndStatus(shiftIds, Shift.Status.BOOKED)).thenReturn(talentIds);
+        when(shiftRepository.updateStatusByIdIn(eq(shiftIds), eq(Shift.Status.CANCELED), any(Instant.class))).thenReturn(2);
+
+        assertThat(jobCancellationService.cancelNextChunk(cancellation.getId())).isTrue();
+
+        assertThat(cancellation.getCanceledShifts()).isEqualTo(3);
+        assertThat(cancellation.getStatus()).isEqualTo(JobCancellation.Status.RUNNING);
+        verify(jobRepository, times(1)).addToActiveShiftCount(cancellation.getJobId(), -2);
+        verify(jobCancellationRepository, times(1)).save(cancellation);
+        verify(shiftsResponseCache, times(1)).evictAfterCommit(cancellation.getJobId());
+        verify(shiftAvailabilityIndex, times(1)).setStatusAfterCommit(cancellation.getJobId(), shiftIds, Shift.Status.CANCELED);
+        verify(talentScheduleIndex, times(1)).evictAfterCommit(talentIds);
+    }
+
+    @Test
+    public void cancelNextChunk_completesWhenNoShiftIsLeft() {
+        JobCancellation cancellation = running(UUID.randomUUID());
+
+        when(jobCancellationRepository.findById(cancellation.getId())).thenReturn(Optional.of(cancellation));
+        when(shiftRepository.findIdPageByJobIdAndStatusNot(cancellation.getJobId(), Shift.Status.CANCELED,
+                PageRequest.of(0, CHUNK_SIZE))).thenReturn(Collections.emptyList());
+
+        assertThat(jobCancellationService.cancelNextChunk(cancellation.getId())).isFalse();
+
+        ArgumentCaptor<JobCancellation> saved = ArgumentCaptor.forClass(JobCancellation.class);
+        verify(jobCancellationRepository, times(1)).save(saved.capture());
+        assertThat(saved.getValue().getStatus()).isEqualTo(JobCancellation.Status.COMPLETED);
+        verify(jobRepository, times(0)).addToActiveShiftCount(any(UUID.class), anyInt());
+    }
+
+    @Test
+    public void cancelNextChunk_completedCancellationIsSkipped() {
+        JobCancellation cancellation = running(UUID.randomUUID());
+        cancellation.setStatus(JobCancellation.Status.COMPLETED);
+
+        when(jobCancellationRepository.findById(cancellation.getId())).thenReturn(Optional.of(cancellation));
+
+        assertThat(jobCancellationService.cancelNextChunk(cancellation.getId())).isFalse();
+        verifyNoInteractions(shiftRepository);
+    }
+
+    @Test
+    public void fetch_notFound() {
+        UUID operationId = UUID.randomUUID();
+        when(jobCancellationRepository.findById(operationId)).thenReturn(Optional.empty());
+
+        assertThrows(JobCancellationNotFoundException.class, () -> jobCancellationService.fetch(operationId));
+    }
+
+    private static JobCancellation running(UUID jobId) {
+        return JobCancellation.builder()
+                .id(UUID.randomUUID())
+                .jobId(jobId)
+                .status(JobCancellation.Status.RUNNING)
+                .totalShifts(5)
+                .canceledShifts(1)
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.zenjob.challenge.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class JobCancellationWorkerTest {
+    @Mock
+    private JobCancellationService jobCancellationService;
+
+    //Runs submitted cancellations when the test calls runQueued
+    private final List<Runnable> queued = new ArrayList<>();
+
+    private final JobCancellationWorker jobCancellationWorker;
+
+    public JobCancellationWorkerTest() {
+        MockitoAnnotations.initMocks(this);
+        jobCancellationWorker = new JobCancellationWorker(jobCancellationService, queued::add);
+    }
+
+    @Test
+    public void submit_cancelsChunksUntilCompleted() {
+        UUID operationId = UUID.randomUUID();
+        when(jobCancellationService.cancelNextChunk(operationId)).thenReturn(true, true, false);
+
+        jobCancellationWorker.submit(operationId);
+        runQueued();
+
+        verify(jobCancellationService, times(3)).cancelNextChunk(operationId);
+    }
+
+    @Test
+    public void submit_queuesCancellationOnce() {
+        UUID operationId = UUID.randomUUID();
+
+        jobCancellationWorker.submit(operationId);
+        jobCancellationWorker.submit(operationId);
+
+        assertThat(queued).hasSize(1);
+    }
+
+    @Test
+    public void resumeRunning_resumesFailedAndInterruptedCancellations() {
+        UUID failed = UUID.randomUUID();
+        UUID interrupted = UUID.randomUUID();
+        when(jobCancellationService.cancelNextChunk(failed)).thenThrow(new IllegalStateException("connection lost"));
+        when(jobCancellationService.cancelNextChunk(interrupted)).thenReturn(false);
+        when(jobCancellationService.findRunning()).thenReturn(Arrays.asList(failed, interrupted));
+
+        jobCancellationWorker.submit(failed);
+        runQueued();
+        jobCancellationWorker.resumeRunning();
+
+        assertThat(queued).hasSize(2);
+        runQueued();
+        verify(jobCancellationService, times(2)).cancelNextChunk(failed);
+        verify(jobCancellationService, times(1)).cancelNextChunk(interrupted);
+    }
+
+    private void runQueued() {
+        List<Runnable> tasks = new ArrayList<>(queued);
+        queued.clear();
+        tasks.forEach(Runnable::run);
+    }
+}
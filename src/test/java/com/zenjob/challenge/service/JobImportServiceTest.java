@@ -0,0 +1,130 @@
+package com.zenjob.challenge.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zenjob.challenge.dto.JobImportResultDto;
+import com.zenjob.challenge.dto.JobRequestDto;
+import com.zenjob.challenge.entity.Job;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class JobImportServiceTest {
+    @Mock
+    private JobService jobService;
+
+    private final JobImportService jobImportService;
+
+    public JobImportServiceTest() {
+        MockitoAnnotations.initMocks(this);
+        jobImportService = new JobImportService(jobService, new ObjectMapper().findAndRegisterModules(),
+                Validation.buildDefaultValidatorFactory().getValidator(), 2);
+
+        doCallRealMethod().when(jobService).validate(any(JobRequestDto.class));
+        when(jobService.createAll(anyList())).thenAnswer(invocation -> {
+            List<JobRequestDto> chunk = invocation.getArgument(0);
+            return chunk.stream()
+                    .map(jobRequestDto -> Job.builder().id(UUID.randomUUID()).build())
+                    .collect(Collectors.toList());
+        });
+    }
+
+    @Test
+    public void importJobs_jsonArray() throws IOException {
+        List<JobImportResultDto> results = importJobs("[" + job(1, 2) + "," + job(2, 3) + "," + job(3, 4) + "]");
+
+        assertThat(results).extracting(JobImportResultDto::getIndex).containsExactly(0, 1, 2);
+        assertThat(results).allSatisfy(result -> {
+            assertThat(result.getJobId()).isNotNull();
+            assertThat(result.getError()).isNull();
+        });
+        //Chunks of two jobs
+        verify(jobService, times(2)).createAll(anyList());
+    }
+
+    @Test
+    public void importJobs_ndjsonReportsInvalidJobs() throws IOException {
+        List<JobImportResultDto> results = importJobs(job(1, 2) + "\n" +
+                job(3, 2) + "\n" +
+                "{\"start\":\"" + LocalDate.now().plusDays(1) + "\"}\n" +
+                "{\"companyId\":\"" + UUID.randomUUID() + "\",\"start\":\"tomorrow\",\"end\":\"tomorrow\"}\n" +
+                job(1, 1) + "\n");
+
+        assertThat(results).hasSize(5);
+        assertThat(results.get(0).getJobId()).isNotNull();
+        assertThat(results.get(1).getError()).isEqualTo("End date of a job cannot be before start date!");
+        assertThat(results.get(2).getError()).contains("companyId", "end");
+        assertThat(results.get(3).getError()).contains("tomorrow");
+        assertThat(results.get(4).getJobId()).isNotNull();
+        assertThat(results.subList(1, 4)).extracting(JobImportResultDto::getJobId).containsOnlyNulls();
+
+        ArgumentCaptor<List<JobRequestDto>> chunk = ArgumentCaptor.forClass(List.class);
+        verify(jobService, times(1)).createAll(chunk.capture());
+        assertThat(chunk.getValue()).hasSize(2);
+    }
+
+    @Test
+    public void importJobs_malformedJsonKeepsJobsReadBefore() throws IOException {
+        List<JobImportResultDto> results = importJobs(job(1, 2) + "\n{\"companyId\": \n");
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).getJobId()).isNotNull();
+        assertThat(results.get(1).getError()).startsWith("Malformed JSON");
+        verify(jobService, times(1)).createAll(anyList());
+    }
+
+    @Test
+    public void importJobs_failedReadWritesNoPendingChunk() {
+        InputStream brokenUpload = new SequenceInputStream(
+                new ByteArrayInputStream((job(1, 2) + "\n").getBytes(StandardCharsets.UTF_8)),
+                new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("connection reset");
+                    }
+                });
+
+        assertThatThrownBy(() -> jobImportService.importJobs(brokenUpload))
+                .isInstanceOf(IOException.class)
+                .hasMessage("connection reset");
+        verify(jobService, never()).createAll(anyList());
+    }
+
+    @Test
+    public void importJobs_failedChunkIsReported() throws IOException {
+        when(jobService.createAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        List<JobImportResultDto> results = importJobs(job(1, 2));
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getJobId()).isNull();
+        assertThat(results.get(0).getError()).isEqualTo("Job could not be saved");
+    }
+
+    private List<JobImportResultDto> importJobs(String body) throws IOException {
+        return jobImportService.importJobs(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String job(int startInDays, int endInDays) {
+        return "{\"companyId\":\"" + UUID.randomUUID() + "\"," +
+                "\"start\":\"" + LocalDate.now().plusDays(startInDays) + "\"," +
+                "\"end\":\"" + LocalDate.now().plusDays(endInDays) + "\"}";
+    }
+}
@@ -3,18 +3,24 @@ package com.zenjob.challenge.service;
 
 import com.zenjob.challenge.dto.JobRequestDto;
 import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.OutboxEvent;
 import com.zenjob.challenge.entity.Shift;
 import com.zenjob.challenge.exception.JobNotFoundException;
 import com.zenjob.challenge.repository.JobRepository;
+import com.zenjob.challenge.util.IdGenerator;
+import com.zenjob.challenge.util.TimeOrderedIdGenerator;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
+import java.time.Clock;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -32,6 +38,21 @@ public class JobServiceTest {
     @Mock
     private ShiftService shiftService;
 
+    @Mock
+    private OutboxPublisher outboxPublisher;
+
+    @Mock
+    private ShiftAvailabilityIndex shiftAvailabilityIndex;
+
+    @Mock
+    private BusinessMetrics businessMetrics;
+
+    @Mock
+    private KnownIdFilter knownIdFilter;
+
+    @Spy
+    private IdGenerator idGenerator = new TimeOrderedIdGenerator(Clock.systemUTC());
+
     @InjectMocks
     private JobService jobService;
 
@@ -65,7 +86,7 @@ public class JobServiceTest {
 
         jobWithoutShifts.setShifts(shifts);
 
-        when(jobRepository.save(any(Job.class))).thenReturn(jobWithoutShifts);
+        when(jobRepository.insertWithShifts(any(Job.class))).thenReturn(jobWithoutShifts);
 
 
         Job createdJob = jobService.create(jobRequestDto);
@@ -73,7 +94,50 @@ public class JobServiceTest {
         assertThat(createdJob).isNotNull();
         assertThat(createdJob.getId()).isEqualTo(jobWithoutShifts.getId());
         assertThat(createdJob.getShifts()).hasSize(3);
-        verify(jobRepository, times(1)).save(any(Job.class));
+        verify(jobRepository, times(1)).insertWithShifts(any(Job.class));
+        verify(jobRepository, times(0)).save(any(Job.class));
+        verify(outboxPublisher, times(1)).publish(eq(OutboxEvent.Type.JOB_CREATED), eq(createdJob.getId()), any());
+        verify(shiftAvailabilityIndex, times(1)).addAfterCommit(createdJob.getShifts());
+        verify(knownIdFilter, times(1)).addJobs(anyCollection());
+        verify(businessMetrics, times(1)).jobCreated(3);
+    }
+
+    @Test
+    public void createAll_success() {
+        List<JobRequestDto> jobRequestDtos = Arrays.asList(
+                new JobRequestDto(UUID.randomUUID(), LocalDate.now().plusDays(1), LocalDate.now().plusDays(2)),
+                new JobRequestDto(UUID.randomUUID(), LocalDate.now().plusDays(3), LocalDate.now().plusDays(3)));
+
+        List<Job> jobs = jobService.createAll(jobRequestDtos);
+
+        assertThat(jobs).hasSize(2);
+        assertThat(jobs.get(0).getShifts()).hasSize(2);
+        assertThat(jobs.get(1).getShifts()).hasSize(1);
+        assertThat(jobs.get(1).getStartTime()).isEqualTo(jobRequestDtos.get(1).getStart().atTime(8, 0).toInstant(ZoneOffset.UTC));
+        verify(jobRepository, times(1)).insertAllWithShifts(jobs);
+        verify(knownIdFilter, times(1)).addJobs(jobs);
+        verify(outboxPublisher, times(1)).publishAll(eq(OutboxEvent.Type.JOB_CREATED), argThat(events -> events.size() == 2), any());
+        verify(businessMetrics, times(1)).jobCreated(2);
+        verify(businessMetrics, times(1)).jobCreated(1);
+    }
+
+    @Test
+    public void create_assignsIdsBeforeInsert() {
+
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        LocalDate endDate = LocalDate.now().plusDays(30);
+        JobRequestDto jobRequestDto = new JobRequestDto(UUID.randomUUID(), startDate, endDate);
+
+        when(jobRepository.insertWithShifts(any(Job.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Job createdJob = jobService.create(jobRequestDto);
+
+        assertThat(createdJob.getId()).isNotNull();
+        assertThat(createdJob.getShifts()).hasSize(30);
+        assertThat(createdJob.getShifts()).allSatisfy(shift -> {
+            assertThat(shift.getId()).isNotNull();
+            assertThat(shift.getJob()).isSameAs(createdJob);
+        });
     }
 
 
@@ -90,7 +154,7 @@ public class JobServiceTest {
         });
 
         assertThat(thrown.getMessage()).isEqualTo("Start date of a job cannot be in the past!");
-        verify(jobRepository, times(0)).save(any(Job.class));
+        verify(jobRepository, times(0)).insertWithShifts(any(Job.class));
     }
 
     @Test
@@ -106,7 +170,7 @@ public class JobServiceTest {
         });
 
         assertThat(thrown.getMessage()).isEqualTo("End date of a job cannot be before start date!");
-        verify(jobRepository, times(0)).save(any(Job.class));
+        verify(jobRepository, times(0)).insertWithShifts(any(Job.class));
     }
 
     @Test
@@ -132,7 +196,9 @@ public class JobServiceTest {
         jobService.cancel(jobId);
 
         verify(jobRepository, times(1)).save(job);
-        verify(shiftService, times(3)).cancel(any(Shift.class));
+        verify(shiftService, times(1)).cancelAllByJobId(jobId);
+        verify(shiftService, times(0)).cancel(any(Shift.class));
+        verify(outboxPublisher, times(1)).publish(eq(OutboxEvent.Type.JOB_CANCELED), eq(jobId), any());
         assertThat(job.getStatus()).isEqualTo(Job.Status.CANCELED);
     }
 
@@ -146,7 +212,7 @@ public class JobServiceTest {
         });
 
         verify(jobRepository, times(0)).save(any(Job.class));
-        verify(shiftService, times(0)).cancel(any(Shift.class));
+        verify(shiftService, times(0)).cancelAllByJobId(any(UUID.class));
     }
 
     @Test
@@ -172,7 +238,8 @@ public class JobServiceTest {
         jobService.cancel(jobId);
 
         verify(jobRepository, times(0)).save(job);
-        verify(shiftService, times(0)).cancel(any(Shift.class));
+        verify(shiftService, times(0)).cancelAllByJobId(jobId);
+        verifyNoInteractions(outboxPublisher);
     }
 
     @Test
@@ -205,4 +272,16 @@ public class JobServiceTest {
         verify(jobRepository, times(1)).findById(jobId);
     }
 
+    @Test
+    public void fetch_unknownJobIsNotLookedUp() {
+        UUID jobId = UUID.randomUUID();
+        doThrow(new JobNotFoundException(jobId)).when(knownIdFilter).checkJob(jobId);
+
+        assertThrows(JobNotFoundException.class, () -> {
+            jobService.fetch(jobId);
+        });
+
+        verifyNoInteractions(jobRepository);
+    }
+
 }
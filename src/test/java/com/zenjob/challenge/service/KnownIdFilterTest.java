@@ -0,0 +1,121 @@
+package com.zenjob.challenge.service;
+
+import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.Shift;
+import com.zenjob.challenge.exception.JobNotFoundException;
+import com.zenjob.challenge.exception.ShiftNotFoundException;
+import com.zenjob.challenge.repository.JobRepository;
+import com.zenjob.challenge.repository.ShiftRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+public class KnownIdFilterTest {
+    private static final int CAPACITY = 1000;
+
+    @Mock
+    private JobRepository jobRepository;
+
+    @Mock
+    private ShiftRepository shiftRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final KnownIdFilter filter;
+
+    public KnownIdFilterTest() {
+        MockitoAnnotations.initMocks(this);
+        filter = new KnownIdFilter(jobRepository, shiftRepository, transactionManager, meterRegistry, true, 0.01, CAPACITY);
+    }
+
+    @Test
+    public void load_passesScannedIds() {
+        UUID jobId = UUID.randomUUID();
+        UUID shiftId = UUID.randomUUID();
+        when(jobRepository.streamAllIds()).thenReturn(Stream.of(jobId));
+        when(shiftRepository.streamAllIds()).thenReturn(Stream.of(shiftId));
+
+        filter.afterSingletonsInstantiated();
+
+        filter.checkJob(jobId);
+        filter.checkShift(shiftId);
+        assertThrows(JobNotFoundException.class, () -> filter.checkJob(shiftId));
+        assertThrows(ShiftNotFoundException.class, () -> filter.checkShift(jobId));
+        assertThat(lookups("job", "passed")).isEqualTo(1);
+        assertThat(lookups("job", "skipped")).isEqualTo(1);
+        assertThat(lookups("shift", "skipped")).isEqualTo(1);
+    }
+
+    @Test
+    public void addJobs_passesJobAndItsShifts() {
+        loadEmpty();
+        Shift shift = Shift.builder().id(UUID.randomUUID()).build();
+        Job job = Job.builder().id(UUID.randomUUID()).shifts(Collections.singletonList(shift)).build();
+
+        filter.addJobs(Collections.singletonList(job));
+
+        filter.checkJob(job.getId());
+        filter.checkShift(shift.getId());
+    }
+
+    @Test
+    public void resizeIfFull_loadsTwiceTheCapacity() {
+        loadEmpty();
+        for (int i = 0; i <= CAPACITY; i++) {
+            filter.addShifts(Collections.singletonList(Shift.builder().id(UUID.randomUUID()).build()));
+        }
+        UUID shiftId = UUID.randomUUID();
+        when(shiftRepository.count()).thenReturn((long) CAPACITY + 1);
+        when(jobRepository.streamAllIds()).thenReturn(Stream.empty());
+        when(shiftRepository.streamAllIds()).thenReturn(Stream.of(shiftId));
+
+        filter.resizeIfFull();
+
+        filter.checkShift(shiftId);
+        assertThat(meterRegistry.get("zenjob.known_id_filter.false_positive_rate").tag("type", "shift").gauge().value())
+                .isLessThan(0.001);
+    }
+
+    @Test
+    public void rebuild_loadsIdsInsertedElsewhere() {
+        loadEmpty();
+        UUID jobId = UUID.randomUUID();
+        assertThrows(JobNotFoundException.class, () -> filter.checkJob(jobId));
+        when(jobRepository.streamAllIds()).thenReturn(Stream.of(jobId));
+        when(shiftRepository.streamAllIds()).thenReturn(Stream.empty());
+
+        filter.rebuild();
+
+        filter.checkJob(jobId);
+    }
+
+    @Test
+    public void checkJob_passesEverythingUntilLoaded() {
+        filter.checkJob(UUID.randomUUID());
+        filter.checkShift(UUID.randomUUID());
+    }
+
+    private void loadEmpty() {
+        when(jobRepository.streamAllIds()).thenReturn(Stream.empty());
+        when(shiftRepository.streamAllIds()).thenReturn(Stream.empty());
+        filter.load(CAPACITY);
+    }
+
+    private double lookups(String type, String result) {
+        return meterRegistry.get("zenjob.known_id_filter.lookups").tag("type", type).tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,167 @@
+package com.zenjob.challenge.service;
+
+import com.zenjob.challenge.entity.OutboxEvent;
+import com.zenjob.challenge.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+public class OutboxRelayTest {
+    private static final int BATCH_SIZE = 2;
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final InMemorySink sink = new InMemorySink();
+
+    //Events not yet deleted by the relay, oldest first
+    private final List<OutboxEvent> outbox = new ArrayList<>();
+
+    private final MutableClock clock = new MutableClock();
+
+    private final OutboxRelay outboxRelay;
+
+    public OutboxRelayTest() {
+        MockitoAnnotations.initMocks(this);
+        outboxRelay = new OutboxRelay(outboxEventRepository, sink, clock, meterRegistry, BATCH_SIZE,
+                Duration.ofSeconds(1), Duration.ofSeconds(3));
+
+        when(outboxEventRepository.findBatch(any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable page = invocation.getArgument(0);
+            return new ArrayList<>(outbox.subList(0, Math.min(page.getPageSize(), outbox.size())));
+        });
+        when(outboxEventRepository.deleteByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            outbox.removeIf(event -> ids.contains(event.getId()));
+            return ids.size();
+        });
+    }
+
+    @Test
+    public void relay_drainsOutboxInBatches() {
+        append(5);
+
+        assertThat(outboxRelay.relay()).isEqualTo(5);
+
+        assertThat(outbox).isEmpty();
+        assertThat(sink.batches).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(sink.batches.stream().flatMap(List::stream).map(OutboxEvent::getId))
+                .containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(meterRegistry.get("zenjob.outbox.relayed").counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("zenjob.outbox.send").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("zenjob.outbox.lag").gauge().value()).isZero();
+    }
+
+    @Test
+    public void relay_backsOffWhileSinkFails() {
+        append(3);
+        sink.failures = 2;
+
+        assertThat(outboxRelay.relay()).isZero();
+        assertThat(outbox).hasSize(3);
+        assertThat(meterRegistry.get("zenjob.outbox.failures").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("zenjob.outbox.lag").gauge().value()).isEqualTo(60);
+
+        //Within the first backoff of one second the outbox is not read
+        advance(Duration.ofMillis(500));
+        assertThat(outboxRelay.relay()).isZero();
+        verify(outboxEventRepository, times(1)).findBatch(any(Pageable.class));
+
+        //Second failure doubles the backoff
+        advance(Duration.ofMillis(500));
+        assertThat(outboxRelay.relay()).isZero();
+        advance(Duration.ofMillis(1500));
+        assertThat(outboxRelay.relay()).isZero();
+        verify(outboxEventRepository, times(2)).findBatch(any(Pageable.class));
+
+        advance(Duration.ofMillis(500));
+        assertThat(outboxRelay.relay()).isEqualTo(3);
+        assertThat(outbox).isEmpty();
+        assertThat(meterRegistry.get("zenjob.outbox.failures").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void relay_emptyOutbox() {
+        assertThat(outboxRelay.relay()).isZero();
+        assertThat(sink.batches).isEmpty();
+        verify(outboxEventRepository, times(0)).deleteByIdIn(anyCollection());
+    }
+
+    private void append(int count) {
+        long firstId = outbox.size() + 1;
+        outbox.addAll(LongStream.range(firstId, firstId + count)
+                .mapToObj(id -> OutboxEvent.builder()
+                        .id(id)
+                        .type(OutboxEvent.Type.SHIFT_BOOKED)
+                        .aggregateId(UUID.randomUUID())
+                        .payload("{}")
+                        .createdAt(NOW.minusSeconds(60))
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    private void advance(Duration duration) {
+        clock.now = clock.now.plus(duration);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = NOW;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private static class InMemorySink implements OutboxSink {
+        private final List<List<OutboxEvent>> batches = new ArrayList<>();
+        private int failures;
+
+        @Override
+        public void send(List<OutboxEvent> events) {
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("sink unavailable");
+            }
+            batches.add(events);
+        }
+
+        @Override
+        public String name() {
+            return "memory";
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.zenjob.challenge.service;
+
+import com.zenjob.challenge.dto.ShiftAvailabilityDto;
+import com.zenjob.challenge.dto.ShiftDto;
+import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.Shift;
+import com.zenjob.challenge.exception.JobNotFoundException;
+import com.zenjob.challenge.repository.JobRepository;
+import com.zenjob.challenge.repository.ShiftRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ShiftAvailabilityIndexTest {
+    private static final int PAGE_SIZE = 2;
+    private static final Duration MAX_AGE = Duration.ofMinutes(10);
+    private static final LocalDate START = LocalDate.of(2030, 1, 1);
+
+    @Mock
+    private JobRepository jobRepository;
+
+    @Mock
+    private ShiftRepository shiftRepository;
+
+    private final ShiftAvailabilityIndex index;
+
+    public ShiftAvailabilityIndexTest() {
+        MockitoAnnotations.initMocks(this);
+        index = new ShiftAvailabilityIndex(jobRepository, shiftRepository, PAGE_SIZE, MAX_AGE);
+    }
+
+    @Test
+    public void load_readsJobsInPages() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(jobRepository.findIdPage(PageRequest.of(0, PAGE_SIZE))).thenReturn(Arrays.asList(first, second));
+        when(jobRepository.findIdPageAfter(second, PageRequest.of(0, PAGE_SIZE))).thenReturn(Collections.singletonList(third));
+        when(shiftRepository.findAllDtoByJobIdIn(Arrays.asList(first, second))).thenReturn(Arrays.asList(
+                shift(first, 0, Shift.Status.CREATED),
+                shift(first, 1, Shift.Status.BOOKED),
+                shift(second, 0, Shift.Status.CANCELED)));
+        when(shiftRepository.findAllDtoByJobIdIn(Collections.singletonList(third)))
+                .thenReturn(Collections.singletonList(shift(third, 2, Shift.Status.CREATED)));
+
+        index.load();
+
+        assertThat(index.countByStatus(first)).isEqualTo(ShiftAvailabilityDto.builder()
+                .jobId(first).open(1).booked(1).build());
+        assertThat(index.countByStatus(second).getCanceled()).isEqualTo(1);
+        assertThat(index.findOpenDays(third)).containsExactly(START.plusDays(2));
+    }
+
+    @Test
+    public void setStatus_movesShiftBetweenStatuses() {
+        Job job = job(3);
+        index.addAfterCommit(job.getShifts());
+        UUID bookedShiftId = job.getShifts().get(1).getId();
+
+        index.setStatusAfterCommit(job.getId(), bookedShiftId, Shift.Status.BOOKED);
+
+        assertThat(index.countByStatus(job.getId()).getOpen()).isEqualTo(2);
+        assertThat(index.countByStatus(job.getId()).getBooked()).isEqualTo(1);
+        assertThat(index.findOpenDays(job.getId())).containsExactly(START, START.plusDays(2));
+
+        index.setStatusAfterCommit(job.getId(), Collections.singletonList(bookedShiftId), Shift.Status.CANCELED);
+
+        assertThat(index.countByStatus(job.getId())).isEqualTo(ShiftAvailabilityDto.builder()
+                .jobId(job.getId()).open(2).canceled(1).build());
+    }
+
+    @Test
+    public void findOpenDays_replacementShiftsReopenDaysOnce() {
+        Job job = job(2);
+        index.addAfterCommit(job.getShifts());
+        Shift replacement = Shift.builder()
+                .id(UUID.randomUUID())
+                .job(job)
+                .startTime(job.getShifts().get(1).getStartTime())
+                .status(Shift.Status.CREATED)
+                .build();
+
+        index.addAfterCommit(Collections.singletonList(replacement));
+        index.addAfterCommit(Collections.singletonList(Shift.builder()
+                .id(UUID.randomUUID())
+                .job(job)
+                .startTime(job.getShifts().get(0).getStartTime())
+                .status(Shift.Status.CREATED)
+                .build()));
+
+        assertThat(index.countByStatus(job.getId()).getOpen()).isEqualTo(4);
+        assertThat(index.findOpenDays(job.getId())).containsExactly(START, START.plusDays(1));
+    }
+
+    @Test
+    public void setStatusOfAll_cancelsEveryShift() {
+        Job job = job(40);
+        index.addAfterCommit(job.getShifts());
+        index.setStatusAfterCommit(job.getId(), job.getShifts().get(0).getId(), Shift.Status.BOOKED);
+
+        index.setStatusOfAllAfterCommit(job.getId(), Shift.Status.CANCELED);
+
+        assertThat(index.countByStatus(job.getId())).isEqualTo(ShiftAvailabilityDto.builder()
+                .jobId(job.getId()).canceled(40).build());
+        assertThat(index.findOpenDays(job.getId())).isEmpty();
+    }
+
+    @Test
+    public void changes_waitForCommit() {
+        Job job = job(2);
+        index.addAfterCommit(job.getShifts());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.setStatusAfterCommit(job.getId(), job.getShifts().get(0).getId(), Shift.Status.BOOKED);
+            assertThat(index.countByStatus(job.getId()).getOpen()).isEqualTo(2);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(index.countByStatus(job.getId()).getOpen()).isEqualTo(1);
+    }
+
+    @Test
+    public void countByStatus_readsJobMissingFromIndex() {
+        UUID jobId = UUID.randomUUID();
+        when(shiftRepository.findAllDtoByJobId(jobId)).thenReturn(Arrays.asList(
+                shift(jobId, 0, Shift.Status.CREATED),
+                shift(jobId, 1, Shift.Status.BOOKED)));
+
+        assertThat(index.countByStatus(jobId)).isEqualTo(ShiftAvailabilityDto.builder()
+                .jobId(jobId).open(1).booked(1).build());
+        assertThat(index.findOpenDays(jobId)).containsExactly(START);
+        verify(shiftRepository, times(1)).findAllDtoByJobId(jobId);
+    }
+
+    @Test
+    public void addToIndexedJobs_skipsJobMissingFromIndex() {
+        Job job = job(1);
+
+        index.addToIndexedJobsAfterCommit(job.getShifts());
+
+        assertThrows(JobNotFoundException.class, () -> index.countByStatus(job.getId()));
+    }
+
+    @Test
+    public void countByStatus_readsJobsOlderThanMaxAgeAgain() {
+        ShiftAvailabilityIndex expiring = new ShiftAvailabilityIndex(jobRepository, shiftRepository, PAGE_SIZE, Duration.ZERO);
+        Job job = job(2);
+        expiring.addAfterCommit(job.getShifts());
+        //Booked by another instance
+        when(shiftRepository.findAllDtoByJobId(job.getId())).thenReturn(Arrays.asList(
+                shift(job.getShifts().get(0)),
+                shift(job.getShifts().get(1).setStatus(Shift.Status.BOOKED))));
+
+        assertThat(expiring.countByStatus(job.getId())).isEqualTo(ShiftAvailabilityDto.builder()
+                .jobId(job.getId()).open(1).booked(1).build());
+    }
+
+    @Test
+    public void add_manyShiftsOfOneJob() {
+        Job job = job(1000);
+        index.addAfterCommit(job.getShifts());
+        index.addAfterCommit(job.getShifts());
+
+        index.setStatusAfterCommit(job.getId(), job.getShifts().get(999).getId(), Shift.Status.BOOKED);
+
+        assertThat(index.countByStatus(job.getId())).isEqualTo(ShiftAvailabilityDto.builder()
+                .jobId(job.getId()).open(999).booked(1).build());
+        assertThat(index.findOpenDays(job.getId())).hasSize(999).doesNotContain(START.plusDays(999));
+    }
+
+    @Test
+    public void countByStatus_jobNotFoundError() {
+        assertThrows(JobNotFoundException.class, () -> index.countByStatus(UUID.randomUUID()));
+        assertThrows(JobNotFoundException.class, () -> index.findOpenDays(UUID.randomUUID()));
+    }
+
+    private static ShiftDto shift(UUID jobId, int day, Shift.Status status) {
+        return ShiftDto.builder()
+                .id(UUID.randomUUID())
+                .jobId(jobId)
+                .start(START.plusDays(day).atTime(8, 0).toInstant(ZoneOffset.UTC))
+                .end(START.plusDays(day).atTime(16, 0).toInstant(ZoneOffset.UTC))
+                .status(status)
+                .build();
+    }
+
+    private static ShiftDto shift(Shift shift) {
+        return ShiftDto.builder()
+                .id(shift.getId())
+                .jobId(shift.getJob().getId())
+                .start(shift.getStartTime())
+                .end(shift.getEndTime())
+                .status(shift.getStatus())
+                .build();
+    }
+
+    private static Job job(int days) {
+        Job job = Job.builder().id(UUID.randomUUID()).status(Job.Status.CREATED).build();
+        for (int day = 0; day < days; day++) {
+            job.getShifts().add(Shift.builder()
+                    .id(UUID.randomUUID())
+                    .job(job)
+                    .startTime(START.plusDays(day).atTime(8, 0).toInstant(ZoneOffset.UTC))
+                    .endTime(START.plusDays(day).atTime(16, 0).toInstant(ZoneOffset.UTC))
+                    .status(Shift.Status.CREATED)
+                    .build());
+        }
+        return job;
+    }
+}
@@ -0,0 +1,79 @@
+package com.zenjob.challenge.service;
+
+import com.zenjob.challenge.dto.JobRequestDto;
+import com.zenjob.challenge.entity.Shift;
+import com.zenjob.challenge.repository.ShiftRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Books one talent for shifts of different jobs at the same time from many threads at once.
+ */
+@Tag("integration-test")
+@SpringBootTest
+public class ShiftBookingConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private ShiftService shiftService;
+
+    @Autowired
+    private ShiftRepository shiftRepository;
+
+    @Test
+    public void tryBook_onlyOneOverlappingBookingOfTalentWins() throws Exception {
+        LocalDate date = LocalDate.now().plusDays(1);
+        List<UUID> shiftIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            shiftIds.add(jobService.create(new JobRequestDto(UUID.randomUUID(), date, date)).getShifts().get(0).getId());
+        }
+        UUID talentId = UUID.randomUUID();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<ShiftService.BookingResult>> results = new ArrayList<>();
+            for (UUID shiftId : shiftIds) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return shiftService.tryBook(shiftId, talentId);
+                }));
+            }
+            start.countDown();
+
+            List<ShiftService.BookingResult> outcomes = new ArrayList<>();
+            for (Future<ShiftService.BookingResult> result : results) {
+                outcomes.add(result.get(30, TimeUnit.SECONDS));
+            }
+            Map<ShiftService.BookingResult, Long> counts = outcomes.stream()
+                    .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+            assertThat(counts.get(ShiftService.BookingResult.BOOKED)).isEqualTo(1);
+            assertThat(counts.get(ShiftService.BookingResult.OVERLAPPING)).isEqualTo(THREADS - 1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(shiftRepository.findAllDtoByTalentIdAndStatus(talentId, Shift.Status.BOOKED)).hasSize(1);
+    }
+}
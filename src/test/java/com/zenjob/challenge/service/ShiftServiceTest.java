@@ -1,32 +1,84 @@
 package com.zenjob.challenge.service;
 
+import com.zenjob.challenge.dto.BulkBookingRequestDto;
+import com.zenjob.challenge.dto.ShiftBookingDto;
+import com.zenjob.challenge.dto.ShiftBookingResultDto;
+import com.zenjob.challenge.dto.ShiftDto;
+import com.zenjob.challenge.dto.ShiftEventDto;
+import com.zenjob.challenge.dto.ShiftsResponseDto;
 import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.OutboxEvent;
 import com.zenjob.challenge.entity.Shift;
 import com.zenjob.challenge.exception.*;
+import com.zenjob.challenge.repository.JobRepository;
 import com.zenjob.challenge.repository.ShiftRepository;
+import com.zenjob.challenge.util.IdGenerator;
+import com.zenjob.challenge.util.ShiftCursor;
+import com.zenjob.challenge.util.TimeOrderedIdGenerator;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 public class ShiftServiceTest {
     @Mock
     private ShiftRepository shiftRepository;
 
+    @Mock
+    private JobRepository jobRepository;
+
+    @Mock
+    private ShiftsResponseCache shiftsResponseCache;
+
+    @Mock
+    private OutboxPublisher outboxPublisher;
+
+    @Mock
+    private ShiftAvailabilityIndex shiftAvailabilityIndex;
+
+    @Mock
+    private TalentScheduleIndex talentScheduleIndex;
+
+    @Mock
+    private BusinessMetrics businessMetrics;
+
+    @Mock
+    private KnownIdFilter knownIdFilter;
+
+    @Spy
+    private IdGenerator idGenerator = new TimeOrderedIdGenerator(Clock.systemUTC());
+
+    @Mock
+    private Clock clock;
+
     @InjectMocks
     private ShiftService shiftService;
 
     public ShiftServiceTest() {
         MockitoAnnotations.initMocks(this);
+        when(clock.instant()).thenReturn(Instant.now());
     }
 
     @Test
@@ -34,20 +86,52 @@ public class ShiftServiceTest {
 
         UUID shiftId = UUID.randomUUID();
         UUID talentId = UUID.randomUUID();
+        Job job = Job.builder().id(UUID.randomUUID()).status(Job.Status.CREATED).build();
         Shift shift = Shift.builder()
                 .id(shiftId)
+                .job(job)
                 .status(Shift.Status.CREATED)
                 .build();
 
         when(shiftRepository.findById(shiftId)).thenReturn(Optional.of(shift));
+        when(shiftRepository.bookIfCreated(shiftId, talentId)).thenReturn(true);
 
 
         shiftService.book(shiftId, talentId);
 
 
-        assertThat(shift.getTalentId()).isEqualTo(talentId);
-        assertThat(shift.getStatus()).isEqualTo(Shift.Status.BOOKED);
-        verify(shiftRepository, times(1)).save(shift);
+        verify(shiftRepository, times(1)).bookIfCreated(shiftId, talentId);
+        verify(shiftRepository, times(0)).save(any(Shift.class));
+        verify(shiftsResponseCache, times(1)).evictAfterCommit(job.getId());
+        verify(shiftAvailabilityIndex, times(1)).setStatusAfterCommit(job.getId(), shiftId, Shift.Status.BOOKED);
+        verify(talentScheduleIndex, times(1)).evictAfterCommit(talentId);
+
+        ArgumentCaptor<ShiftEventDto> event = ArgumentCaptor.forClass(ShiftEventDto.class);
+        verify(outboxPublisher, times(1)).publish(eq(OutboxEvent.Type.SHIFT_BOOKED), eq(shiftId), event.capture());
+        assertThat(event.getValue().getTalentId()).isEqualTo(talentId);
+        assertThat(event.getValue().getJobId()).isEqualTo(job.getId());
+    }
+
+    @Test
+    public void book_lostRace() {
+        UUID shiftId = UUID.randomUUID();
+        UUID talentId = UUID.randomUUID();
+        Shift shift = Shift.builder()
+                .id(shiftId)
+                .job(Job.builder().id(UUID.randomUUID()).build())
+                .status(Shift.Status.CREATED)
+                .build();
+
+        when(shiftRepository.findById(shiftId)).thenReturn(Optional.of(shift));
+        when(shiftRepository.bookIfCreated(shiftId, talentId)).thenReturn(false);
+
+        assertThat(shiftService.tryBook(shiftId, talentId)).isEqualTo(ShiftService.BookingResult.ALREADY_BOOKED);
+        assertThrows(CannotBookShiftException.class, () -> {
+            shiftService.book(shiftId, talentId);
+        });
+
+        verifyNoInteractions(shiftsResponseCache);
+        verify(businessMetrics, times(2)).alreadyBooked(1);
     }
 
     @Test
@@ -65,6 +149,18 @@ public class ShiftServiceTest {
         verify(shiftRepository, times(0)).save(any(Shift.class));
     }
 
+    @Test
+    public void book_unknownShiftIsNotLookedUp() {
+        UUID shiftId = UUID.randomUUID();
+        doThrow(new ShiftNotFoundException(shiftId)).when(knownIdFilter).checkShift(shiftId);
+
+        assertThrows(ShiftNotFoundException.class, () -> {
+            shiftService.book(shiftId, UUID.randomUUID());
+        });
+
+        verifyNoInteractions(shiftRepository);
+    }
+
     @Test
     public void book_cannotBookShiftError() {
         UUID shiftId = UUID.randomUUID();
@@ -80,9 +176,168 @@ public class ShiftServiceTest {
             shiftService.book(shiftId, talentId);
         });
 
+        verify(shiftRepository, times(0)).bookIfCreated(any(UUID.class), any(UUID.class));
         verify(shiftRepository, times(0)).save(any(Shift.class));
     }
 
+    @Test
+    public void book_overlapInIndexConfirmedInDatabase() {
+        Shift shift = createdShift();
+        UUID talentId = UUID.randomUUID();
+
+        when(shiftRepository.findById(shift.getId())).thenReturn(Optional.of(shift));
+        when(talentScheduleIndex.overlaps(talentId, shift.getStartTime(), shift.getEndTime())).thenReturn(true);
+        when(shiftRepository.existsOverlapping(talentId, Shift.Status.BOOKED, shift.getStartTime(), shift.getEndTime()))
+                .thenReturn(true);
+
+        assertThrows(OverlappingShiftException.class, () -> {
+            shiftService.book(shift.getId(), talentId);
+        });
+
+        verify(shiftRepository, times(1)).lockTalent(talentId);
+        verify(shiftRepository, times(0)).bookIfCreated(any(UUID.class), any(UUID.class));
+        verify(talentScheduleIndex, times(0)).evict(talentId);
+        verify(businessMetrics, times(1)).overlapping(1);
+    }
+
+    @Test
+    public void book_staleOverlapInIndexIsEvicted() {
+        Shift shift = createdShift();
+        UUID talentId = UUID.randomUUID();
+
+        when(shiftRepository.findById(shift.getId())).thenReturn(Optional.of(shift));
+        when(talentScheduleIndex.overlaps(talentId, shift.getStartTime(), shift.getEndTime())).thenReturn(true);
+        when(shiftRepository.bookIfCreated(shift.getId(), talentId)).thenReturn(true);
+
+        assertThat(shiftService.tryBook(shift.getId(), talentId)).isEqualTo(ShiftService.BookingResult.BOOKED);
+
+        verify(talentScheduleIndex, times(1)).evict(talentId);
+    }
+
+    @Test
+    public void book_overlapFoundInDatabaseAfterLockingTalent() {
+        Shift shift = createdShift();
+        UUID talentId = UUID.randomUUID();
+
+        when(shiftRepository.findById(shift.getId())).thenReturn(Optional.of(shift));
+        when(shiftRepository.existsOverlapping(talentId, Shift.Status.BOOKED, shift.getStartTime(), shift.getEndTime()))
+                .thenReturn(true);
+
+        assertThat(shiftService.tryBook(shift.getId(), talentId)).isEqualTo(ShiftService.BookingResult.OVERLAPPING);
+
+        InOrder inOrder = inOrder(shiftRepository);
+        inOrder.verify(shiftRepository).lockTalent(talentId);
+        inOrder.verify(shiftRepository).existsOverlapping(talentId, Shift.Status.BOOKED, shift.getStartTime(), shift.getEndTime());
+        verify(shiftRepository, times(0)).bookIfCreated(any(UUID.class), any(UUID.class));
+        verifyNoInteractions(shiftsResponseCache, outboxPublisher);
+    }
+
+    @Test
+    public void bookAll_rejectsOverlappingBookings() {
+        UUID talentId = UUID.randomUUID();
+        UUID otherTalentId = UUID.randomUUID();
+        Instant start = Instant.now().plus(1, ChronoUnit.DAYS);
+        ShiftDto first = shiftDto(UUID.randomUUID(), Shift.Status.CREATED, start);
+        ShiftDto sameTime = shiftDto(UUID.randomUUID(), Shift.Status.CREATED, start.plus(1, ChronoUnit.HOURS));
+        ShiftDto nextDay = shiftDto(UUID.randomUUID(), Shift.Status.CREATED, start.plus(1, ChronoUnit.DAYS));
+        List<ShiftBookingDto> bookings = Arrays.asList(
+                new ShiftBookingDto(first.getId(), talentId),
+                new ShiftBookingDto(sameTime.getId(), talentId),
+                new ShiftBookingDto(nextDay.getId(), talentId),
+                new ShiftBookingDto(sameTime.getId(), otherTalentId));
+
+        when(shiftRepository.findAllDtoByIdIn(anyCollection())).thenReturn(Arrays.asList(first, sameTime, nextDay));
+        when(shiftRepository.existsOverlapping(otherTalentId, Shift.Status.BOOKED, sameTime.getStart(), sameTime.getEnd()))
+                .thenReturn(true);
+        when(shiftRepository.bookAllIfCreated(Arrays.asList(bookings.get(0), bookings.get(2))))
+                .thenReturn(new boolean[]{true, true});
+
+        List<ShiftBookingResultDto> results = shiftService.bookAll(bookings, BulkBookingRequestDto.Mode.BEST_EFFORT);
+
+        assertThat(results).extracting(ShiftBookingResultDto::getOutcome).containsExactly(
+                ShiftBookingResultDto.Outcome.BOOKED,
+                ShiftBookingResultDto.Outcome.OVERLAPPING,
+                ShiftBookingResultDto.Outcome.BOOKED,
+                ShiftBookingResultDto.Outcome.OVERLAPPING);
+        verify(shiftRepository, times(1)).lockTalent(talentId);
+        verify(shiftRepository, times(1)).lockTalent(otherTalentId);
+        verify(talentScheduleIndex, times(1)).evictAfterCommit(Collections.singleton(talentId));
+        verify(businessMetrics, times(1)).overlapping(2);
+    }
+
+    @Test
+    public void bookAll_bestEffort_reportsEveryOutcome() {
+        UUID jobId = UUID.randomUUID();
+        ShiftDto created = shiftDto(jobId, Shift.Status.CREATED);
+        ShiftDto taken = shiftDto(jobId, Shift.Status.CREATED);
+        ShiftDto booked = shiftDto(jobId, Shift.Status.BOOKED);
+        List<ShiftBookingDto> bookings = Arrays.asList(
+                new ShiftBookingDto(created.getId(), UUID.randomUUID()),
+                new ShiftBookingDto(UUID.randomUUID(), UUID.randomUUID()),
+                new ShiftBookingDto(booked.getId(), UUID.randomUUID()),
+                new ShiftBookingDto(taken.getId(), UUID.randomUUID()));
+
+        when(shiftRepository.findAllDtoByIdIn(anyCollection())).thenReturn(Arrays.asList(created, taken, booked));
+        when(shiftRepository.bookAllIfCreated(Arrays.asList(bookings.get(0), bookings.get(3))))
+                .thenReturn(new boolean[]{true, false});
+
+        List<ShiftBookingResultDto> results = shiftService.bookAll(bookings, BulkBookingRequestDto.Mode.BEST_EFFORT);
+
+        assertThat(results).extracting(ShiftBookingResultDto::getOutcome).containsExactly(
+                ShiftBookingResultDto.Outcome.BOOKED,
+                ShiftBookingResultDto.Outcome.NOT_FOUND,
+                ShiftBookingResultDto.Outcome.NOT_BOOKABLE,
+                ShiftBookingResultDto.Outcome.NOT_BOOKABLE);
+        assertThat(results).extracting(ShiftBookingResultDto::getShift)
+                .containsExactlyElementsOf(bookings.stream().map(ShiftBookingDto::getShift).collect(Collectors.toList()));
+        verify(shiftRepository, times(1)).findAllDtoByIdIn(anyCollection());
+        verify(shiftsResponseCache, times(1)).evictAfterCommit(Collections.singleton(jobId));
+        verify(outboxPublisher, times(1)).publishAll(eq(OutboxEvent.Type.SHIFT_BOOKED), argThat(events -> events.size() == 1), any());
+        verify(businessMetrics, times(1)).alreadyBooked(2);
+        verify(businessMetrics, times(1)).overlapping(0);
+    }
+
+    @Test
+    public void bookAll_allOrNothing_rejectsWithoutWriting() {
+        ShiftDto created = shiftDto(UUID.randomUUID(), Shift.Status.CREATED);
+        List<ShiftBookingDto> bookings = Arrays.asList(
+                new ShiftBookingDto(created.getId(), UUID.randomUUID()),
+                new ShiftBookingDto(UUID.randomUUID(), UUID.randomUUID()));
+
+        when(shiftRepository.findAllDtoByIdIn(anyCollection())).thenReturn(Collections.singletonList(created));
+
+        BulkBookingRejectedException e = assertThrows(BulkBookingRejectedException.class, () -> {
+            shiftService.bookAll(bookings, BulkBookingRequestDto.Mode.ALL_OR_NOTHING);
+        });
+
+        assertThat(e.getResults()).extracting(ShiftBookingResultDto::getOutcome).containsExactly(
+                ShiftBookingResultDto.Outcome.NOT_APPLIED,
+                ShiftBookingResultDto.Outcome.NOT_FOUND);
+        verify(shiftRepository, times(0)).bookAllIfCreated(any());
+        verifyNoInteractions(shiftsResponseCache);
+    }
+
+    @Test
+    public void bookAll_allOrNothing_lostRaceRejectsAll() {
+        ShiftDto first = shiftDto(UUID.randomUUID(), Shift.Status.CREATED);
+        ShiftDto second = shiftDto(UUID.randomUUID(), Shift.Status.CREATED);
+        List<ShiftBookingDto> bookings = Arrays.asList(
+                new ShiftBookingDto(first.getId(), UUID.randomUUID()),
+                new ShiftBookingDto(second.getId(), UUID.randomUUID()));
+
+        when(shiftRepository.findAllDtoByIdIn(anyCollection())).thenReturn(Arrays.asList(first, second));
+        when(shiftRepository.bookAllIfCreated(bookings)).thenReturn(new boolean[]{true, false});
+
+        BulkBookingRejectedException e = assertThrows(BulkBookingRejectedException.class, () -> {
+            shiftService.bookAll(bookings, BulkBookingRequestDto.Mode.ALL_OR_NOTHING);
+        });
+
+        assertThat(e.getResults()).extracting(ShiftBookingResultDto::getOutcome).containsExactly(
+                ShiftBookingResultDto.Outcome.NOT_APPLIED,
+                ShiftBookingResultDto.Outcome.NOT_BOOKABLE);
+        verifyNoInteractions(shiftsResponseCache);
+    }
+
     @Test
     public void cancel_success() {
         UUID shiftId = UUID.randomUUID();
@@ -94,11 +349,51 @@ public class ShiftServiceTest {
                 .build();
 
         when(shiftRepository.findById(shiftId)).thenReturn(Optional.of(shift));
-        when(shiftRepository.countAllByJobIdAndStatusNot(job.getId(), Shift.Status.CANCELED)).thenReturn(2L);
+        when(jobRepository.decrementActiveShiftCountUnlessLast(job.getId())).thenReturn(1);
+
+        shiftService.cancel(shiftId);
+
+        assertThat(shift.getStatus()).isEqualTo(Shift.Status.CANCELED);
+        verify(shiftRepository, times(1)).save(shift);
+        verify(shiftsResponseCache, times(1)).evictAfterCommit(job.getId());
+        verify(outboxPublisher, times(1)).publish(eq(OutboxEvent.Type.SHIFT_CANCELED), eq(shiftId), any(ShiftEventDto.class));
+    }
+
+    @Test
+    public void cancel_alreadyCanceled() {
+        UUID shiftId = UUID.randomUUID();
+        Job job = Job.builder().id(UUID.randomUUID()).status(Job.Status.CREATED).build();
+        Shift shift = Shift.builder()
+                .id(shiftId)
+                .job(job)
+                .status(Shift.Status.CANCELED)
+                .build();
+
+        when(shiftRepository.findById(shiftId)).thenReturn(Optional.of(shift));
+
+        shiftService.cancel(shiftId);
+
+        verifyNoInteractions(jobRepository, shiftsResponseCache);
+        verify(shiftRepository, times(0)).save(any(Shift.class));
+    }
+
+    @Test
+    public void cancel_lastShiftOfCanceledJob() {
+        UUID shiftId = UUID.randomUUID();
+        Job job = Job.builder().id(UUID.randomUUID()).status(Job.Status.CANCELED).build();
+        Shift shift = Shift.builder()
+                .id(shiftId)
+                .job(job)
+                .status(Shift.Status.CREATED)
+                .build();
+
+        when(shiftRepository.findById(shiftId)).thenReturn(Optional.of(shift));
 
         shiftService.cancel(shiftId);
 
         assertThat(shift.getStatus()).isEqualTo(Shift.Status.CANCELED);
+        verify(jobRepository, times(1)).addToActiveShiftCount(job.getId(), -1);
+        verify(jobRepository, times(0)).decrementActiveShiftCountUnlessLast(any(UUID.class));
         verify(shiftRepository, times(1)).save(shift);
     }
 
@@ -126,76 +421,298 @@ public class ShiftServiceTest {
                 .build();
 
         when(shiftRepository.findById(shiftId)).thenReturn(Optional.of(shift));
-        when(shiftRepository.countAllByJobIdAndStatusNot(job.getId(), Shift.Status.CANCELED)).thenReturn(1L);
+        when(jobRepository.decrementActiveShiftCountUnlessLast(job.getId())).thenReturn(0);
 
         assertThrows(LastShiftException.class, () -> {
             shiftService.cancel(shiftId);
         });
 
         verify(shiftRepository, times(0)).save(any(Shift.class));
+        verifyNoInteractions(shiftsResponseCache);
+        verify(businessMetrics, times(1)).lastShiftRejected();
+    }
+
+    @Test
+    public void cancelAllByJobId_success() {
+        UUID jobId = UUID.randomUUID();
+        List<UUID> talentIds = Collections.singletonList(UUID.randomUUID());
+
+        when(shiftRepository.findTalentIdsByJobIdAndStatus(jobId, Shift.Status.BOOKED)).thenReturn(talentIds);
+        when(shiftRepository.updateStatusByJobId(eq(jobId), eq(Shift.Status.CANCELED), any(Instant.class))).thenReturn(3);
+
+        int canceled = shiftService.cancelAllByJobId(jobId);
+
+        assertThat(canceled).isEqualTo(3);
+        verify(jobRepository, times(1)).addToActiveShiftCount(jobId, -3);
+        verify(shiftsResponseCache, times(1)).evictAfterCommit(jobId);
+        verify(shiftAvailabilityIndex, times(1)).setStatusOfAllAfterCommit(jobId, Shift.Status.CANCELED);
+        verify(talentScheduleIndex, times(1)).evictAfterCommit(talentIds);
+        verify(shiftRepository, times(0)).findAllByJobId(jobId);
+        verify(shiftRepository, times(0)).save(any(Shift.class));
     }
 
     @Test
     public void cancelForTalent_success() {
         UUID talentId = UUID.randomUUID();
-        Job job = Job.builder().id(UUID.randomUUID()).build();
-        List<Shift> shifts = new ArrayList<>();
+        UUID jobId = UUID.randomUUID();
+        List<ShiftDto> shifts = new ArrayList<>();
         for (int i = 0; i < 3; i++) {
-            Shift shift = Shift.builder()
+            shifts.add(ShiftDto.builder()
                     .id(UUID.randomUUID())
-                    .job(job)
+                    .jobId(jobId)
                     .talentId(talentId)
-                    .status(Shift.Status.CREATED)
-                    .build();
-            shifts.add(shift);
+                    .start(Instant.now().plus(i, ChronoUnit.DAYS))
+                    .end(Instant.now().plus(i, ChronoUnit.DAYS).plus(8, ChronoUnit.HOURS))
+                    .status(Shift.Status.BOOKED)
+                    .build());
         }
 
-        when(shiftRepository.findAllByTalentId(talentId)).thenReturn(shifts);
+        when(shiftRepository.findAllDtoByTalentIdAndStatusNot(talentId, Shift.Status.CANCELED)).thenReturn(shifts);
+        when(shiftRepository.updateStatusByIdIn(anyCollection(), eq(Shift.Status.CANCELED), any(Instant.class))).thenReturn(3);
 
         shiftService.cancelShiftForTalent(talentId);
 
-        shifts.forEach(shift -> {
-            assertThat(shift.getStatus()).isEqualTo(Shift.Status.CANCELED);
+        List<UUID> shiftIds = shifts.stream().map(ShiftDto::getId).collect(Collectors.toList());
+        verify(shiftRepository, times(1)).updateStatusByIdIn(eq(shiftIds), eq(Shift.Status.CANCELED), any(Instant.class));
+
+        ArgumentCaptor<List<Shift>> replacements = ArgumentCaptor.forClass(List.class);
+        verify(shiftRepository, times(1)).insertAll(replacements.capture());
+        assertThat(replacements.getValue()).hasSize(3);
+        assertThat(replacements.getValue()).allSatisfy(replacement -> {
+            assertThat(replacement.getId()).isNotNull().isNotIn(shiftIds);
+            assertThat(replacement.getJob().getId()).isEqualTo(jobId);
+            assertThat(replacement.getTalentId()).isNull();
+            assertThat(replacement.getStatus()).isEqualTo(Shift.Status.CREATED);
         });
-        verify(shiftRepository, times(6)).save(any(Shift.class));
+        assertThat(replacements.getValue()).extracting(Shift::getStartTime)
+                .containsExactlyElementsOf(shifts.stream().map(ShiftDto::getStart).collect(Collectors.toList()));
+
+        ArgumentCaptor<List<ShiftEventDto>> events = ArgumentCaptor.forClass(List.class);
+        verify(outboxPublisher, times(1)).publishAll(eq(OutboxEvent.Type.SHIFT_CANCELED), events.capture(), any());
+        assertThat(events.getValue()).extracting(ShiftEventDto::getShiftId).containsExactlyElementsOf(shiftIds);
+        assertThat(events.getValue()).extracting(ShiftEventDto::getReplacementShiftId)
+                .containsExactlyElementsOf(replacements.getValue().stream().map(Shift::getId).collect(Collectors.toList()));
+        verify(shiftRepository, times(0)).save(any(Shift.class));
+        verifyNoInteractions(jobRepository);
+        verify(shiftsResponseCache, times(1)).evictAfterCommit(Collections.singleton(jobId));
+        verify(shiftAvailabilityIndex, times(1)).setStatusAfterCommit(shifts, Shift.Status.CANCELED);
+        verify(shiftAvailabilityIndex, times(1)).addToIndexedJobsAfterCommit(replacements.getValue());
+        verify(knownIdFilter, times(1)).addShifts(replacements.getValue());
+        verify(businessMetrics, times(1)).replacementsCreated(3);
+    }
+
+    @Test
+    public void cancelForTalent_shiftCanceledConcurrentlyError() {
+        UUID talentId = UUID.randomUUID();
+        List<ShiftDto> shifts = Arrays.asList(
+                ShiftDto.builder().id(UUID.randomUUID()).jobId(UUID.randomUUID()).talentId(talentId)
+                        .start(Instant.now()).end(Instant.now().plus(8, ChronoUnit.HOURS)).status(Shift.Status.BOOKED).build(),
+                ShiftDto.builder().id(UUID.randomUUID()).jobId(UUID.randomUUID()).talentId(talentId)
+                        .start(Instant.now()).end(Instant.now().plus(8, ChronoUnit.HOURS)).status(Shift.Status.BOOKED).build());
+
+        when(shiftRepository.findAllDtoByTalentIdAndStatusNot(talentId, Shift.Status.CANCELED)).thenReturn(shifts);
+        //One of the shifts was canceled between the read and the update
+        when(shiftRepository.updateStatusByIdIn(anyCollection(), eq(Shift.Status.CANCELED), any(Instant.class))).thenReturn(1);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> shiftService.cancelShiftForTalent(talentId));
+
+        verify(shiftRepository, times(0)).insertAll(anyCollection());
+        verifyNoInteractions(outboxPublisher, knownIdFilter, businessMetrics);
     }
 
     @Test
     public void cancelForTalent_shiftsNotFoundError() {
         UUID talentId = UUID.randomUUID();
 
-        when(shiftRepository.findAllByTalentId(talentId)).thenReturn(new ArrayList<>());
+        when(shiftRepository.findAllDtoByTalentIdAndStatusNot(talentId, Shift.Status.CANCELED)).thenReturn(new ArrayList<>());
+        when(shiftRepository.existsByTalentId(talentId)).thenReturn(false);
 
         assertThrows(ShiftsForTalentNotFoundException.class, () -> {
             shiftService.cancelShiftForTalent(talentId);
         });
 
-        verify(shiftRepository, times(0)).save(any(Shift.class));
+        verify(shiftRepository, times(0)).updateStatusByIdIn(anyCollection(), any(Shift.Status.class), any(Instant.class));
+        verify(shiftRepository, times(0)).insertAll(anyCollection());
     }
 
     @Test
     public void cancelForTalent_noActiveShiftsForTalent() {
         UUID talentId = UUID.randomUUID();
-        Job job = Job.builder().id(UUID.randomUUID()).build();
-        List<Shift> shifts = new ArrayList<>();
 
-        for (int i = 0; i < 3; i++) {
-            Shift shift = Shift.builder()
-                    .id(UUID.randomUUID())
-                    .job(job)
-                    .talentId(talentId)
-                    .status(Shift.Status.CANCELED)
-                    .build();
-            shifts.add(shift);
-        }
-
-        when(shiftRepository.findAllByTalentId(talentId)).thenReturn(shifts);
+        when(shiftRepository.findAllDtoByTalentIdAndStatusNot(talentId, Shift.Status.CANCELED)).thenReturn(new ArrayList<>());
+        when(shiftRepository.existsByTalentId(talentId)).thenReturn(true);
 
         assertThrows(NoAvailableShiftException.class, () -> {
             shiftService.cancelShiftForTalent(talentId);
         });
 
-        verify(shiftRepository, times(0)).save(any(Shift.class));
+        verify(shiftRepository, times(0)).updateStatusByIdIn(anyCollection(), any(Shift.Status.class), any(Instant.class));
+        verify(shiftRepository, times(0)).insertAll(anyCollection());
+    }
+
+    @Test
+    public void fetchByJobId_success() {
+        UUID jobId = UUID.randomUUID();
+        List<ShiftDto> shifts = new ArrayList<>();
+        shifts.add(ShiftDto.builder()
+                .id(UUID.randomUUID())
+                .jobId(jobId)
+                .start(Instant.now())
+                .end(Instant.now().plus(8, ChronoUnit.HOURS))
+                .status(Shift.Status.CREATED)
+                .build());
+
+        when(shiftRepository.findAllDtoByJobId(jobId)).thenReturn(shifts);
+
+        assertThat(shiftService.fetchByJobId(jobId)).isEqualTo(shifts);
+        verify(shiftRepository, times(0)).findAllByJobId(jobId);
     }
 
+    @Test
+    public void fetchByJobId_jobNotFoundError() {
+        UUID jobId = UUID.randomUUID();
+
+        when(shiftRepository.findAllDtoByJobId(jobId)).thenReturn(new ArrayList<>());
+
+        assertThrows(JobNotFoundException.class, () -> {
+            shiftService.fetchByJobId(jobId);
+        });
+    }
+
+    @Test
+    public void fetchPageByJobId_firstPageWithNext() {
+        UUID jobId = UUID.randomUUID();
+        List<ShiftDto> shifts = shiftDtos(jobId, 3);
+
+        when(shiftRepository.findPageDtoByJobId(jobId, PageRequest.of(0, 3))).thenReturn(shifts);
+
+        ShiftsResponseDto page = shiftService.fetchPageByJobId(jobId, null, 2);
+
+        assertThat(page.getShifts()).containsExactly(shifts.get(0), shifts.get(1));
+        ShiftCursor next = ShiftCursor.decode(page.getNext());
+        assertThat(next.getId()).isEqualTo(shifts.get(1).getId());
+        assertThat(next.getStartTime()).isEqualTo(shifts.get(1).getStart());
+    }
+
+    @Test
+    public void fetchPageByJobId_lastPage() {
+        UUID jobId = UUID.randomUUID();
+        ShiftCursor after = new ShiftCursor(Instant.now(), UUID.randomUUID());
+        List<ShiftDto> shifts = shiftDtos(jobId, 2);
+
+        when(shiftRepository.findPageDtoByJobIdAfter(jobId, after.getStartTime(), after.getId(), PageRequest.of(0, 3)))
+                .thenReturn(shifts);
+
+        ShiftsResponseDto page = shiftService.fetchPageByJobId(jobId, after.encode(), 2);
+
+        assertThat(page.getShifts()).isEqualTo(shifts);
+        assertThat(page.getNext()).isNull();
+    }
+
+    @Test
+    public void fetchPageByJobId_jobNotFoundError() {
+        UUID jobId = UUID.randomUUID();
+
+        when(shiftRepository.findPageDtoByJobId(jobId, PageRequest.of(0, 11))).thenReturn(new ArrayList<>());
+
+        assertThrows(JobNotFoundException.class, () -> {
+            shiftService.fetchPageByJobId(jobId, null, 10);
+        });
+    }
+
+    @Test
+    public void fetchPageByJobId_invalidCursorError() {
+        assertThrows(BadRequestException.class, () -> {
+            shiftService.fetchPageByJobId(UUID.randomUUID(), "not-a-cursor", 10);
+        });
+    }
+
+    @Test
+    public void searchOpen_firstPageWithNext() {
+        Instant from = Instant.now();
+        Instant to = from.plus(7, ChronoUnit.DAYS);
+        List<ShiftDto> shifts = shiftDtos(UUID.randomUUID(), 3);
+
+        when(shiftRepository.findPageDtoByStatusStartingBetween(Shift.Status.CREATED, from, to, PageRequest.of(0, 3)))
+                .thenReturn(shifts);
+
+        ShiftsResponseDto page = shiftService.searchOpen(from, to, null, null, 2);
+
+        assertThat(page.getShifts()).containsExactly(shifts.get(0), shifts.get(1));
+        assertThat(ShiftCursor.decode(page.getNext()).getId()).isEqualTo(shifts.get(1).getId());
+    }
+
+    @Test
+    public void searchOpen_nextPageOfCompany() {
+        UUID companyId = UUID.randomUUID();
+        Instant from = Instant.now();
+        Instant to = from.plus(7, ChronoUnit.DAYS);
+        ShiftCursor after = new ShiftCursor(from.plus(1, ChronoUnit.DAYS), UUID.randomUUID());
+        List<ShiftDto> shifts = shiftDtos(UUID.randomUUID(), 1);
+
+        when(shiftRepository.findPageDtoByCompanyIdAndStatusStartingBetweenAfter(companyId, Job.Status.CREATED,
+                Shift.Status.CREATED, from, to, after.getStartTime(), after.getId(), PageRequest.of(0, 11)))
+                .thenReturn(shifts);
+
+        ShiftsResponseDto page = shiftService.searchOpen(from, to, companyId, after.encode(), 10);
+
+        assertThat(page.getShifts()).isEqualTo(shifts);
+        assertThat(page.getNext()).isNull();
+    }
+
+    @Test
+    public void searchOpen_emptyWindowError() {
+        Instant from = Instant.now();
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            shiftService.searchOpen(from, from, null, null, 10);
+        });
+        verifyNoInteractions(shiftRepository);
+    }
+
+    private List<ShiftDto> shiftDtos(UUID jobId, int count) {
+        List<ShiftDto> shifts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            shifts.add(ShiftDto.builder()
+                    .id(UUID.randomUUID())
+                    .jobId(jobId)
+                    .start(Instant.now().plus(i, ChronoUnit.DAYS))
+                    .end(Instant.now().plus(i, ChronoUnit.DAYS).plus(8, ChronoUnit.HOURS))
+                    .status(Shift.Status.CREATED)
+                    .build());
+        }
+        return shifts;
+    }
+
+
+    private static ShiftDto shiftDto(UUID jobId, Shift.Status status) {
+        return ShiftDto.builder()
+                .id(UUID.randomUUID())
+                .jobId(jobId)
+                .start(Instant.now())
+                .end(Instant.now())
+                .status(status)
+                .build();
+    }
+
+    private static ShiftDto shiftDto(UUID jobId, Shift.Status status, Instant start) {
+        return ShiftDto.builder()
+                .id(UUID.randomUUID())
+                .jobId(jobId)
+                .start(start)
+                .end(start.plus(8, ChronoUnit.HOURS))
+                .status(status)
+                .build();
+    }
+
+    private static Shift createdShift() {
+        Instant start = Instant.now().plus(1, ChronoUnit.DAYS);
+        return Shift.builder()
+                .id(UUID.randomUUID())
+                .job(Job.builder().id(UUID.randomUUID()).status(Job.Status.CREATED).build())
+                .startTime(start)
+                .endTime(start.plus(8, ChronoUnit.HOURS))
+                .status(Shift.Status.CREATED)
+                .build();
+    }
 }
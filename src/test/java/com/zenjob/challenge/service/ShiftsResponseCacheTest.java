@@ -0,0 +1,145 @@
+package com.zenjob.challenge.service;
+
+import com.zenjob.challenge.exception.JobNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ShiftsResponseCacheTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ShiftsResponseCache cache = new ShiftsResponseCache(meterRegistry, DataSize.ofKilobytes(1), Duration.ofMinutes(1));
+
+    @Test
+    public void get_loadsOnce() {
+        UUID jobId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(jobId, id -> response(loads.incrementAndGet()));
+        byte[] response = cache.get(jobId, id -> response(loads.incrementAndGet()));
+
+        assertThat(response).isEqualTo(response(1));
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "shifts.response").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void get_concurrentMissesShareOneLoad() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<byte[]>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(executor.submit(() -> cache.get(jobId, id -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    await(release);
+                    return response(1);
+                })));
+            }
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+
+            for (Future<byte[]> response : responses) {
+                assertThat(response.get(5, TimeUnit.SECONDS)).isEqualTo(response(1));
+            }
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void get_failedLoadIsNotCached() {
+        UUID jobId = UUID.randomUUID();
+
+        assertThrows(JobNotFoundException.class, () -> cache.get(jobId, id -> {
+            throw new JobNotFoundException(id);
+        }));
+
+        assertThat(cache.get(jobId, id -> response(2))).isEqualTo(response(2));
+    }
+
+    @Test
+    public void evictAfterCommit_waitsForCommit() {
+        UUID jobId = UUID.randomUUID();
+        cache.get(jobId, id -> response(1));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evictAfterCommit(jobId);
+            assertThat(cache.get(jobId, id -> response(2))).isEqualTo(response(1));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(cache.get(jobId, id -> response(2))).isEqualTo(response(2));
+    }
+
+    @Test
+    public void evictAfterCommit_dropsRunningLoad() {
+        UUID jobId = UUID.randomUUID();
+
+        byte[] loaded = cache.get(jobId, id -> {
+            cache.evictAfterCommit(id);
+            return response(1);
+        });
+
+        assertThat(loaded).isEqualTo(response(1));
+        assertThat(cache.get(jobId, id -> response(2))).isEqualTo(response(2));
+    }
+
+    @Test
+    public void get_evictsBySize() {
+        List<UUID> jobIds = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            UUID jobId = UUID.randomUUID();
+            jobIds.add(jobId);
+            cache.get(jobId, id -> new byte[100]);
+        }
+        //Caffeine evicts on the common pool
+        ForkJoinPool.commonPool().awaitQuiescence(5, TimeUnit.SECONDS);
+
+        AtomicInteger loads = new AtomicInteger();
+        jobIds.forEach(jobId -> cache.get(jobId, id -> {
+            loads.incrementAndGet();
+            return new byte[100];
+        }));
+
+        assertThat(loads.get()).isGreaterThan(50);
+    }
+
+    private static byte[] response(int version) {
+        return new byte[]{(byte) version};
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
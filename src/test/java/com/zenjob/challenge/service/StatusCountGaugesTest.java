@@ -0,0 +1,67 @@
+package com.zenjob.challenge.service;
+
+import com.zenjob.challenge.entity.Job;
+import com.zenjob.challenge.entity.Shift;
+import com.zenjob.challenge.repository.JobRepository;
+import com.zenjob.challenge.repository.ShiftRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+public class StatusCountGaugesTest {
+    @Mock
+    private JobRepository jobRepository;
+
+    @Mock
+    private ShiftRepository shiftRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final StatusCountGauges gauges;
+
+    public StatusCountGaugesTest() {
+        MockitoAnnotations.initMocks(this);
+        gauges = new StatusCountGauges(jobRepository, shiftRepository, meterRegistry);
+    }
+
+    @Test
+    public void refresh_publishesCountOfEveryStatus() {
+        when(jobRepository.countGroupedByStatus()).thenReturn(Arrays.asList(
+                new Object[]{Job.Status.CREATED, 5L},
+                new Object[]{Job.Status.CANCELED, 2L}));
+        when(shiftRepository.countGroupedByStatus()).thenReturn(Collections.singletonList(
+                new Object[]{Shift.Status.BOOKED, 30L}));
+
+        gauges.refresh();
+
+        assertThat(gauge("zenjob.jobs", Job.Status.CREATED)).isEqualTo(5);
+        assertThat(gauge("zenjob.jobs", Job.Status.CANCELED)).isEqualTo(2);
+        assertThat(gauge("zenjob.jobs", Job.Status.COMPLETED)).isZero();
+        assertThat(gauge("zenjob.shifts", Shift.Status.BOOKED)).isEqualTo(30);
+        assertThat(gauge("zenjob.shifts", Shift.Status.CREATED)).isZero();
+    }
+
+    @Test
+    public void refresh_resetsStatusesWithoutRows() {
+        when(jobRepository.countGroupedByStatus())
+                .thenReturn(Collections.singletonList(new Object[]{Job.Status.CREATED, 5L}))
+                .thenReturn(Collections.emptyList());
+
+        gauges.refresh();
+        gauges.refresh();
+
+        assertThat(gauge("zenjob.jobs", Job.Status.CREATED)).isZero();
+    }
+
+    private double gauge(String name, Enum<?> status) {
+        return meterRegistry.get(name).tag("status", status.name()).gauge().value();
+    }
+}
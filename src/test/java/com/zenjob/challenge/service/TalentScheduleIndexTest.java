@@ -0,0 +1,110 @@
+package com.zenjob.challenge.service;
+
+import com.zenjob.challenge.dto.ShiftDto;
+import com.zenjob.challenge.entity.Shift;
+import com.zenjob.challenge.repository.ShiftRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TalentScheduleIndexTest {
+    private static final Instant DAY = Instant.parse("2030-01-01T00:00:00Z");
+
+    @Mock
+    private ShiftRepository shiftRepository;
+
+    private final TalentScheduleIndex index;
+
+    public TalentScheduleIndexTest() {
+        MockitoAnnotations.initMocks(this);
+        index = new TalentScheduleIndex(shiftRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void overlaps_findsBookedShiftsAtTheSameTime() {
+        UUID talentId = UUID.randomUUID();
+        when(shiftRepository.findAllDtoByTalentIdAndStatus(talentId, Shift.Status.BOOKED)).thenReturn(Arrays.asList(
+                shift(hours(8), hours(16)),
+                shift(hours(32), hours(40)),
+                shift(hours(56), hours(64))));
+
+        assertThat(index.overlaps(talentId, hours(10), hours(12))).isTrue();
+        assertThat(index.overlaps(talentId, hours(30), hours(33))).isTrue();
+        assertThat(index.overlaps(talentId, hours(63), hours(70))).isTrue();
+        assertThat(index.overlaps(talentId, hours(0), hours(100))).isTrue();
+        //Shifts that only touch do not overlap
+        assertThat(index.overlaps(talentId, hours(16), hours(32))).isFalse();
+        assertThat(index.overlaps(talentId, hours(0), hours(8))).isFalse();
+        assertThat(index.overlaps(talentId, hours(64), hours(72))).isFalse();
+        verify(shiftRepository, times(1)).findAllDtoByTalentIdAndStatus(talentId, Shift.Status.BOOKED);
+    }
+
+    @Test
+    public void overlaps_findsLongShiftStartingBeforeShorterOnes() {
+        UUID talentId = UUID.randomUUID();
+        when(shiftRepository.findAllDtoByTalentIdAndStatus(talentId, Shift.Status.BOOKED)).thenReturn(Arrays.asList(
+                shift(hours(0), hours(48)),
+                shift(hours(8), hours(16))));
+
+        assertThat(index.overlaps(talentId, hours(20), hours(22))).isTrue();
+        assertThat(index.overlaps(talentId, hours(48), hours(50))).isFalse();
+    }
+
+    @Test
+    public void overlaps_talentWithoutBookings() {
+        UUID talentId = UUID.randomUUID();
+        when(shiftRepository.findAllDtoByTalentIdAndStatus(talentId, Shift.Status.BOOKED)).thenReturn(Collections.emptyList());
+
+        assertThat(index.overlaps(talentId, hours(8), hours(16))).isFalse();
+    }
+
+    @Test
+    public void evictAfterCommit_reloadsScheduleAfterCommit() {
+        UUID talentId = UUID.randomUUID();
+        when(shiftRepository.findAllDtoByTalentIdAndStatus(talentId, Shift.Status.BOOKED))
+                .thenReturn(Collections.emptyList())
+                .thenReturn(Collections.singletonList(shift(hours(8), hours(16))));
+        assertThat(index.overlaps(talentId, hours(8), hours(16))).isFalse();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.evictAfterCommit(talentId);
+            assertThat(index.overlaps(talentId, hours(8), hours(16))).isFalse();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(index.overlaps(talentId, hours(8), hours(16))).isTrue();
+    }
+
+    private static Instant hours(int hours) {
+        return DAY.plus(hours, ChronoUnit.HOURS);
+    }
+
+    private static ShiftDto shift(Instant start, Instant end) {
+        return ShiftDto.builder()
+                .id(UUID.randomUUID())
+                .jobId(UUID.randomUUID())
+                .start(start)
+                .end(end)
+                .status(Shift.Status.BOOKED)
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.zenjob.challenge.util;
+
+import com.zenjob.challenge.dto.ShiftDto;
+import com.zenjob.challenge.entity.Shift;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ShiftBinaryWriterTest {
+    private static final int HEADER_BYTES = 3 + 1 + 16;
+    private static final int SHIFT_BYTES = 1 + 16 + 8 + 8;
+    private static final int TALENT_BYTES = 16;
+
+    private final UUID jobId = UUID.randomUUID();
+
+    @Test
+    public void read_returnsWrittenShifts() throws IOException {
+        //More shifts than fit into the buffer of the writer
+        List<ShiftDto> shifts = shifts(500);
+
+        byte[] listing = write(shifts);
+
+        assertThat(ShiftBinaryReader.read(new ByteArrayInputStream(listing))).isEqualTo(shifts);
+    }
+
+    @Test
+    public void write_fixedSizeRecords() throws IOException {
+        List<ShiftDto> shifts = shifts(3);
+
+        byte[] listing = write(shifts);
+
+        //One of three shifts has a talent
+        assertThat(listing).hasSize(HEADER_BYTES + 3 * SHIFT_BYTES + TALENT_BYTES + 1);
+        assertThat(write(new ArrayList<>())).hasSize(HEADER_BYTES + 1);
+    }
+
+    @Test
+    public void read_cutOffListingError() throws IOException {
+        byte[] listing = write(shifts(2));
+
+        assertThrows(IOException.class, () -> ShiftBinaryReader.read(new ByteArrayInputStream(
+                Arrays.copyOf(listing, listing.length - 1))));
+        assertThrows(IOException.class, () -> ShiftBinaryReader.read(new ByteArrayInputStream(
+                "{\"data\":{}}".getBytes())));
+    }
+
+    private byte[] write(List<ShiftDto> shifts) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ShiftBinaryWriter writer = new ShiftBinaryWriter(out, jobId)) {
+            for (ShiftDto shift : shifts) {
+                writer.write(shift);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private List<ShiftDto> shifts(int count) {
+        Instant start = Instant.parse("2030-01-01T08:00:00Z");
+        List<ShiftDto> shifts = new ArrayList<>();
+        for (int day = 0; day < count; day++) {
+            boolean booked = day % 3 == 0;
+            shifts.add(new ShiftDto(UUID.randomUUID(), booked ? UUID.randomUUID() : null, jobId,
+                    start.plus(day, ChronoUnit.DAYS), start.plus(day, ChronoUnit.DAYS).plus(8, ChronoUnit.HOURS),
+                    booked ? Shift.Status.BOOKED : Shift.Status.values()[day % Shift.Status.values().length]));
+        }
+        return shifts;
+    }
+}
@@ -0,0 +1,82 @@
+package com.zenjob.challenge.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimeOrderedIdGeneratorTest {
+
+    @Test
+    public void generate_setsVersionVariantAndTimestamp() {
+        Instant now = Instant.parse("2024-05-01T10:15:30.123Z");
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(Clock.fixed(now, ZoneOffset.UTC));
+
+        UUID id = generator.generate();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(TimeOrderedIdGenerator.timestampOf(id)).isEqualTo(now.toEpochMilli());
+    }
+
+    @Test
+    public void generate_increasesWithinTheSameMillisecond() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(Clock.fixed(Instant.now(), ZoneOffset.UTC));
+
+        //More ids than the counter holds, so the generator has to borrow following milliseconds
+        UUID previous = generator.generate();
+        for (int i = 0; i < 10_000; i++) {
+            UUID next = generator.generate();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    public void generate_isUniqueAndIncreasingAcrossThreads() throws Exception {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(Clock.systemUTC());
+        int threads = 8;
+        int idsPerThread = 20_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<UUID>>> futures = new ArrayList<>();
+        Callable<List<UUID>> task = () -> {
+            List<UUID> ids = new ArrayList<>(idsPerThread);
+            for (int i = 0; i < idsPerThread; i++) {
+                ids.add(generator.generate());
+            }
+            return ids;
+        };
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(task));
+        }
+
+        Set<UUID> allIds = new HashSet<>();
+        for (Future<List<UUID>> future : futures) {
+            List<UUID> ids = future.get();
+            assertThat(ids).isSorted();
+            allIds.addAll(ids);
+        }
+        executor.shutdown();
+
+        assertThat(allIds).hasSize(threads * idsPerThread);
+    }
+
+    @Test
+    public void forStrategy_selectsGenerator() {
+        assertThat(IdGenerator.forStrategy(IdGenerator.TIME_ORDERED)).isInstanceOf(TimeOrderedIdGenerator.class);
+        assertThat(IdGenerator.forStrategy(IdGenerator.RANDOM).generate().version()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,57 @@
+package com.zenjob.challenge.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UUIDBloomFilterTest {
+    private static final int CAPACITY = 100_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    public void mightContain_findsEveryAddedId() {
+        UUIDBloomFilter filter = UUIDBloomFilter.create(CAPACITY, FALSE_POSITIVE_RATE);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(Clock.systemUTC());
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < CAPACITY; i++) {
+            ids.add(generator.generate());
+            filter.add(ids.get(i));
+        }
+
+        assertThat(ids).allMatch(filter::mightContain);
+        assertThat(filter.getAdded()).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    public void mightContain_keepsFalsePositiveRateAtCapacity() {
+        UUIDBloomFilter filter = UUIDBloomFilter.create(CAPACITY, FALSE_POSITIVE_RATE);
+        //Time ordered IDs share most of their high bits, the hashes must not depend on them alone
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(Clock.systemUTC());
+        for (int i = 0; i < CAPACITY; i++) {
+            filter.add(generator.generate());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < CAPACITY; i++) {
+            if (filter.mightContain(UUID.randomUUID())) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / CAPACITY).isLessThan(1.5 * FALSE_POSITIVE_RATE);
+        assertThat(filter.expectedFalsePositiveRate()).isBetween(0.5 * FALSE_POSITIVE_RATE, 1.5 * FALSE_POSITIVE_RATE);
+    }
+
+    @Test
+    public void create_invalidFalsePositiveRateError() {
+        assertThrows(IllegalArgumentException.class, () -> UUIDBloomFilter.create(CAPACITY, 0));
+        assertThrows(IllegalArgumentException.class, () -> UUIDBloomFilter.create(CAPACITY, 1));
+        assertThrows(IllegalArgumentException.class, () -> UUIDBloomFilter.create(0, FALSE_POSITIVE_RATE));
+    }
+}
@@ -0,0 +1,46 @@
+package com.zenjob.challenge.util;
+
+import com.zenjob.challenge.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UUIDValidatorTest {
+
+    @Test
+    public void parse_canonicalUUIDs() {
+        for (int i = 0; i < 1_000; i++) {
+            UUID uuid = UUID.randomUUID();
+            assertThat(UUIDValidator.parse(uuid.toString())).isEqualTo(uuid);
+            assertThat(UUIDValidator.parse(uuid.toString().toUpperCase())).isEqualTo(uuid);
+        }
+        assertThat(UUIDValidator.parse("ffffffff-ffff-ffff-ffff-ffffffffffff")).isEqualTo(new UUID(-1, -1));
+        assertThat(UUIDValidator.parse("00000000-0000-0000-0000-000000000000")).isEqualTo(new UUID(0, 0));
+    }
+
+    @Test
+    public void parse_invalidStringsAreNull() {
+        assertThat(UUIDValidator.parse(null)).isNull();
+        assertThat(UUIDValidator.parse("")).isNull();
+        assertThat(UUIDValidator.parse("not-a-uuid")).isNull();
+        assertThat(UUIDValidator.parse("123e4567-e89b-12d3-a456-42661417400")).isNull();
+        assertThat(UUIDValidator.parse("123e4567-e89b-12d3-a456-4266141740000")).isNull();
+        assertThat(UUIDValidator.parse("123e4567+e89b-12d3-a456-426614174000")).isNull();
+        assertThat(UUIDValidator.parse("123e4567-e89b-12d3-a456-42661417400g")).isNull();
+        //Digits of other scripts
+        assertThat(UUIDValidator.parse("123e4567-e89b-12d3-a456-42661417400٣")).isNull();
+        //Accepted by UUID.fromString, but not canonical
+        assertThat(UUIDValidator.parse("1-1-1-1-1")).isNull();
+    }
+
+    @Test
+    public void validateUUID_badRequestError() {
+        BadRequestException e = assertThrows(BadRequestException.class, () -> UUIDValidator.validateUUID("not-a-uuid"));
+
+        assertThat(e.getMessage()).isEqualTo("Invalid UUID string: not-a-uuid");
+        assertThat(e.getStackTrace()).isEmpty();
+    }
+}